@@ -0,0 +1,107 @@
+package com.kbj.restapi.common;
+
+import com.kbj.restapi.RestapiApplication;
+import com.kbj.restapi.events.Event;
+import com.kbj.restapi.events.EventRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.oauth2.common.util.Jackson2JsonParser;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+// 벤치마크에서 test 프로필(H2)로 애플리케이션을 띄우고 토큰을 발급받는 도우미.
+public class BenchmarkApplication {
+
+    private static final String[] QUIET_LOGGING = {
+            "logging.level.root=WARN",
+            "logging.level.org.hibernate.SQL=WARN",
+            "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+            "logging.level.org.springframework.security=WARN"
+    };
+
+    private final ConfigurableApplicationContext context;
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    private BenchmarkApplication(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    public static BenchmarkApplication start(String... properties) {
+        // application.properties 보다 우선하도록 command line 인자로 넘긴다. 같은 키를 넘기면 QUIET_LOGGING 대신 쓴다.
+        Set<String> keys = Stream.of(properties).map(p -> p.split("=", 2)[0]).collect(Collectors.toSet());
+        String[] args = Stream.concat(Stream.of(QUIET_LOGGING).filter(p -> !keys.contains(p.split("=", 2)[0])),
+                        Stream.of(properties))
+                .map(p -> "--" + p)
+                .toArray(String[]::new);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(RestapiApplication.class)
+                .profiles("test")
+                .properties("server.port=0")
+                .run(args);
+        return new BenchmarkApplication(context);
+    }
+
+    public ConfigurableApplicationContext getContext() {
+        return context;
+    }
+
+    public HttpClient getClient() {
+        return client;
+    }
+
+    public URI uri(String path) {
+        int port = ((WebServerApplicationContext) this.context).getWebServer().getPort();
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    // 벤치마크들이 같은 데이터로 비교하도록 이름과 설명만 다른 이벤트를 count 개 넣는다.
+    public void insertEvents(int count) {
+        List<Event> events = IntStream.range(0, count)
+                .mapToObj(i -> Event.builder()
+                        .name("Name " + i)
+                        .description("Description " + i)
+                        .beginEnrollmentDateTime(LocalDateTime.of(2020, 2, 27, 11, 29, 30))
+                        .closeEnrollmentDateTime(LocalDateTime.of(2020, 2, 28, 0, 0, 0))
+                        .beginEventDateTime(LocalDateTime.of(2020, 3, 1, 8, 0, 0))
+                        .endEventDateTime(LocalDateTime.of(2020, 3, 2, 0, 0, 0))
+                        .basePrice(100)
+                        .maxPrice(200)
+                        .limitOfEnrollment(100)
+                        .location("강남역")
+                        .build())
+                .collect(Collectors.toList());
+        this.context.getBean(EventRepository.class).insertAll(events);
+    }
+
+    public String accessToken() throws IOException, InterruptedException {
+        AppProperties appProperties = this.context.getBean(AppProperties.class);
+        String client = appProperties.getClientId() + ":" + appProperties.getClientSecret();
+        String form = "grant_type=password"
+                + "&username=" + URLEncoder.encode(appProperties.getUserUsername(), StandardCharsets.UTF_8)
+                + "&password=" + URLEncoder.encode(appProperties.getUserPassword(), StandardCharsets.UTF_8);
+        HttpRequest request = HttpRequest.newBuilder(uri("/oauth/token"))
+                .header("Authorization", "Basic " + Base64.getEncoder().encodeToString(client.getBytes(StandardCharsets.UTF_8)))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build();
+        String body = this.client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+        return new Jackson2JsonParser().parseMap(body).get("access_token").toString();
+    }
+
+    public void close() {
+        this.context.close();
+    }
+}
@@ -0,0 +1,81 @@
+package com.kbj.restapi.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.kbj.restapi.accounts.Account;
+import com.kbj.restapi.events.Event;
+import com.kbj.restapi.events.EventDto;
+import com.kbj.restapi.events.EventValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// ErrorsSerializer 와 AccountSerializer(Event.manager) 의 JSON 출력 비용.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializerBenchmark {
+
+    ObjectMapper objectMapper;
+    Errors errors;
+    Event event;
+
+    @Setup
+    public void setUp() {
+        this.objectMapper = Jackson2ObjectMapperBuilder.json()
+                .modules(new SimpleModule().addSerializer(Errors.class, new ErrorsSerializer()))
+                .build();
+
+        EventDto eventDto = EventDto.builder()
+                .beginEnrollmentDateTime(LocalDateTime.of(2020, 2, 26, 11, 29, 30))
+                .closeEnrollmentDateTime(LocalDateTime.of(2020, 2, 25, 0, 0, 0))
+                .beginEventDateTime(LocalDateTime.of(2020, 2, 24, 8, 0, 0))
+                .endEventDateTime(LocalDateTime.of(2020, 2, 23, 0, 0, 0))
+                .basePrice(10000)
+                .maxPrice(200)
+                .build();
+        this.errors = new BeanPropertyBindingResult(eventDto, "eventDto");
+        new EventValidator().validate(eventDto, this.errors);
+        this.errors.reject("wrongEvent", "Event is wrong.");
+
+        this.event = Event.builder()
+                .id(1)
+                .name("Spring")
+                .description("REST API")
+                .beginEnrollmentDateTime(LocalDateTime.of(2020, 2, 27, 11, 29, 30))
+                .closeEnrollmentDateTime(LocalDateTime.of(2020, 2, 28, 0, 0, 0))
+                .beginEventDateTime(LocalDateTime.of(2020, 3, 1, 8, 0, 0))
+                .endEventDateTime(LocalDateTime.of(2020, 3, 2, 0, 0, 0))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .manager(Account.builder().id(1).email("user@email.com").build())
+                .build();
+    }
+
+    @Benchmark
+    public byte[] errors() throws Exception {
+        return this.objectMapper.writeValueAsBytes(this.errors);
+    }
+
+    @Benchmark
+    public byte[] eventWithManager() throws Exception {
+        return this.objectMapper.writeValueAsBytes(this.event);
+    }
+}
@@ -0,0 +1,70 @@
+package com.kbj.restapi.common;
+
+import com.kbj.restapi.events.Event;
+import com.kbj.restapi.events.EventRepository;
+import com.kbj.restapi.events.EventSearch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.concurrent.TimeUnit;
+
+// 필터를 건 이벤트 한 페이지 조회(select + count) 시간을 SQL 로그 설정별로 비교한다.
+// HTTP 왕복 없이 repository 를 직접 호출해 JDBC 경로의 로그 비용만 보이게 한다.
+// dev 는 application.properties 의 SQL DEBUG / BasicBinder TRACE, prod 는 application-prod.properties 의 설정이다.
+// 로그는 파일로만 남겨 벤치마크 출력이 섞이지 않게 한다.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SqlLoggingBenchmark {
+
+    @Param({"dev", "prod"})
+    String logging;
+
+    BenchmarkApplication application;
+    EventRepository eventRepository;
+    Specification<Event> specification;
+    Pageable pageable;
+
+    @Setup
+    public void setUp() {
+        boolean dev = "dev".equals(logging);
+        this.application = BenchmarkApplication.start(
+                "logging.level.org.hibernate.SQL=" + (dev ? "DEBUG" : "WARN"),
+                "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=" + (dev ? "TRACE" : "WARN"),
+                "spring.jpa.properties.hibernate.format_sql=" + dev,
+                "logging.file.name=target/sql-logging-benchmark.log",
+                "logging.pattern.console=%nopex");
+        this.application.insertEvents(1000);
+        this.eventRepository = this.application.getContext().getBean(EventRepository.class);
+        this.specification = EventSearch.builder().minBasePrice(50).build().toSpecification();
+        this.pageable = PageRequest.of(10, 20, Sort.by("name").descending());
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.application.close();
+    }
+
+    @Benchmark
+    public Page<Event> queryEvents() {
+        return this.eventRepository.findAll(this.specification, this.pageable);
+    }
+}
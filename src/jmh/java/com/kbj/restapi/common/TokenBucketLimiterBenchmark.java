@@ -0,0 +1,91 @@
+package com.kbj.restapi.common;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// 모든 코어에서 동시에 한도를 확인할 때의 처리량.
+// limiter 는 Caffeine(내부적으로 나뉜 해시 bin 과 읽기 버퍼)에 key 별 AtomicLong 을 두고 CAS 로 판정한다.
+// synchronizedMap 은 같은 계산을 LRU LinkedHashMap 하나와 락 하나로 하는 비교 대상이다.
+// keys=1 은 한 key 에 요청이 몰리는 경우(같은 AtomicLong 의 CAS 경합), 나머지는 여러 client/계정에 흩어진 경우다.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(Threads.MAX)
+public class TokenBucketLimiterBenchmark {
+
+    private static final int MAXIMUM_SIZE = 100000;
+
+    @Param({"1", "1024", "65536"})
+    int keys;
+
+    TokenBucketLimiter limiter;
+    Map<String, long[]> synchronizedMap;
+    TokenBucketLimiter.Limit limit;
+    long intervalNanos;
+    long burstNanos;
+    String[] names;
+
+    @Setup
+    public void setUp() {
+        this.limiter = new TokenBucketLimiter(MAXIMUM_SIZE, Duration.ofMinutes(10), Ticker.systemTicker());
+        this.synchronizedMap = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, long[]> eldest) {
+                return size() > MAXIMUM_SIZE;
+            }
+        };
+        // 대부분 허용되도록 넉넉하게 두어 매번 bucket 을 갱신하는 경로를 잰다.
+        this.limit = new TokenBucketLimiter.Limit(1_000_000_000, 1_000_000);
+        this.intervalNanos = 1;
+        this.burstNanos = 1_000_000;
+        this.names = new String[this.keys];
+        for (int i = 0; i < this.keys; i++) {
+            this.names[i] = "account:r:user" + i + "@email.com";
+        }
+    }
+
+    @Benchmark
+    public long limiter() {
+        return this.limiter.tryAcquire(nextKey(), this.limit);
+    }
+
+    @Benchmark
+    public long synchronizedMap() {
+        String key = nextKey();
+        long now = System.nanoTime();
+        synchronized (this.synchronizedMap) {
+            long[] bucket = this.synchronizedMap.computeIfAbsent(key, k -> new long[]{now});
+            long next = Math.max(bucket[0], now) + this.intervalNanos;
+            long wait = next - now - this.burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            bucket[0] = next;
+            return 0;
+        }
+    }
+
+    private String nextKey() {
+        return this.names[ThreadLocalRandom.current().nextInt(this.keys)];
+    }
+}
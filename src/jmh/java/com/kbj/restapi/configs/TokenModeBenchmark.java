@@ -0,0 +1,61 @@
+package com.kbj.restapi.configs;
+
+import com.kbj.restapi.common.BenchmarkApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+// 인증된 요청의 초당 처리량을 토큰 모드별로 비교한다.
+// store-uncached 는 near-cache 없이 매 요청 DB 의 토큰 저장소를 조회하는 경우다.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(8)
+public class TokenModeBenchmark {
+
+    @Param({"store", "store-uncached", "jwt"})
+    String mode;
+
+    BenchmarkApplication application;
+    HttpRequest request;
+
+    @Setup
+    public void setUp() throws Exception {
+        this.application = BenchmarkApplication.start(
+                "my-app.jwt.enabled=" + "jwt".equals(mode),
+                "my-app.jwt.active-key-id=k1",
+                "my-app.jwt.keys.k1=benchmark-secret",
+                "my-app.token-store.near-cache-ttl-seconds=" + ("store-uncached".equals(mode) ? 0 : 30));
+        this.request = HttpRequest.newBuilder(application.uri("/api"))
+                .header("Authorization", "Bearer " + application.accessToken())
+                .GET()
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.application.close();
+    }
+
+    @Benchmark
+    public int authenticatedRequest() throws Exception {
+        return this.application.getClient().send(this.request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
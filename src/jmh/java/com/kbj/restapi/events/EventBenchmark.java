@@ -0,0 +1,85 @@
+package com.kbj.restapi.events;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// 이벤트 생성/수정 요청마다 실행되는 도메인 로직과 검증 비용.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventBenchmark {
+
+  Event event;
+  EventValidator eventValidator;
+  EventDto validEventDto;
+  EventDto wrongEventDto;
+
+  @Setup
+  public void setUp() {
+    this.event = Event.builder()
+      .name("Spring")
+      .basePrice(100)
+      .maxPrice(200)
+      .location("강남역")
+      .build();
+    this.eventValidator = new EventValidator();
+    this.validEventDto = EventDto.builder()
+      .name("Spring")
+      .description("REST API")
+      .beginEnrollmentDateTime(LocalDateTime.of(2020, 2, 27, 11, 29, 30))
+      .closeEnrollmentDateTime(LocalDateTime.of(2020, 2, 28, 0, 0, 0))
+      .beginEventDateTime(LocalDateTime.of(2020, 3, 1, 8, 0, 0))
+      .endEventDateTime(LocalDateTime.of(2020, 3, 2, 0, 0, 0))
+      .basePrice(100)
+      .maxPrice(200)
+      .limitOfEnrollment(100)
+      .build();
+    this.wrongEventDto = EventDto.builder()
+      .name("Spring")
+      .description("REST API")
+      .beginEnrollmentDateTime(LocalDateTime.of(2020, 2, 26, 11, 29, 30))
+      .closeEnrollmentDateTime(LocalDateTime.of(2020, 2, 25, 0, 0, 0))
+      .beginEventDateTime(LocalDateTime.of(2020, 2, 24, 8, 0, 0))
+      .endEventDateTime(LocalDateTime.of(2020, 2, 23, 0, 0, 0))
+      .basePrice(10000)
+      .maxPrice(200)
+      .limitOfEnrollment(100)
+      .build();
+  }
+
+  @Benchmark
+  public Event update() {
+    this.event.update();
+    return this.event;
+  }
+
+  @Benchmark
+  public Errors validateValid() {
+    Errors errors = new BeanPropertyBindingResult(this.validEventDto, "eventDto");
+    this.eventValidator.validate(this.validEventDto, errors);
+    return errors;
+  }
+
+  @Benchmark
+  public Errors validateWrong() {
+    Errors errors = new BeanPropertyBindingResult(this.wrongEventDto, "eventDto");
+    this.eventValidator.validate(this.wrongEventDto, errors);
+    return errors;
+  }
+}
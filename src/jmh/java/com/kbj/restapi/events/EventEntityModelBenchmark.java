@@ -0,0 +1,62 @@
+package com.kbj.restapi.events;
+
+import com.kbj.restapi.common.LinkTemplates;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+// 목록 응답의 이벤트마다 실행되는 EventEntityModel 생성과 링크 계산 비용. linkTo 는 비교용이다.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventEntityModelBenchmark {
+
+  Event event;
+
+  @Setup
+  public void setUp() {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/events");
+    request.setServerName("api.example.com");
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    this.event = Event.builder().id(1).name("Spring").build();
+  }
+
+  @TearDown
+  public void tearDown() {
+    RequestContextHolder.resetRequestAttributes();
+  }
+
+  @Benchmark
+  public EventEntityModel entityModel() {
+    return new EventEntityModel(this.event);
+  }
+
+  @Benchmark
+  public Link updateLinkWithLinkTo() {
+    return linkTo(EventController.class).slash(this.event.getId()).withRel("update-event");
+  }
+
+  @Benchmark
+  public Link updateLinkWithTemplate() {
+    return new Link(LinkTemplates.event(this.event.getId()), "update-event");
+  }
+}
@@ -0,0 +1,76 @@
+package com.kbj.restapi.events;
+
+import com.kbj.restapi.configs.AppConfig;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// EventDto -> Event 매핑 비용 비교. 할당량(gc.alloc.rate.norm)은 -prof gc 로 함께 측정된다.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventMappingBenchmark {
+
+  ModelMapper modelMapper;
+  EventMapper eventMapper;
+  EventDto eventDto;
+  Event event;
+
+  @Setup
+  public void setUp() {
+    this.modelMapper = new AppConfig().modelMapper();
+    this.eventMapper = new EventMapperImpl();
+    this.eventDto = EventDto.builder()
+      .name("Spring")
+      .description("REST API")
+      .beginEnrollmentDateTime(LocalDateTime.of(2020, 2, 27, 11, 29, 30))
+      .closeEnrollmentDateTime(LocalDateTime.of(2020, 2, 28, 0, 0, 0))
+      .beginEventDateTime(LocalDateTime.of(2020, 3, 1, 8, 0, 0))
+      .endEventDateTime(LocalDateTime.of(2020, 3, 2, 0, 0, 0))
+      .location("강남역")
+      .basePrice(100)
+      .maxPrice(200)
+      .limitOfEnrollment(100)
+      .build();
+    this.event = this.eventMapper.toEvent(this.eventDto);
+    // 첫 호출에서 만들어지는 타입 맵 생성 비용은 제외한다.
+    this.modelMapper.map(this.eventDto, Event.class);
+    this.modelMapper.map(this.eventDto, this.event);
+  }
+
+  @Benchmark
+  public Event createWithModelMapper() {
+    return this.modelMapper.map(this.eventDto, Event.class);
+  }
+
+  @Benchmark
+  public Event createWithEventMapper() {
+    return this.eventMapper.toEvent(this.eventDto);
+  }
+
+  @Benchmark
+  public Event updateWithModelMapper() {
+    this.modelMapper.map(this.eventDto, this.event);
+    return this.event;
+  }
+
+  @Benchmark
+  public Event updateWithEventMapper() {
+    this.eventMapper.update(this.eventDto, this.event);
+    return this.event;
+  }
+}
@@ -0,0 +1,54 @@
+package com.kbj.restapi.events;
+
+import com.kbj.restapi.common.BenchmarkApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+// H2 에 이벤트를 채워두고 GET /api/events 한 페이지를 렌더링하는 전체 요청 시간.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class QueryEventsBenchmark {
+
+  @Param({"20"})
+  int size;
+
+  BenchmarkApplication application;
+  HttpRequest request;
+
+  @Setup
+  public void setUp() {
+    this.application = BenchmarkApplication.start();
+    this.application.insertEvents(1000);
+    this.request = HttpRequest.newBuilder(this.application.uri("/api/events?page=10&sort=name,DESC&size=" + this.size))
+      .GET()
+      .build();
+  }
+
+  @TearDown
+  public void tearDown() {
+    this.application.close();
+  }
+
+  @Benchmark
+  public String queryEvents() throws Exception {
+    return this.application.getClient().send(this.request, HttpResponse.BodyHandlers.ofString()).body();
+  }
+}
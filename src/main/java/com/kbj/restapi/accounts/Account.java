@@ -1,14 +1,30 @@
 package com.kbj.restapi.accounts;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
+import java.io.ObjectStreamField;
+import java.io.Serializable;
 import java.util.Set;
 
 @Entity
+@Cacheable @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter @Setter @EqualsAndHashCode(of = "id")
 @Builder @NoArgsConstructor @AllArgsConstructor
-public class Account {
+public class Account implements Serializable {
+
+    // 토큰 저장소에 직렬화된 인증 정보를 배포 뒤에도 읽을 수 있도록 지금까지 계산되던 값으로 고정한다.
+    private static final long serialVersionUID = -332697505035067684L;
+
+    // 토큰 저장소의 인증 정보에 비밀번호 해시가 남지 않도록 password 는 직렬화하지 않는다.
+    // JPA 가 매핑하지 않게 되므로 transient 키워드 대신 직렬화할 필드를 직접 나열한다.
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("id", Integer.class),
+            new ObjectStreamField("email", String.class),
+            new ObjectStreamField("roles", Set.class)
+    };
 
     @Id @GeneratedValue
     private Integer id;
@@ -19,6 +35,7 @@ public class Account {
     private String password;
 
     @ElementCollection(fetch = FetchType.EAGER)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @Enumerated(EnumType.STRING)
     private Set<AccountRole> roles;
 
@@ -0,0 +1,120 @@
+package com.kbj.restapi.accounts;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+// bcrypt 검증 결과 중 성공한 것만 짧게 캐시하고, 해시 계산은 별도의 제한된 executor 에서 돌린다.
+// 캐시 키는 프로세스마다 새로 만든 키로 계산한 HMAC 이라 평문이나 해시가 메모리에 남지 않는다.
+public class CachingPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final PasswordEncoder delegate;
+    private final ExecutorService hashExecutor;
+    private final Cache<String, Boolean> verified;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final ThreadLocal<Mac> mac;
+
+    public CachingPasswordEncoder(PasswordEncoder delegate, ExecutorService hashExecutor,
+                                  Duration ttl, long maximumSize, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.hashExecutor = hashExecutor;
+        this.verified = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        this.encodeTimer = Timer.builder("password.hash").tag("operation", "encode").register(meterRegistry);
+        this.matchesTimer = Timer.builder("password.hash").tag("operation", "matches").register(meterRegistry);
+        // Prometheus 는 같은 이름의 지표가 같은 tag key 를 가져야 하므로 Spring 캐시 지표와 tag key 를 맞춘다.
+        CaffeineCacheMetrics.monitor(meterRegistry, this.verified, "password.verifications",
+                "cacheManager", "passwordEncoder", "name", "password.verifications");
+
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        SecretKeySpec keySpec = new SecretKeySpec(key, HMAC_ALGORITHM);
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+                mac.init(keySpec);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return hash(this.encodeTimer, () -> this.delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null) {
+            return this.delegate.matches(rawPassword, encodedPassword);
+        }
+
+        String key = digest(rawPassword, encodedPassword);
+        if (this.verified.getIfPresent(key) != null) {
+            return true;
+        }
+
+        boolean matches = hash(this.matchesTimer, () -> this.delegate.matches(rawPassword, encodedPassword));
+        if (matches) {
+            this.verified.put(key, Boolean.TRUE);
+        }
+        return matches;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return this.delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void close() {
+        this.hashExecutor.shutdown();
+    }
+
+    private <T> T hash(Timer timer, Supplier<T> task) {
+        try {
+            return this.hashExecutor.submit(() -> timer.record(task)).get();
+        } catch (RejectedExecutionException e) {
+            throw new AuthenticationServiceException("Password hashing capacity exceeded", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AuthenticationServiceException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new AuthenticationServiceException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private String digest(CharSequence rawPassword, String encodedPassword) {
+        Mac mac = this.mac.get();
+        mac.update(rawPassword.toString().getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        return Base64.getEncoder().encodeToString(mac.doFinal(encodedPassword.getBytes(StandardCharsets.UTF_8)));
+    }
+}
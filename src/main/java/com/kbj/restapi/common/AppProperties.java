@@ -5,6 +5,7 @@ import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotEmpty;
 
 @Component
@@ -24,5 +25,7 @@ public class AppProperties {
     private String clientId;
     @NotEmpty
     private String clientSecret;
+    @Min(1)
+    private int eventBatchMaxSize = 10000;
 
 }
@@ -0,0 +1,54 @@
+package com.kbj.restapi.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Set;
+
+// 400, 401, 404 응답 수를 http.server.client.errors{status, uri} 로 센다.
+// 보안 필터에서 끝나는 401 도 세도록 보안 필터보다 바깥에 등록한다.
+public class ClientErrorMetricsFilter extends OncePerRequestFilter {
+
+    private static final Set<Integer> STATUSES = Set.of(
+            HttpServletResponse.SC_BAD_REQUEST,
+            HttpServletResponse.SC_UNAUTHORIZED,
+            HttpServletResponse.SC_NOT_FOUND);
+
+    private final MeterRegistry meterRegistry;
+
+    public ClientErrorMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    // 비동기 요청은 마지막 dispatch 에서 상태 코드가 정해진다.
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int status = response.getStatus();
+            if (!isAsyncStarted(request) && STATUSES.contains(status)) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                Counter.builder("http.server.client.errors")
+                        .description("Responses with status 400, 401 or 404")
+                        .tag("status", String.valueOf(status))
+                        .tag("uri", pattern == null ? "UNKNOWN" : pattern.toString())
+                        .register(this.meterRegistry)
+                        .increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.kbj.restapi.common;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// 동시에 열려 있는 커넥션 수를 permits 로 제한한다. 대기자가 maxWaiting 을 넘거나 timeout 안에 자리가 나지 않으면
+// 커넥션 풀에 줄을 세우지 않고 바로 실패시켜, 요청이 몰려도 풀 대기열과 요청 스레드가 한없이 쌓이지 않게 한다.
+public class ConcurrencyLimitingDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final int maxWaiting;
+    private final long timeoutNanos;
+
+    public ConcurrencyLimitingDataSource(DataSource dataSource, int maxConcurrency, int maxWaiting, Duration timeout) {
+        super(dataSource);
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.maxWaiting = maxWaiting;
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        return guard(() -> super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        return guard(() -> super.getConnection(username, password));
+    }
+
+    public int getAvailablePermits() {
+        return this.permits.availablePermits();
+    }
+
+    public int getWaiting() {
+        return this.permits.getQueueLength();
+    }
+
+    private void acquire() throws SQLException {
+        if (this.permits.tryAcquire()) {
+            return;
+        }
+        if (this.permits.getQueueLength() >= this.maxWaiting) {
+            throw new SQLTransientConnectionException("Too many requests waiting for a database connection");
+        }
+        try {
+            if (!this.permits.tryAcquire(this.timeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new SQLTransientConnectionException("Timed out waiting for a database connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection", e);
+        }
+    }
+
+    private Connection guard(ConnectionSupplier supplier) throws SQLException {
+        Connection connection;
+        try {
+            connection = supplier.get();
+        } catch (SQLException | RuntimeException e) {
+            this.permits.release();
+            throw e;
+        }
+
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName())) {
+                        if (!released.compareAndSet(false, true)) {
+                            return null;
+                        }
+                        try {
+                            connection.close();
+                        } finally {
+                            this.permits.release();
+                        }
+                        return null;
+                    }
+                    if ("isClosed".equals(method.getName()) && released.get()) {
+                        return true;
+                    }
+                    if ("unwrap".equals(method.getName()) && ((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+}
@@ -0,0 +1,147 @@
+package com.kbj.restapi.common;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Idempotency-Key 로 들어온 요청의 응답을 ttl 동안 기억해 두고, 같은 키로 다시 오면 요청을 실행하지 않고 그 응답을 돌려준다.
+// 처리 중인 키로 동시에 들어온 요청은 먼저 온 요청의 결과를 기다린다. 성공(2xx)한 응답만 남기고 나머지는 바로 지운다.
+// 일괄 생성 응답은 수 MB 가 될 수 있으므로 개수가 아니라 응답을 JSON 으로 쓴 크기의 합(maximumWeight, byte)으로 제한한다.
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private final Cache<String, Entry> responses;
+    private final ObjectMapper objectMapper;
+    private final Duration waitTimeout;
+    private final Counter executed;
+    private final Counter replayed;
+    private final Counter mismatched;
+    private final Counter inProgress;
+
+    public IdempotencyStore(Duration ttl, long maximumWeight, Duration waitTimeout, ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry) {
+        this.responses = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumWeight(maximumWeight)
+                .weigher((String key, Entry entry) -> entry.weight)
+                // 무게를 다시 매긴 직후에 바로 밀어내도록 정리 작업을 호출한 스레드에서 한다.
+                .executor(Runnable::run)
+                .recordStats()
+                .build();
+        this.objectMapper = objectMapper;
+        this.waitTimeout = waitTimeout;
+        this.executed = counter(meterRegistry, "executed");
+        this.replayed = counter(meterRegistry, "replayed");
+        this.mismatched = counter(meterRegistry, "mismatched");
+        this.inProgress = counter(meterRegistry, "in_progress");
+        CaffeineCacheMetrics.monitor(meterRegistry, this.responses, "idempotency.keys",
+                "cacheManager", "idempotencyStore", "name", "idempotency.keys");
+    }
+
+    public static boolean isValidKey(String key) {
+        return !key.isBlank() && key.length() <= MAX_KEY_LENGTH;
+    }
+
+    // fingerprint 는 요청 본문을 나타내는 값으로, 같은 키에 다른 본문이 오면 422 로 거절한다.
+    public ResponseEntity<?> execute(String key, String fingerprint, Supplier<ResponseEntity<?>> request) {
+        ConcurrentMap<String, Entry> map = this.responses.asMap();
+        Entry entry = new Entry(fingerprint, key.length() + fingerprint.length());
+        Entry existing = map.putIfAbsent(key, entry);
+        if (existing != null) {
+            return replay(existing, key, fingerprint, request);
+        }
+
+        this.executed.increment();
+        ResponseEntity<?> response;
+        try {
+            response = request.get();
+        } catch (RuntimeException | Error e) {
+            map.remove(key, entry);
+            entry.response.completeExceptionally(e);
+            throw e;
+        }
+        entry.response.complete(response);
+        if (response.getStatusCode().is2xxSuccessful()) {
+            // 응답 크기로 무게를 다시 매긴다. 그 사이 만료되거나 밀려났으면 다시 넣지 않는다.
+            entry.weight = weigh(key, fingerprint, response);
+            map.replace(key, entry, entry);
+        } else {
+            map.remove(key, entry);
+        }
+        return response;
+    }
+
+    private ResponseEntity<?> replay(Entry existing, String key, String fingerprint,
+                                     Supplier<ResponseEntity<?>> request) {
+        if (!existing.fingerprint.equals(fingerprint)) {
+            this.mismatched.increment();
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).build();
+        }
+
+        ResponseEntity<?> response;
+        try {
+            response = existing.response.get(this.waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            this.inProgress.increment();
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            this.inProgress.increment();
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (ExecutionException e) {
+            // 먼저 온 요청이 예외로 끝나면 키가 지워졌으므로 이 요청이 다시 시도한다.
+            return execute(key, fingerprint, request);
+        }
+
+        this.replayed.increment();
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .header(REPLAYED_HEADER, "true")
+                .body(response.getBody());
+    }
+
+    private int weigh(String key, String fingerprint, ResponseEntity<?> response) {
+        long weight = key.length() + fingerprint.length() + response.getHeaders().toString().length();
+        if (response.getBody() != null) {
+            try {
+                weight += this.objectMapper.writeValueAsBytes(response.getBody()).length;
+            } catch (JsonProcessingException e) {
+                weight += String.valueOf(response.getBody()).length();
+            }
+        }
+        return (int) Math.min(weight, Integer.MAX_VALUE);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("idempotency.requests").tag("outcome", outcome).register(meterRegistry);
+    }
+
+    private static class Entry {
+
+        private final String fingerprint;
+        private final CompletableFuture<ResponseEntity<?>> response = new CompletableFuture<>();
+        private volatile int weight;
+
+        private Entry(String fingerprint, int weight) {
+            this.fingerprint = fingerprint;
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.kbj.restapi.common;
+
+import com.kbj.restapi.events.EventController;
+import com.kbj.restapi.index.IndexController;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.lang.reflect.AnnotatedElement;
+
+// 컨트롤러 매핑 경로는 클래스 로딩 시 한 번만 읽고, 요청마다 base URI 도 한 번만 계산해서
+// 엔티티마다 linkTo 로 프록시와 리플렉션을 거치지 않고 문자열 연결로 링크를 만든다.
+// 신뢰하는 프록시의 X-Forwarded-* 헤더는 Tomcat RemoteIpValve(server.forward-headers-strategy=native)가 요청에 반영한다.
+public final class LinkTemplates {
+
+    private static final String BASE_URI_ATTRIBUTE = LinkTemplates.class.getName() + ".BASE_URI";
+    private static final String DEFAULT_BASE_URI = "http://localhost";
+
+    private static final String EVENTS = mappingOf(EventController.class);
+    private static final String INDEX = mappingOf(IndexController.class)
+            + mappingOf(ReflectionUtils.findMethod(IndexController.class, "index"));
+
+    private LinkTemplates() {
+    }
+
+    public static String events() {
+        return baseUri() + EVENTS;
+    }
+
+    public static String event(Object id) {
+        return baseUri() + EVENTS + "/" + id;
+    }
+
+    public static String index() {
+        return baseUri() + INDEX;
+    }
+
+    private static String baseUri() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return DEFAULT_BASE_URI;
+        }
+        String baseUri = (String) attributes.getAttribute(BASE_URI_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (baseUri == null) {
+            baseUri = ServletUriComponentsBuilder.fromCurrentServletMapping().toUriString();
+            attributes.setAttribute(BASE_URI_ATTRIBUTE, baseUri, RequestAttributes.SCOPE_REQUEST);
+        }
+        return baseUri;
+    }
+
+    private static String mappingOf(AnnotatedElement element) {
+        RequestMapping mapping = AnnotatedElementUtils.findMergedAnnotation(element, RequestMapping.class);
+        return mapping == null || mapping.path().length == 0 ? "" : mapping.path()[0];
+    }
+}
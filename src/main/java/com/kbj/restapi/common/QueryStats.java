@@ -0,0 +1,86 @@
+package com.kbj.restapi.common;
+
+// 스레드별로 계속 증가하는 DB 사용량 카운터. 요청이나 repository 호출 하나의 사용량은 시작과 끝의 차이로 구한다.
+// 스레드 안에서만 읽고 쓰므로 동기화하지 않는다.
+public final class QueryStats {
+
+    private static final ThreadLocal<QueryStats> CURRENT = ThreadLocal.withInitial(QueryStats::new);
+
+    private long statements;
+    private long statementNanos;
+    private long entityLoads;
+    private long cacheHits;
+    private long cacheMisses;
+    private long flushes;
+
+    public static QueryStats current() {
+        return CURRENT.get();
+    }
+
+    public QueryStats snapshot() {
+        QueryStats snapshot = new QueryStats();
+        snapshot.statements = this.statements;
+        snapshot.statementNanos = this.statementNanos;
+        snapshot.entityLoads = this.entityLoads;
+        snapshot.cacheHits = this.cacheHits;
+        snapshot.cacheMisses = this.cacheMisses;
+        snapshot.flushes = this.flushes;
+        return snapshot;
+    }
+
+    public QueryStats since(QueryStats start) {
+        QueryStats delta = new QueryStats();
+        delta.statements = this.statements - start.statements;
+        delta.statementNanos = this.statementNanos - start.statementNanos;
+        delta.entityLoads = this.entityLoads - start.entityLoads;
+        delta.cacheHits = this.cacheHits - start.cacheHits;
+        delta.cacheMisses = this.cacheMisses - start.cacheMisses;
+        delta.flushes = this.flushes - start.flushes;
+        return delta;
+    }
+
+    void statementExecuted(long nanos) {
+        this.statements++;
+        this.statementNanos += nanos;
+    }
+
+    void entityLoaded() {
+        this.entityLoads++;
+    }
+
+    void cacheGet(boolean hit) {
+        if (hit) {
+            this.cacheHits++;
+        } else {
+            this.cacheMisses++;
+        }
+    }
+
+    void flushed() {
+        this.flushes++;
+    }
+
+    public long getStatements() {
+        return statements;
+    }
+
+    public long getStatementNanos() {
+        return statementNanos;
+    }
+
+    public long getEntityLoads() {
+        return entityLoads;
+    }
+
+    public long getCacheHits() {
+        return cacheHits;
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses;
+    }
+
+    public long getFlushes() {
+        return flushes;
+    }
+}
@@ -0,0 +1,166 @@
+package com.kbj.restapi.common;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// 요청 하나가 쓴 문장 수, 문장 실행 시간, 엔티티 로드, 2차 캐시 hit/miss, flush 수를 uri 별 분포로 기록한다.
+// header 를 켜면 X-Query-Count 로도 알려준다. 직렬화 중 lazy loading 까지 세도록 본문을 버퍼링하므로 운영에서는 끈다.
+public class QueryStatsFilter extends OncePerRequestFilter {
+
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+
+    private static final String START_ATTRIBUTE = QueryStatsFilter.class.getName() + ".start";
+    // Spring MVC 가 SseEmitter, StreamingResponseBody 응답을 시작할 때 ShallowEtagHeaderFilter.disableContentCaching 으로 남기는 attribute.
+    private static final String STREAMING_ATTRIBUTE = ShallowEtagHeaderFilter.class.getName() + ".STREAMING";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean header;
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+
+    public QueryStatsFilter(MeterRegistry meterRegistry, boolean header) {
+        this.meterRegistry = meterRegistry;
+        this.header = header;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return !this.header;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        HttpServletResponse responseToUse = response;
+        if (this.header && !isAsyncDispatch(request) && !(response instanceof ContentCachingResponseWrapper)) {
+            responseToUse = new StreamingAwareResponseWrapper(response, request);
+        }
+        if (!isAsyncDispatch(request)) {
+            request.setAttribute(START_ATTRIBUTE, QueryStats.current().snapshot());
+        }
+
+        try {
+            filterChain.doFilter(request, responseToUse);
+        } finally {
+            // 비동기 요청은 다른 스레드에서 이어지므로 처음 dispatch 에서 쓴 양만 기록하고, 본문은 마지막 dispatch 에서 내보낸다.
+            QueryStats start = (QueryStats) request.getAttribute(START_ATTRIBUTE);
+            if (start != null) {
+                request.removeAttribute(START_ATTRIBUTE);
+                QueryStats used = QueryStats.current().since(start);
+                record(request, used);
+                if (this.header && !isAsyncStarted(request)) {
+                    responseToUse.setHeader(QUERY_COUNT_HEADER, String.valueOf(used.getStatements()));
+                }
+            }
+            if (!isAsyncStarted(request)) {
+                ContentCachingResponseWrapper wrapper =
+                        WebUtils.getNativeResponse(responseToUse, ContentCachingResponseWrapper.class);
+                if (wrapper != null) {
+                    wrapper.copyBodyToResponse();
+                }
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, QueryStats used) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Meters meters = this.meters.computeIfAbsent(pattern == null ? "UNKNOWN" : pattern.toString(), this::register);
+        meters.statements.record(used.getStatements());
+        meters.statementTime.record(used.getStatementNanos(), TimeUnit.NANOSECONDS);
+        meters.entityLoads.record(used.getEntityLoads());
+        meters.cacheHits.record(used.getCacheHits());
+        meters.cacheMisses.record(used.getCacheMisses());
+        meters.flushes.record(used.getFlushes());
+    }
+
+    private Meters register(String uri) {
+        return new Meters(
+                summary("db.request.statements", uri, "JDBC statements executed per request"),
+                Timer.builder("db.request.statement.time")
+                        .description("Time spent executing JDBC statements per request")
+                        .tag("uri", uri)
+                        .register(this.meterRegistry),
+                summary("db.request.entity.loads", uri, "Entities loaded per request"),
+                summary("db.request.cache.hits", uri, "Second-level cache hits per request"),
+                summary("db.request.cache.misses", uri, "Second-level cache misses per request"),
+                summary("db.request.flushes", uri, "Session flushes per request"));
+    }
+
+    private DistributionSummary summary(String name, String uri, String description) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tag("uri", uri)
+                .register(this.meterRegistry);
+    }
+
+    // 스트리밍 응답은 버퍼링하면 클라이언트에 전달되지 않으므로 표시된 뒤부터는 원래 응답에 바로 쓴다.
+    private static class StreamingAwareResponseWrapper extends ContentCachingResponseWrapper {
+
+        private final HttpServletRequest request;
+
+        private StreamingAwareResponseWrapper(HttpServletResponse response, HttpServletRequest request) {
+            super(response);
+            this.request = request;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            return isStreaming() ? getResponse().getOutputStream() : super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            return isStreaming() ? getResponse().getWriter() : super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (isStreaming()) {
+                copyBodyToResponse();
+                getResponse().flushBuffer();
+            } else {
+                super.flushBuffer();
+            }
+        }
+
+        private boolean isStreaming() {
+            return this.request.getAttribute(STREAMING_ATTRIBUTE) != null;
+        }
+    }
+
+    private static class Meters {
+
+        private final DistributionSummary statements;
+        private final Timer statementTime;
+        private final DistributionSummary entityLoads;
+        private final DistributionSummary cacheHits;
+        private final DistributionSummary cacheMisses;
+        private final DistributionSummary flushes;
+
+        private Meters(DistributionSummary statements, Timer statementTime, DistributionSummary entityLoads,
+                       DistributionSummary cacheHits, DistributionSummary cacheMisses, DistributionSummary flushes) {
+            this.statements = statements;
+            this.statementTime = statementTime;
+            this.entityLoads = entityLoads;
+            this.cacheHits = cacheHits;
+            this.cacheMisses = cacheMisses;
+            this.flushes = flushes;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.kbj.restapi.common;
+
+import org.hibernate.BaseSessionEventListener;
+import org.hibernate.event.spi.PostLoadEventListener;
+
+// Hibernate 가 세션마다 만드는 리스너 (hibernate.session.events.auto). 실행한 문장과 그 시간, 2차 캐시 조회 결과와 flush 를
+// QueryStats 에 센다. DataSource 를 감싸지 않으므로 모든 프로필에서 켜 두며, JdbcTemplate 으로 직접 실행한 문장은 세지 않는다.
+public class QueryStatsSessionListener extends BaseSessionEventListener {
+
+    // 세션은 한 스레드에서만 쓰므로 시작 시각을 필드에 둔다.
+    private long statementStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        this.statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        QueryStats.current().statementExecuted(System.nanoTime() - this.statementStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        this.batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        QueryStats.current().statementExecuted(System.nanoTime() - this.batchStart);
+    }
+
+    @Override
+    public void cacheGetEnd(boolean hit) {
+        QueryStats.current().cacheGet(hit);
+    }
+
+    @Override
+    public void flushEnd(int numberOfEntities, int numberOfCollections) {
+        QueryStats.current().flushed();
+    }
+
+    @Override
+    public void partialFlushEnd(int numberOfEntities, int numberOfCollections) {
+        QueryStats.current().flushed();
+    }
+
+    // 엔티티 로드는 세션 이벤트에 없으므로 POST_LOAD 이벤트 리스너로 센다.
+    public static final PostLoadEventListener POST_LOAD_LISTENER = event -> QueryStats.current().entityLoaded();
+}
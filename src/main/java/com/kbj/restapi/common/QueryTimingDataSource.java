@@ -0,0 +1,114 @@
+package com.kbj.restapi.common;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// 문장 실행 시간을 재서 threshold 보다 오래 걸린 문장은 SQL 모양과 호출한 코드 위치를 남긴다.
+// 호출 위치(StackWalker)와 SQL 정리는 느린 문장에서만 계산한다. 문장 수는 QueryStatsSessionListener 가 센다.
+@Slf4j
+public class QueryTimingDataSource extends DelegatingDataSource {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+    private static final Pattern LITERALS = Pattern.compile("'(?:[^']|'')*'|\\b\\d+\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final String APPLICATION_PACKAGE = "com.kbj.restapi.";
+
+    private final long slowNanos;
+
+    public QueryTimingDataSource(DataSource dataSource, Duration slowQueryThreshold) {
+        super(dataSource);
+        this.slowNanos = slowQueryThreshold.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("unwrap".equals(method.getName()) && ((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof Statement) {
+                        String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                        return wrap((Statement) result, sql);
+                    }
+                    return result;
+                });
+    }
+
+    private Statement wrap(Statement statement, String preparedSql) {
+        Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if (!EXECUTE_METHODS.contains(method.getName())) {
+                        if ("unwrap".equals(method.getName()) && ((Class<?>) args[0]).isInstance(proxy)) {
+                            return proxy;
+                        }
+                        return invoke(statement, method, args);
+                    }
+                    long start = System.nanoTime();
+                    try {
+                        return invoke(statement, method, args);
+                    } finally {
+                        long elapsed = System.nanoTime() - start;
+                        if (elapsed >= this.slowNanos) {
+                            String sql = args != null && args.length > 0 && args[0] instanceof String
+                                    ? (String) args[0] : preparedSql;
+                            log.warn("Slow query ({} ms) at {}: {}", elapsed / 1_000_000, caller(), shape(sql));
+                        }
+                    }
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    static String shape(String sql) {
+        if (sql == null) {
+            return "(batch)";
+        }
+        return WHITESPACE.matcher(LITERALS.matcher(sql).replaceAll("?")).replaceAll(" ").trim();
+    }
+
+    // 이 클래스와 프록시를 빼고 가장 가까운 애플리케이션 코드 위치.
+    private static String caller() {
+        Optional<StackWalker.StackFrame> frame = StackWalker.getInstance().walk(frames -> frames
+                .filter(f -> f.getClassName().startsWith(APPLICATION_PACKAGE))
+                .filter(f -> !f.getClassName().equals(QueryTimingDataSource.class.getName())
+                        && !f.getClassName().startsWith(QueryTimingDataSource.class.getName() + "$"))
+                .filter(f -> !f.getClassName().contains("$$"))
+                .findFirst());
+        return frame.map(f -> f.getClassName().substring(APPLICATION_PACKAGE.length()) + "." + f.getMethodName()
+                + ":" + f.getLineNumber()).orElse("unknown");
+    }
+}
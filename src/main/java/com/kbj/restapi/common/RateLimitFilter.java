@@ -0,0 +1,133 @@
+package com.kbj.restapi.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// scope 별 key 마다 읽기(GET, HEAD, OPTIONS)와 쓰기 요청의 한도를 따로 두고, 하나라도 넘으면 429 와 Retry-After 로 응답한다.
+// IP 는 인증 실패도 세도록 보안 필터 앞에서, client 와 account 는 인증이 끝난 뒤에 확인한다.
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+    private static final String TOKEN_ENDPOINT = "/oauth/token";
+    private static final UrlPathHelper URL_PATH_HELPER = new UrlPathHelper();
+
+    private final TokenBucketLimiter limiter;
+    private final List<Rule> rules;
+    private final Map<Scope, Counter> limited = new EnumMap<>(Scope.class);
+
+    public RateLimitFilter(TokenBucketLimiter limiter, List<Rule> rules, MeterRegistry meterRegistry) {
+        this.limiter = limiter;
+        this.rules = rules;
+        for (Rule rule : rules) {
+            this.limited.put(rule.scope, Counter.builder("http.server.rate.limited")
+                    .description("Requests rejected with 429 by the rate limiter")
+                    .tag("scope", rule.scope.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean read = READ_METHODS.contains(request.getMethod());
+        for (Rule rule : this.rules) {
+            String key = rule.scope.key(request);
+            if (key == null) {
+                continue;
+            }
+            // 읽기와 쓰기는 bucket 을 따로 둔다.
+            long wait = read ? this.limiter.tryAcquire(rule.scope.prefix + "r:" + key, rule.read)
+                    : this.limiter.tryAcquire(rule.scope.prefix + "w:" + key, rule.write);
+            if (wait > 0) {
+                this.limited.get(rule.scope).increment();
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, divideUp(wait))));
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private static long divideUp(long nanos) {
+        long second = TimeUnit.SECONDS.toNanos(1);
+        return (nanos + second - 1) / second;
+    }
+
+    public enum Scope {
+
+        // 프록시 뒤에서는 Tomcat RemoteIpValve 가 internal-proxies 에서 온 요청만 X-Forwarded-For 로 바꾼 주소다.
+        // 그 밖의 클라이언트가 보낸 X-Forwarded-For 는 무시하므로 헤더를 바꿔 가며 bucket 을 피할 수 없다.
+        IP("ip:") {
+            @Override
+            String key(HttpServletRequest request) {
+                return request.getRemoteAddr();
+            }
+        },
+        // 토큰 요청은 Basic 인증으로, 나머지는 access token 으로 확인한 client id.
+        CLIENT("client:") {
+            @Override
+            String key(HttpServletRequest request) {
+                Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+                if (authentication instanceof OAuth2Authentication) {
+                    return ((OAuth2Authentication) authentication).getOAuth2Request().getClientId();
+                }
+                return isTokenEndpoint(request) && authentication != null ? authentication.getName() : null;
+            }
+        },
+        // 로그인 이름. 토큰 요청은 username 파라미터로 세어서 한 계정에 대한 비밀번호 대입도 막는다.
+        ACCOUNT("account:") {
+            @Override
+            String key(HttpServletRequest request) {
+                Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+                if (authentication instanceof OAuth2Authentication) {
+                    Authentication user = ((OAuth2Authentication) authentication).getUserAuthentication();
+                    return user == null ? null : user.getName();
+                }
+                return isTokenEndpoint(request) ? request.getParameter("username") : null;
+            }
+        };
+
+        private final String prefix;
+
+        Scope(String prefix) {
+            this.prefix = prefix;
+        }
+
+        abstract String key(HttpServletRequest request);
+
+        private static boolean isTokenEndpoint(HttpServletRequest request) {
+            return TOKEN_ENDPOINT.equals(URL_PATH_HELPER.getPathWithinApplication(request));
+        }
+    }
+
+    public static class Rule {
+
+        private final Scope scope;
+        private final TokenBucketLimiter.Limit read;
+        private final TokenBucketLimiter.Limit write;
+
+        public Rule(Scope scope, TokenBucketLimiter.Limit read, TokenBucketLimiter.Limit write) {
+            this.scope = scope;
+            this.read = read;
+            this.write = write;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.kbj.restapi.common;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// repository 메서드별 호출 시간(repository.invocations)과 호출 하나가 실행한 문장 수(repository.statements)를 기록한다.
+public class RepositoryMetricsInterceptor implements MethodInterceptor {
+
+    private final MeterRegistry meterRegistry;
+    private final String repository;
+    private final Map<Method, Meters> meters = new ConcurrentHashMap<>();
+
+    public RepositoryMetricsInterceptor(MeterRegistry meterRegistry, Class<?> repositoryInterface) {
+        this.meterRegistry = meterRegistry;
+        this.repository = repositoryInterface.getSimpleName();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        QueryStats stats = QueryStats.current();
+        long statements = stats.getStatements();
+        long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            Meters meters = this.meters.computeIfAbsent(invocation.getMethod(), this::register);
+            meters.time.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            meters.statements.record(stats.getStatements() - statements);
+        }
+    }
+
+    private Meters register(Method method) {
+        return new Meters(
+                Timer.builder("repository.invocations")
+                        .description("Repository method invocation time")
+                        .tag("repository", this.repository)
+                        .tag("method", method.getName())
+                        .register(this.meterRegistry),
+                DistributionSummary.builder("repository.statements")
+                        .description("JDBC statements executed per repository method invocation")
+                        .tag("repository", this.repository)
+                        .tag("method", method.getName())
+                        .register(this.meterRegistry));
+    }
+
+    private static class Meters {
+
+        private final Timer time;
+        private final DistributionSummary statements;
+
+        private Meters(Timer time, DistributionSummary statements) {
+            this.time = time;
+            this.statements = statements;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.kbj.restapi.common;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.function.Supplier;
+
+// 요청 처리 시간을 나누는 단계. 단계별 누적 시간(ns)은 요청 attribute 에 모아 두었다가 RequestPhaseInterceptor 가 기록한다.
+// 측정 대상 요청이 아니면(attribute 가 없으면) 시간을 재지 않고 바로 실행한다.
+public enum RequestPhase {
+
+    VALIDATION, DB, MAPPING, SERIALIZATION;
+
+    static final String ATTRIBUTE = RequestPhase.class.getName();
+
+    private final String tag = name().toLowerCase();
+
+    public String getTag() {
+        return tag;
+    }
+
+    public <T> T time(Supplier<T> work) {
+        long[] elapsed = current();
+        if (elapsed == null) {
+            return work.get();
+        }
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            elapsed[ordinal()] += System.nanoTime() - start;
+        }
+    }
+
+    public void time(Runnable work) {
+        time(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    private static long[] current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes == null ? null : (long[]) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+}
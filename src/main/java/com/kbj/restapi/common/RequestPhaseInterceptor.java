@@ -0,0 +1,97 @@
+package com.kbj.restapi.common;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// 핸들러별로 http.server.phases{endpoint, phase} 타이머에 단계별 시간을 기록한다.
+// serialization 은 응답 본문을 쓰기 직전(beforeBodyWrite)부터 postHandle 까지의 시간이다.
+@ControllerAdvice
+public class RequestPhaseInterceptor implements HandlerInterceptor, ResponseBodyAdvice<Object> {
+
+    private static final String SERIALIZATION_START = RequestPhaseInterceptor.class.getName() + ".serializationStart";
+    private static final RequestPhase[] PHASES = RequestPhase.values();
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Method, Timer[]> timers = new ConcurrentHashMap<>();
+
+    public RequestPhaseInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // async dispatch 에서 다시 불려도 처음 dispatch 와 다른 스레드에서 잰 시간을 잃지 않도록 한 번만 만든다.
+        if (handler instanceof HandlerMethod && request.getAttribute(RequestPhase.ATTRIBUTE) == null) {
+            request.setAttribute(RequestPhase.ATTRIBUTE, new long[PHASES.length]);
+        }
+        return true;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        long[] elapsed = (long[]) request.getAttribute(RequestPhase.ATTRIBUTE);
+        if (elapsed == null) {
+            return;
+        }
+        Object serializationStart = request.getAttribute(SERIALIZATION_START);
+        if (serializationStart != null) {
+            elapsed[RequestPhase.SERIALIZATION.ordinal()] += System.nanoTime() - (long) serializationStart;
+        }
+
+        Timer[] timers = this.timers.computeIfAbsent(((HandlerMethod) handler).getMethod(), this::register);
+        for (int i = 0; i < elapsed.length; i++) {
+            if (elapsed[i] > 0) {
+                timers[i].record(elapsed[i], TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest) {
+            HttpServletRequest servletRequest = ((ServletServerHttpRequest) request).getServletRequest();
+            if (servletRequest.getAttribute(RequestPhase.ATTRIBUTE) != null) {
+                servletRequest.setAttribute(SERIALIZATION_START, System.nanoTime());
+            }
+        }
+        return body;
+    }
+
+    private Timer[] register(Method method) {
+        Timer[] timers = new Timer[PHASES.length];
+        for (RequestPhase phase : PHASES) {
+            timers[phase.ordinal()] = Timer.builder("http.server.phases")
+                    .description("Time spent in each phase of a request")
+                    .tag("endpoint", method.getName())
+                    .tag("phase", phase.getTag())
+                    .register(this.meterRegistry);
+        }
+        return timers;
+    }
+}
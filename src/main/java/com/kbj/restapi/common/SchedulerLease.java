@@ -0,0 +1,88 @@
+package com.kbj.restapi.common;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// scheduler_lease 테이블의 행 하나로 여러 노드 중 한 노드만 스케줄 작업을 실행하게 한다.
+// lease 를 가진 노드는 절반이 지나기 전에 갱신하고, 갱신하지 못한 채 만료되면 다른 노드가 가져간다.
+// 시계 차이와 갱신 지연이 있을 수 있으므로 lease 로 보호하는 작업은 두 번 실행되어도 결과가 같아야 한다.
+public class SchedulerLease {
+
+    private static final String UPDATE_SQL = "update scheduler_lease set owner = ?, expires_at = ? "
+            + "where name = ? and (owner = ? or expires_at < ?)";
+    private static final String INSERT_SQL = "insert into scheduler_lease (name, owner, expires_at) values (?, ?, ?)";
+    private static final String DELETE_SQL = "delete from scheduler_lease where name = ? and owner = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String name;
+    private final String owner;
+    private final Duration duration;
+    private final Clock clock;
+    private LocalDateTime heldUntil;
+    private LocalDateTime nextAttempt;
+
+    public SchedulerLease(JdbcTemplate jdbcTemplate, String name, Duration duration, Clock clock) {
+        this(jdbcTemplate, name, ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID(),
+                duration, clock);
+    }
+
+    public SchedulerLease(JdbcTemplate jdbcTemplate, String name, String owner, Duration duration, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.name = name;
+        this.owner = owner;
+        this.duration = duration;
+        this.clock = clock;
+    }
+
+    // lease 를 가지고 있으면 true. 가진 동안은 절반이 지났을 때만, 못 가진 동안은 1/3 마다만 DB 에 요청한다.
+    public synchronized boolean acquire() {
+        LocalDateTime now = LocalDateTime.now(this.clock);
+        if (isHeld(now) && now.isBefore(this.heldUntil.minus(this.duration.dividedBy(2)))) {
+            return true;
+        }
+        if (!isHeld(now) && this.nextAttempt != null && now.isBefore(this.nextAttempt)) {
+            return false;
+        }
+
+        LocalDateTime expiresAt = now.plus(this.duration);
+        boolean acquired = this.jdbcTemplate.update(UPDATE_SQL, this.owner, Timestamp.valueOf(expiresAt), this.name,
+                this.owner, Timestamp.valueOf(now)) > 0;
+        if (!acquired) {
+            try {
+                acquired = this.jdbcTemplate.update(INSERT_SQL, this.name, this.owner, Timestamp.valueOf(expiresAt)) > 0;
+            } catch (DuplicateKeyException e) {
+                acquired = false;
+            }
+        }
+
+        this.heldUntil = acquired ? expiresAt : null;
+        this.nextAttempt = acquired ? null : now.plus(this.duration.dividedBy(3));
+        return acquired;
+    }
+
+    public synchronized boolean isHeld() {
+        return isHeld(LocalDateTime.now(this.clock));
+    }
+
+    public synchronized void release() {
+        if (this.heldUntil != null) {
+            this.jdbcTemplate.update(DELETE_SQL, this.name, this.owner);
+            this.heldUntil = null;
+        }
+    }
+
+    public String getOwner() {
+        return this.owner;
+    }
+
+    private boolean isHeld(LocalDateTime now) {
+        return this.heldUntil != null && now.isBefore(this.heldUntil);
+    }
+}
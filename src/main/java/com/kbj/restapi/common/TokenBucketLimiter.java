@@ -0,0 +1,74 @@
+package com.kbj.restapi.common;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// key 마다 token bucket 을 AtomicLong 하나(다음 token 이 모두 찰 시각, GCRA)로 표현해서 락 없이 CAS 로 판정한다.
+// bucket 은 Caffeine 에 maximumSize 개까지 두고 idleTimeout 동안 요청이 없으면 지운다. 가득 찬 bucket 과 같으므로
+// idleTimeout 은 가장 긴 한도의 burst / perSecond 보다 길게 둔다.
+public class TokenBucketLimiter {
+
+    private final Cache<String, AtomicLong> buckets;
+    private final Ticker ticker;
+
+    public TokenBucketLimiter(long maximumSize, Duration idleTimeout, Ticker ticker) {
+        this.ticker = ticker;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(idleTimeout)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+
+    public void bindTo(MeterRegistry meterRegistry, String name) {
+        CaffeineCacheMetrics.monitor(meterRegistry, this.buckets, name, "cacheManager", "tokenBucketLimiter", "name", name);
+    }
+
+    // 허용하면 0, 아니면 token 이 생길 때까지 기다려야 하는 시간(나노초).
+    public long tryAcquire(String key, Limit limit) {
+        long now = this.ticker.read();
+        AtomicLong bucket = this.buckets.get(key, k -> new AtomicLong(now));
+        while (true) {
+            long full = bucket.get();
+            long next = Math.max(full, now) + limit.intervalNanos;
+            long wait = next - now - limit.burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(full, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public long size() {
+        return this.buckets.estimatedSize();
+    }
+
+    // 초당 perSecond 개씩 채워지고 최대 burst 개까지 쌓이는 한도.
+    public static class Limit {
+
+        private final long intervalNanos;
+        private final long burstNanos;
+
+        public Limit(double perSecond, int burst) {
+            if (perSecond <= 0 || burst < 1) {
+                throw new IllegalArgumentException("perSecond must be positive and burst at least 1");
+            }
+            this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / perSecond));
+            this.burstNanos = this.intervalNanos * burst;
+        }
+
+        public Duration getRefillTime() {
+            return Duration.ofNanos(this.burstNanos);
+        }
+    }
+}
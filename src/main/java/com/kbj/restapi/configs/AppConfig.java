@@ -1,21 +1,41 @@
 package com.kbj.restapi.configs;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kbj.restapi.accounts.Account;
 import com.kbj.restapi.accounts.AccountRole;
 import com.kbj.restapi.accounts.AccountService;
+import com.kbj.restapi.accounts.CachingPasswordEncoder;
 import com.kbj.restapi.common.AppProperties;
+import com.kbj.restapi.common.IdempotencyStore;
+import com.kbj.restapi.events.Event;
+import com.kbj.restapi.events.EventFields;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.util.unit.DataSize;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
+@EnableScheduling
 public class AppConfig {
 
     @Bean
@@ -24,8 +44,48 @@ public class AppConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
+
+    // fields= 로 Event 속성을 고를 수 있도록 Event 에 Jackson 필터를 붙인다. 필터를 고르지 않으면 모든 속성을 쓴다.
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer eventFieldsCustomizer() {
+        return builder -> builder
+                .mixIn(Event.class, EventFields.Mixin.class)
+                .filters(EventFields.DEFAULT_FILTERS);
+    }
+
+    // 로그인이 몰릴 때 bcrypt 가 요청 스레드를 모두 잡아먹지 않도록 전용 스레드에서 해시를 계산하고,
+    // 성공한 검증 결과는 잠깐 캐시한다. 대기열이 가득 차면 인증 실패로 바로 돌려보낸다.
+    @Bean
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                           @Value("${my-app.password.bcrypt-strength:10}") int strength,
+                                           @Value("${my-app.password.hash-threads:0}") int threads,
+                                           @Value("${my-app.password.hash-queue-size:100}") int queueSize,
+                                           @Value("${my-app.password.verified-ttl-seconds:60}") long ttlSeconds,
+                                           @Value("${my-app.password.verified-size:10000}") long maximumSize) {
+        // 새 해시는 strength 를 정한 bcrypt 로 만들고, 다른 id({noop}, {pbkdf2} 등)로 저장된 값은 기본 encoder 로 확인한다.
+        DelegatingPasswordEncoder delegate = new DelegatingPasswordEncoder("bcrypt",
+                Map.of("bcrypt", new BCryptPasswordEncoder(strength)));
+        delegate.setDefaultPasswordEncoderForMatches(PasswordEncoderFactories.createDelegatingPasswordEncoder());
+
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        ThreadPoolExecutor hashExecutor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), new CustomizableThreadFactory("password-hash-"));
+
+        return new CachingPasswordEncoder(delegate, hashExecutor,
+                Duration.ofSeconds(ttlSeconds), maximumSize, meterRegistry);
+    }
+
+    // 재시도한 생성 요청이 중복 저장되지 않도록 Idempotency-Key 별 응답을 ttl 동안 기억한다. 노드마다 따로 가진다.
+    @Bean
+    public IdempotencyStore idempotencyStore(MeterRegistry meterRegistry,
+                                             @Value("${my-app.idempotency.ttl:24h}") Duration ttl,
+                                             @Value("${my-app.idempotency.maximum-memory:64MB}") DataSize maximumMemory,
+                                             @Value("${my-app.idempotency.wait-timeout:10s}") Duration waitTimeout,
+                                             ObjectMapper objectMapper) {
+        return new IdempotencyStore(ttl, maximumMemory.toBytes(), waitTimeout, objectMapper, meterRegistry);
     }
 
     @Bean
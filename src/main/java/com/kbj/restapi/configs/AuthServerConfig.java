@@ -3,6 +3,7 @@ package com.kbj.restapi.configs;
 import com.kbj.restapi.accounts.AccountService;
 import com.kbj.restapi.common.AppProperties;
 import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -12,6 +13,7 @@ import org.springframework.security.oauth2.config.annotation.web.configuration.E
 import org.springframework.security.oauth2.config.annotation.web.configurers.AuthorizationServerEndpointsConfigurer;
 import org.springframework.security.oauth2.config.annotation.web.configurers.AuthorizationServerSecurityConfigurer;
 import org.springframework.security.oauth2.provider.token.TokenStore;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
 
 @Configuration
 @EnableAuthorizationServer
@@ -23,6 +25,7 @@ public class AuthServerConfig extends AuthorizationServerConfigurerAdapter {
     private AccountService accountService;
     private TokenStore tokenStore;
     private AppProperties appProperties;
+    private ObjectProvider<JwtAccessTokenConverter> accessTokenConverter;
 
     @Override
     public void configure(AuthorizationServerSecurityConfigurer security) throws Exception {
@@ -47,5 +50,6 @@ public class AuthServerConfig extends AuthorizationServerConfigurerAdapter {
                 .userDetailsService(accountService)
                 .tokenStore(tokenStore)
         ;
+        this.accessTokenConverter.ifAvailable(endpoints::accessTokenConverter);
     }
 }
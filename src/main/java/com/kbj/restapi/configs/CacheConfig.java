@@ -0,0 +1,39 @@
+package com.kbj.restapi.configs;
+
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.ehcache.xml.XmlConfiguration;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.io.IOException;
+import java.net.URI;
+import java.util.UUID;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    // CachingProvider 는 설정 URI 마다 CacheManager 하나를 JVM 전역으로 공유하고, context 가 닫힐 때 그 CacheManager 도 닫는다.
+    // 같은 JVM 의 다른 context(테스트)가 닫히면서 캐시가 닫히지 않도록 context 마다 고유한 URI 로 CacheManager 를 만든다.
+    @Bean
+    public CacheManager jCacheCacheManager(@Value("${spring.cache.jcache.config}") Resource config) throws IOException {
+        EhcacheCachingProvider cachingProvider =
+                (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        XmlConfiguration configuration = new XmlConfiguration(config.getURL(), getClass().getClassLoader());
+        return cachingProvider.getCacheManager(URI.create("urn:restapi:cache:" + UUID.randomUUID()), configuration);
+    }
+
+    // Hibernate 2차 캐시가 Spring 이 만든 JCache CacheManager 를 같이 쓰도록 해서 캐시 지표가 함께 노출되게 한다.
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager cacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.kbj.restapi.configs;
+
+import com.kbj.restapi.common.ConcurrencyLimitingDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+public class ExecutionConfig {
+
+    // 요청 스레드 수가 커넥션 수보다 훨씬 많아질 수 있으므로 DataSource 앞에서 동시 사용 수를 제한한다.
+    @Bean
+    @ConditionalOnProperty(prefix = "my-app.jdbc", name = "max-concurrency")
+    public static BeanPostProcessor concurrencyLimitingDataSourcePostProcessor(Environment environment,
+                                                                               ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource) || bean instanceof ConcurrencyLimitingDataSource) {
+                    return bean;
+                }
+                int maxConcurrency = environment.getRequiredProperty("my-app.jdbc.max-concurrency", Integer.class);
+                int maxWaiting = environment.getProperty("my-app.jdbc.max-waiting", Integer.class, 1000);
+                Duration timeout = environment.getProperty("my-app.jdbc.acquire-timeout", Duration.class,
+                        Duration.ofSeconds(5));
+                ConcurrencyLimitingDataSource dataSource =
+                        new ConcurrencyLimitingDataSource((DataSource) bean, maxConcurrency, maxWaiting, timeout);
+                meterRegistry.ifAvailable(registry -> {
+                    Gauge.builder("jdbc.limiter.available", dataSource, ConcurrencyLimitingDataSource::getAvailablePermits)
+                            .register(registry);
+                    Gauge.builder("jdbc.limiter.waiting", dataSource, ConcurrencyLimitingDataSource::getWaiting)
+                            .register(registry);
+                });
+                return dataSource;
+            }
+        };
+    }
+}
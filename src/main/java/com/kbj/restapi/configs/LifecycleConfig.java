@@ -0,0 +1,34 @@
+package com.kbj.restapi.configs;
+
+import com.kbj.restapi.common.SchedulerLease;
+import com.kbj.restapi.events.EventLifecycleScheduler;
+import com.kbj.restapi.events.EventRepository;
+import com.kbj.restapi.events.EventService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+
+// 이벤트 날짜에 맞춰 상태를 옮기는 스케줄러. 여러 노드가 떠 있어도 lease 를 가진 노드 하나만 실행한다.
+@Configuration
+@ConditionalOnProperty(prefix = "my-app.lifecycle", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class LifecycleConfig {
+
+    @Bean
+    public EventLifecycleScheduler eventLifecycleScheduler(EventRepository eventRepository, EventService eventService,
+                                                           JdbcTemplate jdbcTemplate, Clock clock, MeterRegistry meterRegistry,
+                                                           @Value("${my-app.lifecycle.lease-duration-millis:30000}") long leaseMillis,
+                                                           @Value("${my-app.lifecycle.horizon-millis:600000}") long horizonMillis,
+                                                           @Value("${my-app.lifecycle.refresh-interval-millis:30000}") long refreshMillis,
+                                                           @Value("${my-app.lifecycle.load-size:10000}") int loadSize,
+                                                           @Value("${my-app.lifecycle.batch-size:500}") int batchSize) {
+        SchedulerLease lease = new SchedulerLease(jdbcTemplate, "event-lifecycle", Duration.ofMillis(leaseMillis), clock);
+        return new EventLifecycleScheduler(eventRepository, eventService, lease, clock,
+                Duration.ofMillis(horizonMillis), Duration.ofMillis(refreshMillis), loadSize, batchSize, meterRegistry);
+    }
+}
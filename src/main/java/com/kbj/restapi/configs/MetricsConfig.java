@@ -0,0 +1,32 @@
+package com.kbj.restapi.configs;
+
+import com.kbj.restapi.common.ClientErrorMetricsFilter;
+import com.kbj.restapi.common.RequestPhaseInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@AllArgsConstructor
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final RequestPhaseInterceptor requestPhaseInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this.requestPhaseInterceptor).addPathPatterns("/api/events", "/api/events/**");
+    }
+
+    @Bean
+    public FilterRegistrationBean<ClientErrorMetricsFilter> clientErrorMetricsFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<ClientErrorMetricsFilter> registration =
+                new FilterRegistrationBean<>(new ClientErrorMetricsFilter(meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        return registration;
+    }
+}
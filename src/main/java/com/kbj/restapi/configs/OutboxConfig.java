@@ -0,0 +1,56 @@
+package com.kbj.restapi.configs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kbj.restapi.common.SchedulerLease;
+import com.kbj.restapi.events.EventChangeRelay;
+import com.kbj.restapi.events.EventChangeRepository;
+import com.kbj.restapi.events.EventChangeSink;
+import com.kbj.restapi.events.FileEventChangeSink;
+import com.kbj.restapi.events.InMemoryEventChangeSink;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+// 이벤트 변경 내역(outbox)을 sink 로 넘기는 relay. 여러 노드가 떠 있어도 lease 를 가진 노드 하나만 실행한다.
+// my-app.outbox.sink 로 내장 sink 를 고르고, 다른 EventChangeSink 빈이 있으면 함께 넘긴다.
+@Configuration
+@ConditionalOnProperty(prefix = "my-app.outbox", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "my-app.outbox", name = "sink", havingValue = "memory", matchIfMissing = true)
+    public InMemoryEventChangeSink inMemoryEventChangeSink(@Value("${my-app.outbox.memory.capacity:10000}") int capacity) {
+        return new InMemoryEventChangeSink(capacity);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "my-app.outbox", name = "sink", havingValue = "file")
+    public FileEventChangeSink fileEventChangeSink(ObjectMapper objectMapper,
+                                                   @Value("${my-app.outbox.file.path:event-changes.ndjson}") String path) {
+        return new FileEventChangeSink(Paths.get(path), objectMapper);
+    }
+
+    @Bean
+    public EventChangeRelay eventChangeRelay(EventChangeRepository eventChangeRepository,
+                                             ObjectProvider<EventChangeSink> sinks, JdbcTemplate jdbcTemplate,
+                                             PlatformTransactionManager transactionManager, Clock clock,
+                                             MeterRegistry meterRegistry,
+                                             @Value("${my-app.outbox.lease-duration-millis:30000}") long leaseMillis,
+                                             @Value("${my-app.outbox.batch-size:500}") int batchSize,
+                                             @Value("${my-app.outbox.retention:7d}") Duration retention) {
+        SchedulerLease lease = new SchedulerLease(jdbcTemplate, "event-change-relay", Duration.ofMillis(leaseMillis), clock);
+        return new EventChangeRelay(eventChangeRepository, sinks.orderedStream().collect(Collectors.toList()), lease,
+                new TransactionTemplate(transactionManager), clock, batchSize, retention, meterRegistry);
+    }
+}
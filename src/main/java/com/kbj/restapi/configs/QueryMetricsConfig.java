@@ -0,0 +1,105 @@
+package com.kbj.restapi.configs;
+
+import com.kbj.restapi.common.QueryStatsFilter;
+import com.kbj.restapi.common.QueryStatsSessionListener;
+import com.kbj.restapi.common.QueryTimingDataSource;
+import com.kbj.restapi.common.RepositoryMetricsInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.boot.Metadata;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.data.repository.Repository;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+@Configuration
+public class QueryMetricsConfig {
+
+    // 세션마다 실행한 문장, 2차 캐시 hit/miss 와 flush 를, POST_LOAD 이벤트로 엔티티 로드를 센다.
+    @Bean
+    public HibernatePropertiesCustomizer queryStatsCustomizer() {
+        Integrator integrator = new Integrator() {
+            @Override
+            public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory,
+                                  SessionFactoryServiceRegistry serviceRegistry) {
+                serviceRegistry.getService(EventListenerRegistry.class)
+                        .appendListeners(EventType.POST_LOAD, QueryStatsSessionListener.POST_LOAD_LISTENER);
+            }
+
+            @Override
+            public void disintegrate(SessionFactoryImplementor sessionFactory,
+                                     SessionFactoryServiceRegistry serviceRegistry) {
+            }
+        };
+        return properties -> {
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, QueryStatsSessionListener.class.getName());
+            properties.put(EntityManagerFactoryBuilderImpl.INTEGRATOR_PROVIDER, (IntegratorProvider) () -> List.of(integrator));
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<QueryStatsFilter> queryStatsFilter(
+            MeterRegistry meterRegistry, @Value("${my-app.jdbc.query-count-header:false}") boolean header) {
+        FilterRegistrationBean<QueryStatsFilter> registration =
+                new FilterRegistrationBean<>(new QueryStatsFilter(meterRegistry, header));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 3);
+        return registration;
+    }
+
+    // my-app.jdbc.slow-query-threshold 보다 느린 문장을 로그로 남긴다. 문장 수와 시간 지표는 이것 없이도 기록한다.
+    // 모든 커넥션과 문장을 한 번 더 감싸므로 my-app.jdbc.query-timing=true 일 때만 켠다.
+    @Bean
+    @ConditionalOnProperty(prefix = "my-app.jdbc", name = "query-timing", havingValue = "true")
+    public static BeanPostProcessor queryTimingDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource) || bean instanceof QueryTimingDataSource) {
+                    return bean;
+                }
+                Duration threshold = environment.getProperty("my-app.jdbc.slow-query-threshold", Duration.class,
+                        Duration.ofMillis(200));
+                return new QueryTimingDataSource((DataSource) bean, threshold);
+            }
+        };
+    }
+
+    // Spring Data 가 만든 repository 프록시에 메서드별 지표 advice 를 가장 바깥에 추가한다.
+    @Bean
+    public static BeanPostProcessor repositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof Repository) || !(bean instanceof Advised) || ((Advised) bean).isFrozen()) {
+                    return bean;
+                }
+                Arrays.stream(((Advised) bean).getProxiedInterfaces())
+                        .filter(type -> Repository.class.isAssignableFrom(type) && type != Repository.class)
+                        .findFirst()
+                        .ifPresent(type -> ((Advised) bean).addAdvice(0,
+                                new RepositoryMetricsInterceptor(meterRegistry.getObject(), type)));
+                return bean;
+            }
+        };
+    }
+}
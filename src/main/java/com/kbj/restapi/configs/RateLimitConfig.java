@@ -0,0 +1,106 @@
+package com.kbj.restapi.configs;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.kbj.restapi.common.RateLimitFilter;
+import com.kbj.restapi.common.TokenBucketLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+// IP, OAuth client, 계정별 요청 한도. bucket 은 모든 scope 가 limiter 하나를 같이 쓴다.
+@Configuration
+@ConditionalOnProperty(prefix = "my-app.rate-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "my-app.rate-limit")
+    public RateLimitProperties rateLimitProperties() {
+        return new RateLimitProperties();
+    }
+
+    @Bean
+    public TokenBucketLimiter tokenBucketLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(properties.getMaximumKeys(), properties.getIdleTimeout(),
+                Ticker.systemTicker());
+        limiter.bindTo(meterRegistry, "rate-limit.buckets");
+        return limiter;
+    }
+
+    // 보안 필터보다 먼저 실행해서 인증에 실패하는 요청(토큰 발급 포함)도 센다.
+    // 클라이언트 주소는 필터 체인 전에 Tomcat RemoteIpValve 가 신뢰하는 프록시의 X-Forwarded-For 로 바꿔 둔다.
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> ipRateLimitFilter(TokenBucketLimiter limiter,
+                                                                     RateLimitProperties properties,
+                                                                     MeterRegistry meterRegistry) {
+        RateLimitFilter filter = new RateLimitFilter(limiter, properties.rules(RateLimitFilter.Scope.IP), meterRegistry);
+        return registration(filter, "ipRateLimitFilter", SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+    }
+
+    // 보안 필터가 SecurityContext 에 인증을 채운 뒤에 실행한다.
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> principalRateLimitFilter(TokenBucketLimiter limiter,
+                                                                            RateLimitProperties properties,
+                                                                            MeterRegistry meterRegistry) {
+        RateLimitFilter filter = new RateLimitFilter(limiter,
+                properties.rules(RateLimitFilter.Scope.CLIENT, RateLimitFilter.Scope.ACCOUNT), meterRegistry);
+        return registration(filter, "principalRateLimitFilter", SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+    }
+
+    // 같은 클래스의 필터 두 개가 OncePerRequestFilter 의 중복 실행 표시를 나눠 쓰지 않도록 이름을 따로 준다.
+    private FilterRegistrationBean<RateLimitFilter> registration(RateLimitFilter filter, String name, int order) {
+        filter.setBeanName(name);
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setName(name);
+        registration.setOrder(order);
+        return registration;
+    }
+
+    @Getter @Setter
+    public static class RateLimitProperties {
+
+        private long maximumKeys = 100000;
+        private Duration idleTimeout = Duration.ofMinutes(10);
+        private Map<RateLimitFilter.Scope, Limits> scopes = new EnumMap<>(RateLimitFilter.Scope.class);
+
+        private List<RateLimitFilter.Rule> rules(RateLimitFilter.Scope... scopes) {
+            List<RateLimitFilter.Rule> rules = new ArrayList<>();
+            for (RateLimitFilter.Scope scope : scopes) {
+                Limits limits = this.scopes.get(scope);
+                if (limits != null) {
+                    rules.add(new RateLimitFilter.Rule(scope, limits.getRead().toLimit(), limits.getWrite().toLimit()));
+                }
+            }
+            return rules;
+        }
+    }
+
+    @Getter @Setter
+    public static class Limits {
+
+        private Rate read = new Rate();
+        private Rate write = new Rate();
+    }
+
+    @Getter @Setter
+    public static class Rate {
+
+        private double perSecond = 10;
+        private int burst = 20;
+
+        private TokenBucketLimiter.Limit toLimit() {
+            return new TokenBucketLimiter.Limit(this.perSecond, this.burst);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.kbj.restapi.configs;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -8,11 +9,18 @@ import org.springframework.security.oauth2.config.annotation.web.configuration.R
 import org.springframework.security.oauth2.config.annotation.web.configurers.ResourceServerSecurityConfigurer;
 import org.springframework.security.oauth2.provider.error.OAuth2AccessDeniedHandler;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 // 요청에 토큰이 있는지, 토큰이 유효한지 체크한다.
 @Configuration
 @EnableResourceServer
 public class ResourceServerConfig extends ResourceServerConfigurerAdapter {
 
+    // /actuator/prometheus 를 수집할 수 있는 주소(CIDR). 프록시 뒤에서는 RemoteIpValve 가 고친 클라이언트 주소로 비교한다.
+    @Value("${my-app.metrics.scrape-addresses}")
+    private List<String> scrapeAddresses;
+
     @Override
     public void configure(ResourceServerSecurityConfigurer resources) throws Exception {
         resources.resourceId("event");
@@ -25,9 +33,16 @@ public class ResourceServerConfig extends ResourceServerConfigurerAdapter {
                 .and()
             .authorizeRequests()
                 .mvcMatchers(HttpMethod.GET, "/api/**").permitAll()
+                .mvcMatchers(HttpMethod.GET, "/actuator/prometheus").access(scrapeAccess())
                 .anyRequest().authenticated()
                 .and()
             .exceptionHandling()
                 .accessDeniedHandler(new OAuth2AccessDeniedHandler());
     }
+
+    private String scrapeAccess() {
+        return this.scrapeAddresses.stream()
+                .map(address -> "hasIpAddress('" + address.trim() + "')")
+                .collect(Collectors.joining(" or "));
+    }
 }
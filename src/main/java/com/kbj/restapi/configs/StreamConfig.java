@@ -0,0 +1,27 @@
+package com.kbj.restapi.configs;
+
+import com.kbj.restapi.events.EventChangeRepository;
+import com.kbj.restapi.events.EventStreamHub;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+// GET /api/events/stream 구독자에게 이벤트 변경을 나눠 주는 hub. 노드마다 변경 피드를 따라 읽으므로 lease 가 없다.
+@Configuration
+public class StreamConfig {
+
+    @Bean
+    public EventStreamHub eventStreamHub(EventChangeRepository eventChangeRepository, Clock clock,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${my-app.stream.timeout-millis:1800000}") long timeoutMillis,
+                                         @Value("${my-app.stream.write-timeout-millis:30000}") long writeTimeoutMillis,
+                                         @Value("${my-app.stream.buffer-size:64}") int bufferSize,
+                                         @Value("${my-app.stream.max-subscribers:10000}") int maxSubscribers,
+                                         @Value("${my-app.stream.poll-size:500}") int pollSize) {
+        return new EventStreamHub(eventChangeRepository, clock, timeoutMillis, writeTimeoutMillis, bufferSize,
+                maxSubscribers, pollSize, meterRegistry);
+    }
+}
@@ -0,0 +1,69 @@
+package com.kbj.restapi.configs;
+
+import com.kbj.restapi.tokens.AccountUserAuthenticationConverter;
+import com.kbj.restapi.tokens.CachingTokenStore;
+import com.kbj.restapi.tokens.ExpiredTokenSweeper;
+import com.kbj.restapi.tokens.ExpiringJdbcTokenStore;
+import com.kbj.restapi.tokens.JwtProperties;
+import com.kbj.restapi.tokens.RotatingJwtAccessTokenConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.security.oauth2.provider.token.DefaultAccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.store.JwtTokenStore;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+public class TokenStoreConfig {
+
+    // 기본 모드. 모든 노드가 같은 DB 의 토큰을 공유하고, 검증은 대부분 노드 로컬 캐시에서 끝난다.
+    @Configuration
+    @ConditionalOnProperty(prefix = "my-app.jwt", name = "enabled", havingValue = "false", matchIfMissing = true)
+    static class JdbcTokenStoreConfig {
+
+        @Bean
+        public ExpiringJdbcTokenStore jdbcTokenStore(DataSource dataSource) {
+            return new ExpiringJdbcTokenStore(dataSource);
+        }
+
+        @Bean
+        @Primary
+        public TokenStore tokenStore(ExpiringJdbcTokenStore jdbcTokenStore,
+                                     @Value("${my-app.token-store.near-cache-ttl-seconds:30}") long ttlSeconds,
+                                     @Value("${my-app.token-store.near-cache-size:10000}") long maximumSize) {
+            return new CachingTokenStore(jdbcTokenStore, Duration.ofSeconds(ttlSeconds), maximumSize);
+        }
+
+        @Bean
+        public ExpiredTokenSweeper expiredTokenSweeper(ExpiringJdbcTokenStore jdbcTokenStore) {
+            return new ExpiredTokenSweeper(jdbcTokenStore);
+        }
+    }
+
+    // 서명된 토큰 자체에 account 정보가 있으므로 리소스 서버는 저장소나 DB 를 조회하지 않는다.
+    @Configuration
+    @ConditionalOnProperty(prefix = "my-app.jwt", name = "enabled", havingValue = "true")
+    static class JwtTokenStoreConfig {
+
+        @Bean
+        public JwtAccessTokenConverter accessTokenConverter(JwtProperties jwtProperties) {
+            DefaultAccessTokenConverter accessTokenConverter = new DefaultAccessTokenConverter();
+            accessTokenConverter.setUserTokenConverter(new AccountUserAuthenticationConverter());
+            JwtAccessTokenConverter converter =
+                    new RotatingJwtAccessTokenConverter(jwtProperties.getActiveKeyId(), jwtProperties.getKeys());
+            converter.setAccessTokenConverter(accessTokenConverter);
+            return converter;
+        }
+
+        @Bean
+        public TokenStore tokenStore(JwtAccessTokenConverter accessTokenConverter) {
+            return new JwtTokenStore(accessTokenConverter);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.kbj.restapi.enrollments;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.kbj.restapi.accounts.Account;
+import com.kbj.restapi.accounts.AccountSerializer;
+import com.kbj.restapi.events.Event;
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Builder @AllArgsConstructor @NoArgsConstructor
+@Getter @Setter @EqualsAndHashCode(of = "id")
+@Entity
+// 한 사용자는 이벤트마다 한 번만 신청할 수 있고, 승인된 신청은 이벤트 안에서 서로 다른 좌석 번호를 가진다.
+@Table(uniqueConstraints = {
+  @UniqueConstraint(name = "uk_enrollment_event_account", columnNames = {"event_id", "account_id"}),
+  @UniqueConstraint(name = "uk_enrollment_event_seat", columnNames = {"event_id", "seat"})
+})
+public class Enrollment {
+
+  @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "enrollment_seq")
+  @SequenceGenerator(name = "enrollment_seq", sequenceName = "enrollment_seq", allocationSize = 50)
+  private Integer id;
+  @ManyToOne(fetch = FetchType.LAZY) @JsonIgnore
+  private Event event;
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JsonSerialize(using = AccountSerializer.class)
+  private Account account;
+  @Enumerated(EnumType.STRING)
+  private EnrollmentStatus status;
+  // 승인된 신청만 1 ~ limitOfEnrollment 중 하나를 가지고, 대기자는 null 이다.
+  // (event_id, seat) unique 제약이 여러 노드가 동시에 승인하더라도 정원을 넘지 않게 하는 최종 장치다.
+  private Integer seat;
+  private LocalDateTime enrolledAt;
+}
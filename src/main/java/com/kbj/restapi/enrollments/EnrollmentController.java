@@ -0,0 +1,53 @@
+package com.kbj.restapi.enrollments;
+
+import com.kbj.restapi.accounts.Account;
+import com.kbj.restapi.accounts.CurrentUser;
+import com.kbj.restapi.common.ErrorsEntityModel;
+import com.kbj.restapi.common.RequestPhase;
+import com.kbj.restapi.events.Event;
+import com.kbj.restapi.events.EventRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.Errors;
+import org.springframework.validation.MapBindingResult;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Optional;
+
+@Controller @AllArgsConstructor
+@RequestMapping(value = "/api/events/{eventId}/enrollments", produces = MediaTypes.HAL_JSON_VALUE + ";charset=utf-8")
+public class EnrollmentController {
+
+  private final EventRepository eventRepository;
+  private final EnrollmentService enrollmentService;
+
+  // 정원 안이면 ACCEPTED, 정원이 찼으면 WAITLISTED 로 저장한다. 이미 신청했으면 그 신청을 200 으로 돌려준다.
+  @PostMapping
+  public ResponseEntity<?> createEnrollment(@PathVariable Integer eventId, @CurrentUser Account currentUser) {
+    // 다른 노드가 방금 바꾼 상태나 정원으로 판단하도록 2차 캐시를 거치지 않고 읽는다.
+    Optional<Event> optionalEvent = RequestPhase.DB.time(() -> this.eventRepository.findFreshById(eventId));
+    if (optionalEvent.isEmpty()) {
+      return ResponseEntity.notFound().build();
+    }
+
+    Event event = optionalEvent.get();
+    if (!event.isEnrollmentOpen(LocalDateTime.now())) {
+      Errors errors = new MapBindingResult(new HashMap<>(), "enrollment");
+      errors.reject("enrollmentClosed", "Enrollment is not open.");
+      return ResponseEntity.badRequest().body(new ErrorsEntityModel(errors));
+    }
+
+    EnrollmentService.Result result = RequestPhase.DB.time(() -> this.enrollmentService.enroll(event, currentUser));
+    EnrollmentEntityModel model = new EnrollmentEntityModel(result.getEnrollment(), eventId);
+    model.add(new Link("/docs/index.html#resources-enrollments-create").withRel("profile"));
+    return ResponseEntity.status(result.isCreated() ? HttpStatus.CREATED : HttpStatus.OK).body(model);
+  }
+}
@@ -0,0 +1,13 @@
+package com.kbj.restapi.enrollments;
+
+import com.kbj.restapi.common.LinkTemplates;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+
+public class EnrollmentEntityModel extends EntityModel<Enrollment> {
+
+  public EnrollmentEntityModel(Enrollment enrollment, Integer eventId, Link... links) {
+    super(enrollment, links);
+    add(new Link(LinkTemplates.event(eventId), "event"));
+  }
+}
@@ -0,0 +1,39 @@
+package com.kbj.restapi.enrollments;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface EnrollmentRepository extends JpaRepository<Enrollment, Integer> {
+
+  Optional<Enrollment> findByEventIdAndAccountId(Integer eventId, Integer accountId);
+
+  boolean existsByEventIdAndSeat(Integer eventId, Integer seat);
+
+  long countByEventIdAndStatus(Integer eventId, EnrollmentStatus status);
+
+  @Query("select coalesce(max(e.seat), 0) from Enrollment e where e.event.id = :eventId")
+  int findMaxSeat(@Param("eventId") Integer eventId);
+
+  @Query("select e.seat from Enrollment e where e.event.id = :eventId and e.seat is not null")
+  List<Integer> findSeats(@Param("eventId") Integer eventId);
+
+  List<Enrollment> findByEventIdAndStatusOrderByEnrolledAtAscIdAsc(Integer eventId, EnrollmentStatus status,
+                                                                  Pageable pageable);
+
+  // 아직 대기 중인 신청만 승인한다. 그 좌석을 다른 노드가 먼저 쓰면 (event_id, seat) unique 제약으로 실패한다.
+  @Transactional
+  @Modifying
+  @Query("update Enrollment e set e.status = com.kbj.restapi.enrollments.EnrollmentStatus.ACCEPTED, e.seat = :seat "
+    + "where e.id = :id and e.status = com.kbj.restapi.enrollments.EnrollmentStatus.WAITLISTED")
+  int promote(@Param("id") Integer id, @Param("seat") Integer seat);
+
+}
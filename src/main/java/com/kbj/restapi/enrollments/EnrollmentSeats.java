@@ -0,0 +1,79 @@
+package com.kbj.restapi.enrollments;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntUnaryOperator;
+
+// 이벤트마다 다음 좌석 번호를 메모리에서 CAS 로 나눠 주어 신청마다 event 행을 잠그지 않는다.
+// 처음 쓰는 이벤트는 DB 의 최대 좌석 번호부터 시작하고, 다른 노드와 좌석이 겹치면 DB 값으로 다시 맞춘다.
+@Component
+public class EnrollmentSeats {
+
+  private final IntUnaryOperator maxSeat;
+  private final Cache<Integer, Seats> seats = Caffeine.newBuilder()
+    .expireAfterAccess(Duration.ofHours(1))
+    .maximumSize(10000)
+    .build();
+
+  @Autowired
+  public EnrollmentSeats(EnrollmentRepository enrollmentRepository) {
+    this(enrollmentRepository::findMaxSeat);
+  }
+
+  public EnrollmentSeats(IntUnaryOperator maxSeat) {
+    this.maxSeat = maxSeat;
+  }
+
+  // 좌석 번호를 하나 예약한다. 정원이 찼으면 0 을 돌려준다.
+  public int reserve(int eventId, int limit) {
+    Seats seats = seatsOf(eventId);
+    Integer released;
+    while ((released = seats.released.poll()) != null) {
+      if (released <= limit) {
+        return released;
+      }
+    }
+
+    for (;;) {
+      int issued = seats.issued.get();
+      if (issued >= limit) {
+        return 0;
+      }
+      if (seats.issued.compareAndSet(issued, issued + 1)) {
+        return issued + 1;
+      }
+    }
+  }
+
+  // 예약했지만 저장하지 못한 좌석을 돌려놓는다.
+  public void release(int eventId, int seat) {
+    seatsOf(eventId).released.offer(seat);
+  }
+
+  // 좌석이 이미 DB 에 있으면 그 번호까지는 다른 곳에서 나간 것이므로 건너뛴다.
+  public void resync(int eventId) {
+    int max = this.maxSeat.applyAsInt(eventId);
+    seatsOf(eventId).issued.accumulateAndGet(max, Math::max);
+  }
+
+  private Seats seatsOf(int eventId) {
+    return this.seats.get(eventId, id -> new Seats(this.maxSeat.applyAsInt(id)));
+  }
+
+  private static class Seats {
+
+    private final AtomicInteger issued;
+    private final Queue<Integer> released = new ConcurrentLinkedQueue<>();
+
+    private Seats(int issued) {
+      this.issued = new AtomicInteger(issued);
+    }
+  }
+}
@@ -0,0 +1,144 @@
+package com.kbj.restapi.enrollments;
+
+import com.kbj.restapi.accounts.Account;
+import com.kbj.restapi.events.Event;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+// 정원 확인은 EnrollmentSeats 의 메모리 예약으로 하고, 저장할 때 DB unique 제약으로 최종 확인한다.
+// 신청마다 짧은 insert 트랜잭션 하나만 쓰므로 인기 이벤트에 신청이 몰려도 event 행 잠금에 줄 서지 않는다.
+// 노드가 예약했다가 저장하지 못한 좌석은 그 노드에만 돌아가므로, 좌석이 다 나갔으면 DB 에서 빈 좌석을 찾아 다시 쓴다.
+@Service
+public class EnrollmentService {
+
+  private final EnrollmentRepository enrollmentRepository;
+  private final EnrollmentSeats enrollmentSeats;
+  private final Counter accepted;
+  private final Counter waitlisted;
+  private final Counter promoted;
+  private final Counter duplicated;
+
+  public EnrollmentService(EnrollmentRepository enrollmentRepository, EnrollmentSeats enrollmentSeats,
+                           MeterRegistry meterRegistry) {
+    this.enrollmentRepository = enrollmentRepository;
+    this.enrollmentSeats = enrollmentSeats;
+    this.accepted = counter(meterRegistry, "accepted");
+    this.waitlisted = counter(meterRegistry, "waitlisted");
+    this.promoted = counter(meterRegistry, "promoted");
+    this.duplicated = counter(meterRegistry, "duplicated");
+  }
+
+  public Result enroll(Event event, Account account) {
+    Optional<Enrollment> existing = this.enrollmentRepository.findByEventIdAndAccountId(event.getId(), account.getId());
+    if (existing.isPresent()) {
+      this.duplicated.increment();
+      return new Result(existing.get(), false);
+    }
+
+    // 좌석 충돌은 다른 신청이 그 좌석으로 승인됐다는 뜻이므로, 재시도는 많아야 정원만큼만 일어난다.
+    boolean reclaimed = false;
+    for (;;) {
+      int seat = this.enrollmentSeats.reserve(event.getId(), event.getLimitOfEnrollment());
+      if (seat == 0 && !reclaimed) {
+        reclaimed = true;
+        if (reclaimSeats(event)) {
+          continue;
+        }
+      }
+      Enrollment enrollment = Enrollment.builder()
+        .event(event)
+        .account(account)
+        .status(seat > 0 ? EnrollmentStatus.ACCEPTED : EnrollmentStatus.WAITLISTED)
+        .seat(seat > 0 ? seat : null)
+        .enrolledAt(LocalDateTime.now())
+        .build();
+      try {
+        Enrollment newEnrollment = this.enrollmentRepository.saveAndFlush(enrollment);
+        (seat > 0 ? this.accepted : this.waitlisted).increment();
+        return new Result(newEnrollment, true);
+      } catch (DataIntegrityViolationException e) {
+        // 같은 사용자가 동시에 신청했으면 먼저 저장된 신청을 돌려주고, 아니면 다른 노드가 쓴 좌석이므로 다시 예약한다.
+        Optional<Enrollment> duplicate =
+          this.enrollmentRepository.findByEventIdAndAccountId(event.getId(), account.getId());
+        if (duplicate.isPresent()) {
+          if (seat > 0) {
+            this.enrollmentSeats.release(event.getId(), seat);
+          }
+          this.duplicated.increment();
+          return new Result(duplicate.get(), false);
+        }
+        if (seat == 0 || !this.enrollmentRepository.existsByEventIdAndSeat(event.getId(), seat)) {
+          if (seat > 0) {
+            this.enrollmentSeats.release(event.getId(), seat);
+          }
+          throw e;
+        }
+        this.enrollmentSeats.resync(event.getId());
+      } catch (RuntimeException e) {
+        if (seat > 0) {
+          this.enrollmentSeats.release(event.getId(), seat);
+        }
+        throw e;
+      }
+    }
+  }
+
+  // 승인된 신청이 정원보다 적으면 비어 있는 좌석 번호를 먼저 기다린 대기자에게 주고, 남은 좌석은 이 노드에 돌려놓는다.
+  // 다른 노드가 같은 좌석이나 같은 대기자를 먼저 승인하면 다음 좌석이나 다음 대기자로 넘어간다.
+  private boolean reclaimSeats(Event event) {
+    int limit = event.getLimitOfEnrollment();
+    long accepted = this.enrollmentRepository.countByEventIdAndStatus(event.getId(), EnrollmentStatus.ACCEPTED);
+    if (accepted >= limit) {
+      return false;
+    }
+
+    Set<Integer> taken = new HashSet<>(this.enrollmentRepository.findSeats(event.getId()));
+    Deque<Integer> free = IntStream.rangeClosed(1, limit)
+      .filter(seat -> !taken.contains(seat))
+      .boxed()
+      .collect(Collectors.toCollection(ArrayDeque::new));
+    if (free.isEmpty()) {
+      return false;
+    }
+    Deque<Enrollment> waiting = new ArrayDeque<>(this.enrollmentRepository.findByEventIdAndStatusOrderByEnrolledAtAscIdAsc(
+      event.getId(), EnrollmentStatus.WAITLISTED, PageRequest.of(0, free.size())));
+    while (!free.isEmpty() && !waiting.isEmpty()) {
+      try {
+        if (this.enrollmentRepository.promote(waiting.peek().getId(), free.peek()) > 0) {
+          this.promoted.increment();
+          free.poll();
+        }
+        waiting.poll();
+      } catch (DataIntegrityViolationException e) {
+        free.poll();
+      }
+    }
+    free.forEach(seat -> this.enrollmentSeats.release(event.getId(), seat));
+    return !free.isEmpty();
+  }
+
+  private static Counter counter(MeterRegistry meterRegistry, String outcome) {
+    return Counter.builder("enrollment.requests").tag("outcome", outcome).register(meterRegistry);
+  }
+
+  @Getter @AllArgsConstructor
+  public static class Result {
+
+    private final Enrollment enrollment;
+    private final boolean created;
+  }
+}
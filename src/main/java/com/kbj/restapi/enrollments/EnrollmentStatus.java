@@ -0,0 +1,7 @@
+package com.kbj.restapi.enrollments;
+
+public enum EnrollmentStatus {
+
+  ACCEPTED, WAITLISTED;
+
+}
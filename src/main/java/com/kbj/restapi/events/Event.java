@@ -1,9 +1,12 @@
 package com.kbj.restapi.events;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.kbj.restapi.accounts.Account;
 import com.kbj.restapi.accounts.AccountSerializer;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.util.StringUtils;
 
 import javax.persistence.*;
@@ -14,9 +17,26 @@ import java.time.LocalDateTime;
 @Builder @AllArgsConstructor @NoArgsConstructor
 @Getter @Setter @EqualsAndHashCode(of = "id")
 @Entity
+// 목록 필터 조건별 인덱스. 범위 조건이 걸리는 날짜 컬럼을 뒤에 두어 동등 조건 + 범위/정렬을 한 인덱스로 처리한다.
+@Table(indexes = {
+  @Index(name = "idx_event_status_begin_event", columnList = "eventStatus, beginEventDateTime"),
+  @Index(name = "idx_event_status_begin_enrollment", columnList = "eventStatus, beginEnrollmentDateTime"),
+  @Index(name = "idx_event_status_close_enrollment", columnList = "eventStatus, closeEnrollmentDateTime"),
+  @Index(name = "idx_event_manager_begin_event", columnList = "manager_id, beginEventDateTime"),
+  @Index(name = "idx_event_free_begin_event", columnList = "free, beginEventDateTime"),
+  @Index(name = "idx_event_offline_begin_event", columnList = "offline, beginEventDateTime"),
+  @Index(name = "idx_event_begin_event", columnList = "beginEventDateTime"),
+  @Index(name = "idx_event_begin_enrollment", columnList = "beginEnrollmentDateTime"),
+  @Index(name = "idx_event_base_price", columnList = "basePrice")
+})
+// 2차 캐시는 노드마다 있으므로 다른 노드가 바꾼 이벤트는 EventCacheInvalidator 가 변경 피드를 보고 비운다.
+// 수정할 때는 캐시를 거치지 않고 읽어(EventRepository.findFreshById) 이전 version 과 If-Match 를 비교하지 않는다.
+@Cacheable @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Event {
 
-  @Id @GeneratedValue
+  // pooled 옵티마이저로 sequence 를 50 개씩 미리 받아 대량 insert 시 id 마다 sequence 를 호출하지 않는다.
+  @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "event_seq")
+  @SequenceGenerator(name = "event_seq", sequenceName = "event_seq", allocationSize = 50)
   private Integer id;
   private String name;
   private String description;
@@ -32,10 +52,27 @@ public class Event {
   private boolean free;
   @Enumerated(EnumType.STRING)
   private EventStatus eventStatus = EventStatus.DRAFT;
-  @ManyToOne
+  // 수정될 때마다 증가하며 ETag 와 낙관적 잠금에 쓰인다.
+  @Version @JsonIgnore
+  private Long version;
+  // 목록 조회 시 manager 마다 추가 select 가 나가지 않도록 event 의 manager_id 만 읽는다.
+  @ManyToOne(fetch = FetchType.LAZY)
   @JsonSerialize(using = AccountSerializer.class)
   private Account manager;
 
+  // manager 가 프록시여도 초기화하지 않도록 id 로만 비교한다.
+  public boolean isManagedBy(Account account) {
+    return account != null && this.manager != null && this.manager.getId().equals(account.getId());
+  }
+
+  // 신청은 공개되어 BEGAN_ENROLLMENT 가 된 이벤트만 beginEnrollmentDateTime 부터 closeEnrollmentDateTime 전까지 받는다.
+  // 상태 스케줄러가 CLOSED_ENROLLMENT 로 바꾸기 전에 마감 시각이 지날 수 있으므로 날짜도 함께 본다.
+  public boolean isEnrollmentOpen(LocalDateTime now) {
+    return this.eventStatus == EventStatus.BEGAN_ENROLLMENT
+      && this.beginEnrollmentDateTime != null && this.closeEnrollmentDateTime != null
+      && !now.isBefore(this.beginEnrollmentDateTime) && now.isBefore(this.closeEnrollmentDateTime);
+  }
+
   public void update() {
     // Update free
     if (this.basePrice == 0 && this.maxPrice == 0) {
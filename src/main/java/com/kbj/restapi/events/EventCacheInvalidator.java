@@ -0,0 +1,46 @@
+package com.kbj.restapi.events;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+// 이 노드의 Event 2차 캐시에서 다른 노드가 만들거나 바꾼 이벤트를 비운다.
+// 변경 피드를 poll-interval 마다 따라 읽고, 피드에 나온 이벤트 id 를 evict 한다. 이 노드의 변경은 이미 캐시에 반영되어 있지만
+// 한 번 더 비워도 다음 조회에서 다시 읽을 뿐이다. 피드가 밀리는 동안은 캐시 ttl 이 이전 값을 보이는 시간을 제한한다.
+@Component
+public class EventCacheInvalidator {
+
+  private static final int POLL_SIZE = 500;
+
+  private final EventChangeRepository eventChangeRepository;
+  private final EntityManagerFactory entityManagerFactory;
+  // 여기까지의 변경은 캐시에서 비웠다. 처음 poll 때 정한다. 그 전에 캐시된 이벤트는 없다.
+  private long lastSequence = -1;
+
+  public EventCacheInvalidator(EventChangeRepository eventChangeRepository,
+                               EntityManagerFactory entityManagerFactory) {
+    this.eventChangeRepository = eventChangeRepository;
+    this.entityManagerFactory = entityManagerFactory;
+  }
+
+  @Scheduled(fixedDelayString = "${my-app.event-cache.poll-interval-millis:500}")
+  public synchronized void poll() {
+    if (this.lastSequence < 0) {
+      this.lastSequence = this.eventChangeRepository.findMaxSequence();
+      return;
+    }
+
+    List<EventChange> changes;
+    do {
+      changes = this.eventChangeRepository.findBySequenceGreaterThanOrderBySequence(this.lastSequence,
+        PageRequest.of(0, POLL_SIZE));
+      for (EventChange change : changes) {
+        this.entityManagerFactory.getCache().evict(Event.class, change.getEventId());
+        this.lastSequence = change.getSequence();
+      }
+    } while (changes.size() == POLL_SIZE);
+  }
+}
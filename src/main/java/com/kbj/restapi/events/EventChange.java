@@ -0,0 +1,43 @@
+package com.kbj.restapi.events;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// 이벤트를 저장한 트랜잭션에서 함께 기록하는 변경 내역(outbox).
+// sequence 는 relay 가 한 노드에서 순서대로 매기므로 늦게 커밋된 변경도 피드에서 건너뛰지 않는다.
+// id 는 노드마다 50개씩 미리 받아 쓰므로 커밋 순서와 다르다. 같은 이벤트의 순서는 relay 가 eventVersion 으로 맞춘다.
+@Builder @AllArgsConstructor @NoArgsConstructor
+@Getter @Setter @EqualsAndHashCode(of = "id")
+@Entity
+@Table(indexes = {
+  @Index(name = "uk_event_change_sequence", columnList = "sequenceNumber", unique = true),
+  @Index(name = "idx_event_change_published_sequence", columnList = "publishedAt, sequenceNumber"),
+  @Index(name = "idx_event_change_event_version", columnList = "eventId, eventVersion")
+})
+public class EventChange {
+
+  @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "event_change_seq")
+  @SequenceGenerator(name = "event_change_seq", sequenceName = "event_change_seq", allocationSize = 50)
+  @JsonIgnore
+  private Long id;
+  @Column(name = "sequenceNumber")
+  private Long sequence;
+  private Integer eventId;
+  // 스트림의 manager 필터용. 이벤트 JSON 의 manager.id 와 같다.
+  @JsonIgnore
+  private Integer managerId;
+  @Enumerated(EnumType.STRING)
+  private EventChangeType type;
+  private Long eventVersion;
+  // 변경된 이벤트의 JSON. 저장할 때 한 번만 직렬화하고 피드와 sink 는 그대로 내보낸다.
+  @Column(columnDefinition = "text") @JsonRawValue @JsonProperty("event")
+  private String payload;
+  private LocalDateTime changedAt;
+  @JsonIgnore
+  private LocalDateTime publishedAt;
+}
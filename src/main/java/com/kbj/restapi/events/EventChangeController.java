@@ -0,0 +1,63 @@
+package com.kbj.restapi.events;
+
+import com.kbj.restapi.common.LinkTemplates;
+import lombok.AllArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+// 이벤트 변경 피드. since 보다 큰 sequence 를 순서대로 내려주고, next 링크의 since 로 이어서 읽는다.
+// 아직 relay 가 sequence 를 매기지 않은 변경은 보이지 않다가 다음 페이지에 나타난다.
+// since 바로 다음 변경이 보관 기간이 지나 지워졌으면 건너뛴 변경이 있으므로 410 을 응답한다.
+@Controller @AllArgsConstructor
+@RequestMapping(value = "/api/events/changes", produces = MediaTypes.HAL_JSON_VALUE + ";charset=utf-8")
+public class EventChangeController {
+
+  static final int MAX_SIZE = 1000;
+
+  private final EventChangeRepository eventChangeRepository;
+
+  @GetMapping
+  public ResponseEntity<?> queryChanges(@RequestParam(defaultValue = "0") long since,
+                                        @RequestParam(defaultValue = "100") int size) {
+    if (since < 0 || size < 1 || size > MAX_SIZE) {
+      return ResponseEntity.badRequest().build();
+    }
+    if (since > 0 && since < this.eventChangeRepository.findMinSequence() - 1) {
+      return ResponseEntity.status(HttpStatus.GONE).build();
+    }
+
+    List<EventChange> changes =
+      this.eventChangeRepository.findBySequenceGreaterThanOrderBySequence(since, PageRequest.of(0, size));
+    List<EntityModel<EventChange>> content = changes.stream()
+      .map(change -> new EntityModel<>(change, new Link(LinkTemplates.event(change.getEventId()), "event")))
+      .collect(Collectors.toList());
+    long last = changes.isEmpty() ? since : changes.get(changes.size() - 1).getSequence();
+
+    CollectionModel<EntityModel<EventChange>> model = new CollectionModel<>(content);
+    model.add(changesLink(since, size).withSelfRel());
+    model.add(changesLink(last, size).withRel(IanaLinkRelations.NEXT));
+    model.add(new Link("/docs/index.html#resources-events-changes").withRel("profile"));
+    return ResponseEntity.ok(model);
+  }
+
+  private Link changesLink(long since, int size) {
+    return new Link(ServletUriComponentsBuilder.fromCurrentRequestUri()
+      .queryParam("since", since)
+      .queryParam("size", size)
+      .toUriString());
+  }
+}
@@ -0,0 +1,165 @@
+package com.kbj.restapi.events;
+
+import com.kbj.restapi.common.SchedulerLease;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+
+// lease 를 가진 노드 하나가 커밋된 EventChange 에 sequence 를 매기고, batchSize 개씩 sink 에 넘긴 뒤 발행 시각을 남긴다.
+// sequence 는 relay 가 커밋된 순서대로 매기므로 피드를 since 로 읽는 쪽은 늦게 커밋된 변경을 건너뛰지 않는다.
+// sink 가 실패하면 발행 표시를 하지 않고 다음 relay 때 같은 묶음부터 다시 넘긴다.
+// 같은 이벤트의 변경은 eventVersion 순서로 매기고, 더 높은 version 이 이미 나간 변경은 피드에 넣지 않고 지운다.
+// 발행하고 retention 이 지난 변경은 prune 이 지우되, 다음 sequence 를 이어서 매기도록 마지막 하나는 남긴다.
+@Slf4j
+public class EventChangeRelay {
+
+  private final EventChangeRepository eventChangeRepository;
+  private final List<EventChangeSink> sinks;
+  private final SchedulerLease lease;
+  private final TransactionTemplate transactionTemplate;
+  private final Clock clock;
+  private final int batchSize;
+  private final Duration retention;
+  private final Counter published;
+  private final Counter superseded;
+  private final Counter failures;
+
+  public EventChangeRelay(EventChangeRepository eventChangeRepository, List<EventChangeSink> sinks,
+                          SchedulerLease lease, TransactionTemplate transactionTemplate, Clock clock, int batchSize,
+                          Duration retention, MeterRegistry meterRegistry) {
+    this.eventChangeRepository = eventChangeRepository;
+    this.sinks = sinks;
+    this.lease = lease;
+    this.transactionTemplate = transactionTemplate;
+    this.clock = clock;
+    this.batchSize = batchSize;
+    this.retention = retention;
+    this.published = Counter.builder("event.changes.published").register(meterRegistry);
+    this.superseded = Counter.builder("event.changes.superseded").register(meterRegistry);
+    this.failures = Counter.builder("event.changes.failures").register(meterRegistry);
+  }
+
+  @Scheduled(fixedDelayString = "${my-app.outbox.relay-interval-millis:1000}")
+  public void tick() {
+    relay();
+  }
+
+  // 밀린 변경이 없어질 때까지 넘기고 넘긴 개수를 돌려준다.
+  public synchronized int relay() {
+    if (!this.lease.acquire()) {
+      return 0;
+    }
+
+    int total = 0;
+    while (this.lease.isHeld()) {
+      int sequenced = this.transactionTemplate.execute(status -> sequence());
+      List<EventChange> batch = this.eventChangeRepository.findUnpublished(PageRequest.of(0, this.batchSize));
+      if (!batch.isEmpty()) {
+        if (!publish(batch)) {
+          break;
+        }
+        total += batch.size();
+      }
+      if (batch.size() < this.batchSize && sequenced < this.batchSize) {
+        break;
+      }
+    }
+    return total;
+  }
+
+  // 발행한 지 retention 이 지난 변경을 지우고 지운 개수를 돌려준다.
+  @Scheduled(fixedDelayString = "${my-app.outbox.prune-interval-millis:3600000}")
+  public synchronized int prune() {
+    if (!this.lease.acquire()) {
+      return 0;
+    }
+
+    LocalDateTime before = LocalDateTime.now(this.clock).minus(this.retention);
+    return this.transactionTemplate.execute(status -> {
+      Long first = this.eventChangeRepository.findFirstRetainedSequence(before);
+      long upTo = first != null ? first : this.eventChangeRepository.findMaxSequence();
+      return upTo > 0 ? this.eventChangeRepository.deleteBySequenceLessThan(upTo) : 0;
+    });
+  }
+
+  private int sequence() {
+    List<EventChange> changes = this.eventChangeRepository.findUnsequenced(PageRequest.of(0, this.batchSize));
+    if (changes.isEmpty()) {
+      return 0;
+    }
+
+    Map<Integer, Long> sequencedVersions = new HashMap<>();
+    Set<Integer> eventIds = new HashSet<>();
+    changes.forEach(change -> eventIds.add(change.getEventId()));
+    for (Object[] row : this.eventChangeRepository.findSequencedVersions(eventIds)) {
+      sequencedVersions.put((Integer) row[0], (Long) row[1]);
+    }
+
+    // lease 가 겹쳐 두 노드가 같은 번호를 매기면 unique 인덱스가 한쪽 커밋을 막는다.
+    long next = this.eventChangeRepository.findMaxSequence();
+    List<EventChange> stale = new ArrayList<>();
+    for (EventChange change : inVersionOrder(changes)) {
+      Long sequencedVersion = sequencedVersions.get(change.getEventId());
+      if (sequencedVersion != null && change.getEventVersion() <= sequencedVersion) {
+        stale.add(change);
+        continue;
+      }
+      change.setSequence(++next);
+      sequencedVersions.put(change.getEventId(), change.getEventVersion());
+    }
+    if (!stale.isEmpty()) {
+      this.eventChangeRepository.deleteAll(stale);
+      this.superseded.increment(stale.size());
+    }
+    return changes.size();
+  }
+
+  // id 순서에서 각 이벤트가 차지한 자리는 그대로 두고, 그 자리를 그 이벤트의 변경으로 version 이 낮은 것부터 채운다.
+  private static List<EventChange> inVersionOrder(List<EventChange> changes) {
+    Map<Integer, Queue<EventChange>> byEvent = new HashMap<>();
+    for (EventChange change : changes) {
+      byEvent.computeIfAbsent(change.getEventId(),
+        eventId -> new PriorityQueue<>(Comparator.comparing(EventChange::getEventVersion))).add(change);
+    }
+    List<EventChange> ordered = new ArrayList<>(changes.size());
+    for (EventChange change : changes) {
+      ordered.add(byEvent.get(change.getEventId()).poll());
+    }
+    return ordered;
+  }
+
+  private boolean publish(List<EventChange> batch) {
+    try {
+      for (EventChangeSink sink : this.sinks) {
+        sink.publish(batch);
+      }
+    } catch (RuntimeException e) {
+      this.failures.increment();
+      log.warn("Failed to publish {} event changes from sequence {}", batch.size(), batch.get(0).getSequence(), e);
+      return false;
+    }
+
+    List<Long> ids = new ArrayList<>(batch.size());
+    batch.forEach(change -> ids.add(change.getId()));
+    LocalDateTime now = LocalDateTime.now(this.clock);
+    this.transactionTemplate.execute(status -> this.eventChangeRepository.markPublished(ids, now));
+    this.published.increment(batch.size());
+    return true;
+  }
+}
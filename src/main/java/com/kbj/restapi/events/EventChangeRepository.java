@@ -0,0 +1,49 @@
+package com.kbj.restapi.events;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EventChangeRepository extends JpaRepository<EventChange, Long> {
+
+  // 피드. sequence unique 인덱스의 범위 조회로 since 다음부터 읽는다.
+  List<EventChange> findBySequenceGreaterThanOrderBySequence(Long since, Pageable pageable);
+
+  @Query("select c from EventChange c where c.sequence is null order by c.id")
+  List<EventChange> findUnsequenced(Pageable pageable);
+
+  @Query("select coalesce(max(c.sequence), 0) from EventChange c")
+  long findMaxSequence();
+
+  @Query("select coalesce(min(c.sequence), 0) from EventChange c")
+  long findMinSequence();
+
+  // 이벤트별로 이미 sequence 를 받은 가장 높은 version. [eventId, eventVersion] 배열로 돌려준다.
+  @Query("select c.eventId, max(c.eventVersion) from EventChange c "
+    + "where c.eventId in :eventIds and c.sequence is not null group by c.eventId")
+  List<Object[]> findSequencedVersions(@Param("eventIds") Collection<Integer> eventIds);
+
+  // 보관 기간이 지나지 않았거나 아직 발행하지 않은 첫 sequence. 없으면 null.
+  @Query("select min(c.sequence) from EventChange c where c.publishedAt is null or c.publishedAt >= :before")
+  Long findFirstRetainedSequence(@Param("before") LocalDateTime before);
+
+  @Modifying
+  @Query("delete from EventChange c where c.sequence < :sequence")
+  int deleteBySequenceLessThan(@Param("sequence") long sequence);
+
+  @Query("select c from EventChange c where c.publishedAt is null and c.sequence is not null order by c.sequence")
+  List<EventChange> findUnpublished(Pageable pageable);
+
+  @Modifying
+  @Query("update EventChange c set c.publishedAt = :publishedAt where c.id in :ids")
+  int markPublished(@Param("ids") List<Long> ids, @Param("publishedAt") LocalDateTime publishedAt);
+
+}
@@ -0,0 +1,11 @@
+package com.kbj.restapi.events;
+
+import java.util.List;
+
+// EventChangeRelay 가 sequence 순서대로 묶어서 넘기는 변경 내역을 받는 곳.
+// 예외를 던지면 같은 묶음을 다음 relay 때 다시 넘기므로(at-least-once) 받는 쪽은 sequence 로 중복을 거른다.
+public interface EventChangeSink {
+
+  void publish(List<EventChange> changes);
+
+}
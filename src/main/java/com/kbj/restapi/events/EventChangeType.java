@@ -0,0 +1,7 @@
+package com.kbj.restapi.events;
+
+public enum EventChangeType {
+
+  CREATED, UPDATED;
+
+}
@@ -2,124 +2,423 @@ package com.kbj.restapi.events;
 
 import com.kbj.restapi.accounts.Account;
 import com.kbj.restapi.accounts.CurrentUser;
+import com.kbj.restapi.common.AppProperties;
 import com.kbj.restapi.common.ErrorsEntityModel;
+import com.kbj.restapi.common.IdempotencyStore;
+import com.kbj.restapi.common.LinkTemplates;
+import com.kbj.restapi.common.RequestPhase;
 import lombok.AllArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.MediaTypes;
 import org.springframework.hateoas.PagedModel;
-import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Controller;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
 import org.springframework.validation.Errors;
+import org.springframework.validation.MapBindingResult;
+import org.springframework.validation.Validator;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
-import javax.validation.Valid;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 
 @Controller @AllArgsConstructor
 @RequestMapping(value = "/api/events", produces = MediaTypes.HAL_JSON_VALUE + ";charset=utf-8")
 public class EventController {
 
+  static final String NDJSON_VALUE = "application/x-ndjson;charset=utf-8";
+  static final String CSV_VALUE = "text/csv;charset=utf-8";
+
   private final EventRepository eventRepository;
-  private final ModelMapper modelMapper;
+  private final EventService eventService;
+  private final EventMapper eventMapper;
   private final EventValidator eventValidator;
+  private final Validator validator;
+  private final AppProperties appProperties;
+  private final EventExporter eventExporter;
+  private final EventTextIndex eventTextIndex;
+  private final IdempotencyStore idempotencyStore;
 
   @GetMapping
   public ResponseEntity<?> queryEvents(Pageable pageable, PagedResourcesAssembler<Event> assembler,
-                                       @CurrentUser Account currentUser) {
-    Page<Event> page = this.eventRepository.findAll(pageable);
-    PagedModel<EntityModel<Event>> pagedModel = assembler.toModel(page, e -> new EventEntityModel(e));
+                                       EventSearch search,
+                                       @RequestParam(required = false) String after,
+                                       @RequestParam(required = false) String before,
+                                       @RequestParam(required = false) String fields,
+                                       @CurrentUser Account currentUser, WebRequest request) {
+    EventFields eventFields;
+    try {
+      eventFields = eventFields(fields, request);
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
+    Specification<Event> spec = search.toSpecification();
+    if (after != null || before != null) {
+      return queryEventsByCursor(pageable, spec, after, before, eventFields, currentUser, request);
+    }
+
+    Page<Event> page = RequestPhase.DB.time(() -> this.eventRepository.findAll(spec, pageable));
+    String eTag = eventFields.eTag(
+      listETag(page.getContent(), page.getTotalElements() + ":" + page.getTotalPages(), currentUser));
+    if (request.checkNotModified(eTag)) {
+      return notModified(eTag);
+    }
+    PagedModel<EntityModel<Event>> pagedModel =
+      RequestPhase.MAPPING.time(() -> assembler.toModel(page, e -> new EventEntityModel(e)));
     pagedModel.add(new Link("/docs/index.html#resources-events-list").withRel("profile"));
     if (currentUser != null) {
-      pagedModel.add(linkTo(EventController.class).withRel("create-event"));
+      pagedModel.add(new Link(LinkTemplates.events(), "create-event"));
+    }
+    return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.AUTHORIZATION).body(pagedModel);
+  }
+
+  // OFFSET 과 count 쿼리 대신 (정렬 컬럼, id) keyset 으로 조회하므로 깊은 페이지도 응답 시간이 일정하다.
+  private ResponseEntity<?> queryEventsByCursor(Pageable pageable, Specification<Event> spec, String after,
+                                                String before, EventFields eventFields, Account currentUser,
+                                                WebRequest request) {
+    boolean backward = after == null;
+    String token = backward ? before : after;
+    EventCursor cursor;
+    try {
+      cursor = StringUtils.isEmpty(token) ? EventCursor.first(pageable.getSort()) : EventCursor.decode(token);
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
+
+    int size = pageable.getPageSize();
+    List<Event> fetched =
+      RequestPhase.DB.time(() -> this.eventRepository.findAllByCursor(cursor, spec, backward, size + 1));
+    boolean hasMore = fetched.size() > size;
+    List<Event> events = !hasMore ? fetched
+      : backward ? fetched.subList(1, fetched.size()) : fetched.subList(0, size);
+    String eTag = eventFields.eTag(listETag(events, String.valueOf(hasMore), currentUser));
+    if (request.checkNotModified(eTag)) {
+      return notModified(eTag);
+    }
+
+    List<EntityModel<Event>> content = RequestPhase.MAPPING.time(() -> events.stream()
+      .map(EventEntityModel::new)
+      .collect(Collectors.<EntityModel<Event>>toList()));
+    CollectionModel<EntityModel<Event>> model = new CollectionModel<>(content);
+    model.add(cursorLink(backward ? "before" : "after", token, size).withSelfRel());
+    if (!events.isEmpty()) {
+      if (backward ? !cursor.isFirst() : hasMore) {
+        String next = EventCursor.of(cursor, events.get(events.size() - 1)).encode();
+        model.add(cursorLink("after", next, size).withRel(IanaLinkRelations.NEXT));
+      }
+      if (backward ? hasMore : !cursor.isFirst()) {
+        String prev = EventCursor.of(cursor, events.get(0)).encode();
+        model.add(cursorLink("before", prev, size).withRel(IanaLinkRelations.PREV));
+      }
+    }
+    model.add(new Link("/docs/index.html#resources-events-list").withRel("profile"));
+    if (currentUser != null) {
+      model.add(new Link(LinkTemplates.events(), "create-event"));
+    }
+    return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.AUTHORIZATION).body(model);
+  }
+
+  private Link cursorLink(String name, String token, int size) {
+    return new Link(ServletUriComponentsBuilder.fromCurrentRequestUri()
+      .queryParam(name, token)
+      .queryParam("size", size)
+      .toUriString());
+  }
+
+  // name, description, location 에 대한 키워드 검색. 정렬은 검색 점수 순서로 고정된다.
+  @GetMapping("/search")
+  public ResponseEntity<?> searchEvents(@RequestParam String q, Pageable pageable,
+                                        PagedResourcesAssembler<Event> assembler,
+                                        @RequestParam(required = false) String fields,
+                                        @CurrentUser Account currentUser, WebRequest request) {
+    try {
+      eventFields(fields, request);
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
+    List<Integer> ids = this.eventTextIndex.search(q);
+    int from = (int) Math.min(pageable.getOffset(), ids.size());
+    List<Integer> pageIds = ids.subList(from, Math.min(from + pageable.getPageSize(), ids.size()));
+    Map<Integer, Event> events = this.eventRepository.findAllById(pageIds).stream()
+      .collect(Collectors.toMap(Event::getId, Function.identity()));
+    List<Event> content = pageIds.stream()
+      .map(events::get)
+      .filter(Objects::nonNull)
+      .collect(Collectors.toList());
+
+    Page<Event> page = new PageImpl<>(content, PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()), ids.size());
+    PagedModel<EntityModel<Event>> pagedModel = assembler.toModel(page, e -> new EventEntityModel(e));
+    pagedModel.add(new Link("/docs/index.html#resources-events-search").withRel("profile"));
+    if (currentUser != null) {
+      pagedModel.add(new Link(LinkTemplates.events(), "create-event"));
     }
     return ResponseEntity.ok(pagedModel);
   }
 
+  // 전체 이벤트를 페이지 없이 한 번에 내려준다. format 은 ndjson(기본) 또는 csv.
+  @GetMapping(value = "/export", produces = {EventController.NDJSON_VALUE, EventController.CSV_VALUE})
+  public ResponseEntity<StreamingResponseBody> exportEvents(
+    @RequestParam(defaultValue = "ndjson") String format,
+    @RequestParam(required = false) EventStatus eventStatus,
+    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+    EventExporter.Filter filter = new EventExporter.Filter(eventStatus, from, to);
+    if ("csv".equals(format)) {
+      return ResponseEntity.ok()
+        .contentType(MediaType.parseMediaType(CSV_VALUE))
+        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"events.csv\"")
+        .body(out -> this.eventExporter.exportCsv(filter, out));
+    }
+    if (!"ndjson".equals(format)) {
+      return ResponseEntity.badRequest().build();
+    }
+    return ResponseEntity.ok()
+      .contentType(MediaType.parseMediaType(NDJSON_VALUE))
+      .body(out -> this.eventExporter.exportNdjson(filter, out));
+  }
+
   @GetMapping("/{id}")
   public ResponseEntity<?> queryEvent(@PathVariable Integer id,
-                                      @CurrentUser Account currentUser) {
-    Optional<Event> optionalEvent = this.eventRepository.findById(id);
+                                      @RequestParam(required = false) String fields,
+                                      @CurrentUser Account currentUser, WebRequest request) {
+    EventFields eventFields;
+    try {
+      eventFields = eventFields(fields, request);
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
+    Optional<Event> optionalEvent = RequestPhase.DB.time(() -> this.eventRepository.findById(id));
     if (optionalEvent.isEmpty()) {
       return ResponseEntity.notFound().build();
     }
 
     Event event = optionalEvent.get();
-    EventEntityModel eventEntityModel = new EventEntityModel(event);
+    boolean managed = event.isManagedBy(currentUser);
+    String eTag = eventFields.eTag(eventETag(event, managed));
+    if (request.checkNotModified(eTag)) {
+      return notModified(eTag);
+    }
+
+    EventEntityModel eventEntityModel = RequestPhase.MAPPING.time(() -> new EventEntityModel(event));
     eventEntityModel.add(new Link("/docs/index.html#resources-events-get").withRel("profile"));
-    if (event.getManager().equals(currentUser)) {
-      eventEntityModel.add(linkTo(EventController.class).slash(event.getId()).withRel("update-event"));
+    if (managed) {
+      eventEntityModel.add(new Link(LinkTemplates.event(event.getId()), "update-event"));
     }
-    return ResponseEntity.ok(eventEntityModel);
+    return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.AUTHORIZATION).body(eventEntityModel);
   }
 
   @PostMapping
-  public ResponseEntity<?> createEvent(@RequestBody @Valid EventDto eventDto, Errors errors,
-                                       @CurrentUser Account currentUser) {
-    if (errors.hasErrors()) {
-      return badRequest(errors);
-    }
+  public ResponseEntity<?> createEvent(@RequestBody EventDto eventDto, Errors errors,
+                                       @CurrentUser Account currentUser,
+                                       @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+    return idempotent("events", idempotencyKey, eventDto, currentUser,
+      () -> doCreateEvent(eventDto, errors, currentUser));
+  }
 
-    eventValidator.validate(eventDto, errors);
+  private ResponseEntity<?> doCreateEvent(EventDto eventDto, Errors errors, Account currentUser) {
+    validate(eventDto, errors);
     if (errors.hasErrors()) {
       return badRequest(errors);
     }
 
-    Event event = modelMapper.map(eventDto, Event.class);
+    Event event = RequestPhase.MAPPING.time(() -> eventMapper.toEvent(eventDto));
     event.update();
     event.setManager(currentUser);
-    Event newEvent = this.eventRepository.save(event);
+    Event newEvent = RequestPhase.DB.time(() -> this.eventService.create(event));
+    this.eventTextIndex.index(newEvent);
 
-    WebMvcLinkBuilder selfLinkBuilder = linkTo(EventController.class).slash(newEvent.getId());
-    URI createUri = linkTo(EventController.class).slash(newEvent.getId()).toUri();
-    EventEntityModel model = new EventEntityModel(newEvent);
-    model.add(linkTo(EventController.class).withRel("query-events"));
-    model.add(selfLinkBuilder.withRel("update-event"));
+    String eventUri = LinkTemplates.event(newEvent.getId());
+    EventEntityModel model = RequestPhase.MAPPING.time(() -> new EventEntityModel(newEvent));
+    model.add(new Link(LinkTemplates.events(), "query-events"));
+    model.add(new Link(eventUri, "update-event"));
     model.add(new Link("/docs/index.html#resources-events-create").withRel("profile"));
-    return ResponseEntity.created(createUri).body(model);
+    return ResponseEntity.created(URI.create(eventUri)).body(model);
   }
 
-  @PutMapping("/{id}")
-  public ResponseEntity<?> updateEvent(@PathVariable Integer id,
-                                       @RequestBody @Valid EventDto eventDto, Errors errors,
-                                       @CurrentUser Account currentUser) {
+  // 모든 항목을 검증한 뒤 하나라도 잘못되면 아무것도 저장하지 않고, 오류는 objectName 의 index 로 구분한다.
+  @PostMapping("/batch")
+  public ResponseEntity<?> createEvents(@RequestBody List<EventDto> eventDtos,
+                                        @CurrentUser Account currentUser,
+                                        @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+    return idempotent("events/batch", idempotencyKey, eventDtos, currentUser,
+      () -> doCreateEvents(eventDtos, currentUser));
+  }
+
+  private ResponseEntity<?> doCreateEvents(List<EventDto> eventDtos, Account currentUser) {
+    MapBindingResult errors = new MapBindingResult(new HashMap<>(), "events");
+    int maxSize = this.appProperties.getEventBatchMaxSize();
+    if (eventDtos.isEmpty() || eventDtos.size() > maxSize) {
+      errors.reject("wrongSize", "Events size must be between 1 and " + maxSize + ".");
+      return badRequest(errors);
+    }
+
+    List<Event> events = new ArrayList<>(eventDtos.size());
+    for (int i = 0; i < eventDtos.size(); i++) {
+      EventDto eventDto = eventDtos.get(i);
+      BindingResult eventErrors = new BeanPropertyBindingResult(eventDto, "events[" + i + "]");
+      if (eventDto == null) {
+        eventErrors.reject("notNull", "Event must not be null.");
+      } else {
+        this.validator.validate(eventDto, eventErrors);
+        if (!eventErrors.hasErrors()) {
+          this.eventValidator.validate(eventDto, eventErrors);
+        }
+      }
+      if (eventErrors.hasErrors()) {
+        eventErrors.getAllErrors().forEach(errors::addError);
+        continue;
+      }
+
+      Event event = this.eventMapper.toEvent(eventDto);
+      event.update();
+      event.setManager(currentUser);
+      events.add(event);
+    }
     if (errors.hasErrors()) {
       return badRequest(errors);
     }
-    this.eventValidator.validate(eventDto, errors);
+
+    List<Event> newEvents = RequestPhase.DB.time(() -> this.eventService.createAll(events));
+    newEvents.forEach(this.eventTextIndex::index);
+    List<EntityModel<Event>> content = newEvents.stream()
+      .map(EventEntityModel::new)
+      .collect(Collectors.toList());
+    CollectionModel<EntityModel<Event>> model = new CollectionModel<>(content);
+    model.add(new Link(LinkTemplates.events() + "/batch", IanaLinkRelations.SELF));
+    model.add(new Link(LinkTemplates.events(), "query-events"));
+    model.add(new Link("/docs/index.html#resources-events-create-batch").withRel("profile"));
+    return ResponseEntity.status(HttpStatus.CREATED).body(model);
+  }
+
+  @PutMapping("/{id}")
+  public ResponseEntity<?> updateEvent(@PathVariable Integer id,
+                                       @RequestBody EventDto eventDto, Errors errors,
+                                       @CurrentUser Account currentUser,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    validate(eventDto, errors);
     if (errors.hasErrors()) {
       return badRequest(errors);
     }
 
-    Optional<Event> optionalEvent = this.eventRepository.findById(id);
+    // 캐시에 남은 이전 version 으로 최신 If-Match 를 412 로 거절하지 않도록 DB 에서 읽는다.
+    Optional<Event> optionalEvent = RequestPhase.DB.time(() -> this.eventRepository.findFreshById(id));
     if (optionalEvent.isEmpty()) {
       return ResponseEntity.notFound().build();
     }
 
     Event existingEvent = optionalEvent.get();
-    if (!existingEvent.getManager().equals(currentUser)) {
+    if (!existingEvent.isManagedBy(currentUser)) {
       return new ResponseEntity(HttpStatus.UNAUTHORIZED);
     }
 
-    this.modelMapper.map(eventDto, existingEvent);
-    Event savedEvent = this.eventRepository.save(existingEvent);
-    EventEntityModel eventEntityModel = new EventEntityModel(savedEvent);
+    // 클라이언트가 본 버전과 다르면 덮어쓰지 않는다. 조회 이후 flush 전에 바뀐 경우는 @Version 이 막는다.
+    if (ifMatch != null && !matches(ifMatch, existingEvent)) {
+      return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+    }
+
+    RequestPhase.MAPPING.time(() -> this.eventMapper.update(eventDto, existingEvent));
+    Event savedEvent = RequestPhase.DB.time(() -> this.eventService.update(existingEvent));
+    this.eventTextIndex.index(savedEvent);
+    EventEntityModel eventEntityModel = RequestPhase.MAPPING.time(() -> new EventEntityModel(savedEvent));
     eventEntityModel.add(new Link("/docs/index.html#resources-events-update").withRel("profile"));
-    return ResponseEntity.ok(eventEntityModel);
+    return ResponseEntity.ok().eTag(eventETag(savedEvent, true)).body(eventEntityModel);
+  }
+
+  @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+  public ResponseEntity<?> optimisticLockingFailure() {
+    return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+  }
+
+  // 키는 사용자와 endpoint 별로 따로 보고, 본문은 digest 로 비교해 같은 키에 다른 요청이 오면 거절한다.
+  private ResponseEntity<?> idempotent(String scope, String idempotencyKey, Object body, Account currentUser,
+                                       Supplier<ResponseEntity<?>> request) {
+    if (idempotencyKey == null) {
+      return request.get();
+    }
+    if (!IdempotencyStore.isValidKey(idempotencyKey)) {
+      return ResponseEntity.badRequest().build();
+    }
+    String key = scope + ":" + (currentUser == null ? "" : currentUser.getId()) + ":" + idempotencyKey;
+    String fingerprint = DigestUtils.md5DigestAsHex(String.valueOf(body).getBytes(StandardCharsets.UTF_8));
+    return this.idempotencyStore.execute(key, fingerprint, request);
+  }
+
+  // Bean Validation 을 통과한 경우에만 EventValidator 의 규칙을 검사한다.
+  private void validate(EventDto eventDto, Errors errors) {
+    RequestPhase.VALIDATION.time(() -> {
+      this.validator.validate(eventDto, errors);
+      if (!errors.hasErrors()) {
+        this.eventValidator.validate(eventDto, errors);
+      }
+    });
   }
 
   private ResponseEntity<?> badRequest(Errors errors) {
     return ResponseEntity.badRequest().body(new ErrorsEntityModel(errors));
   }
 
+  private ResponseEntity<?> notModified(String eTag) {
+    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).varyBy(HttpHeaders.AUTHORIZATION).build();
+  }
+
+  // fields 를 해석해서 EventFieldsAdvice 가 직렬화할 때 쓰도록 요청 attribute 로 남긴다.
+  private EventFields eventFields(String fields, WebRequest request) {
+    EventFields eventFields = EventFields.parse(fields);
+    request.setAttribute(EventFields.ATTRIBUTE, eventFields, RequestAttributes.SCOPE_REQUEST);
+    return eventFields;
+  }
+
+  // 같은 버전이어도 manager 에게는 update-event 링크가 더 있으므로 응답 본문별로 ETag 를 구분한다.
+  private String eventETag(Event event, boolean managed) {
+    return "\"" + event.getId() + "." + event.getVersion() + (managed ? ".m" : "") + "\"";
+  }
+
+  // 목록은 본문을 만들지 않고 id 와 version 만으로 계산하는 weak ETag 를 쓴다.
+  private String listETag(List<Event> events, String paging, Account currentUser) {
+    StringBuilder builder = new StringBuilder(paging).append(currentUser != null ? ":u" : ":a");
+    events.forEach(e -> builder.append(',').append(e.getId()).append('.').append(e.getVersion()));
+    return "W/\"" + DigestUtils.md5DigestAsHex(builder.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+  }
+
+  // If-Match 는 id 와 version 만 비교한다. 같은 버전이면 .m(manager)이나 fields 해시가 붙은 ETag 도 받는다.
+  private boolean matches(String ifMatch, Event event) {
+    String version = "\"" + event.getId() + "." + event.getVersion();
+    return Arrays.stream(ifMatch.split(","))
+      .map(String::trim)
+      .anyMatch(tag -> tag.equals("*") || tag.equals(version + "\"") || tag.startsWith(version + "."));
+  }
+
 }
\ No newline at end of file
@@ -0,0 +1,87 @@
+package com.kbj.restapi.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Map;
+import java.util.function.Function;
+
+// (정렬 컬럼 값, id) 위치를 담는 불투명한 keyset 페이징 토큰.
+@Getter @AllArgsConstructor
+public class EventCursor {
+
+  private static final Map<String, Function<String, Comparable<?>>> SORTABLE = Map.of(
+    "id", Integer::valueOf,
+    "name", s -> s,
+    "beginEnrollmentDateTime", LocalDateTime::parse,
+    "closeEnrollmentDateTime", LocalDateTime::parse,
+    "beginEventDateTime", LocalDateTime::parse,
+    "endEventDateTime", LocalDateTime::parse,
+    "basePrice", Integer::valueOf,
+    "maxPrice", Integer::valueOf,
+    "limitOfEnrollment", Integer::valueOf
+  );
+
+  private final String property;
+  private final Sort.Direction direction;
+  private final Comparable<?> value;
+  private final Integer id;
+
+  public static boolean isSortable(String property) {
+    return SORTABLE.containsKey(property);
+  }
+
+  public static EventCursor first(Sort sort) {
+    Sort.Order order = sort.stream().findFirst().orElse(Sort.Order.asc("id"));
+    if (!isSortable(order.getProperty())) {
+      throw new IllegalArgumentException("Unsupported sort property: " + order.getProperty());
+    }
+    return new EventCursor(order.getProperty(), order.getDirection(), null, null);
+  }
+
+  public static EventCursor of(EventCursor cursor, Event event) {
+    return new EventCursor(cursor.property, cursor.direction, valueOf(event, cursor.property), event.getId());
+  }
+
+  public static EventCursor decode(String token) {
+    try {
+      String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      String[] parts = decoded.split("\\|", 4);
+      String property = parts[1];
+      if (!isSortable(property)) {
+        throw new IllegalArgumentException("Unsupported sort property: " + property);
+      }
+      return new EventCursor(property, Sort.Direction.fromString(parts[0]),
+        SORTABLE.get(property).apply(parts[3]), Integer.valueOf(parts[2]));
+    } catch (RuntimeException e) {
+      throw new IllegalArgumentException("Invalid cursor: " + token, e);
+    }
+  }
+
+  public boolean isFirst() {
+    return this.id == null;
+  }
+
+  public String encode() {
+    String raw = direction.name() + "|" + property + "|" + id + "|" + value;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static Comparable<?> valueOf(Event event, String property) {
+    switch (property) {
+      case "name": return event.getName();
+      case "beginEnrollmentDateTime": return event.getBeginEnrollmentDateTime();
+      case "closeEnrollmentDateTime": return event.getCloseEnrollmentDateTime();
+      case "beginEventDateTime": return event.getBeginEventDateTime();
+      case "endEventDateTime": return event.getEndEventDateTime();
+      case "basePrice": return event.getBasePrice();
+      case "maxPrice": return event.getMaxPrice();
+      case "limitOfEnrollment": return event.getLimitOfEnrollment();
+      default: return event.getId();
+    }
+  }
+}
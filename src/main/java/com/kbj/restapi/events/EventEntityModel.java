@@ -1,14 +1,14 @@
 package com.kbj.restapi.events;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-
+import com.kbj.restapi.common.LinkTemplates;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 
 public class EventEntityModel extends EntityModel<Event> {
 
   public EventEntityModel(Event event, Link... links) {
     super(event, links);
-    add(linkTo(EventController.class).slash(event.getId()).withSelfRel());
+    add(new Link(LinkTemplates.event(event.getId()), IanaLinkRelations.SELF));
   }
 }
\ No newline at end of file
@@ -0,0 +1,180 @@
+package com.kbj.restapi.events;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+// 엔티티나 페이지를 만들지 않고 forward-only 커서로 읽은 행을 바로 응답에 쓴다.
+// fetch size 만큼만 메모리에 올라오므로 테이블 크기와 상관없이 힙 사용량이 일정하다.
+@Component
+public class EventExporter {
+
+  private static final String SELECT = "select id, name, description, begin_enrollment_date_time,"
+    + " close_enrollment_date_time, begin_event_date_time, end_event_date_time, location, base_price,"
+    + " max_price, limit_of_enrollment, offline, free, event_status, manager_id from event";
+
+  private static final String[] CSV_HEADER = {"id", "name", "description", "beginEnrollmentDateTime",
+    "closeEnrollmentDateTime", "beginEventDateTime", "endEventDateTime", "location", "basePrice", "maxPrice",
+    "limitOfEnrollment", "offline", "free", "eventStatus", "managerId"};
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final ObjectMapper objectMapper;
+
+  public EventExporter(DataSource dataSource, PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                       @Value("${my-app.export.fetch-size:500}") int fetchSize) {
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    this.jdbcTemplate.setFetchSize(fetchSize);
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    // Postgres 는 autocommit 이 꺼진 트랜잭션 안에서만 fetch size 단위로 커서를 읽는다.
+    this.transactionTemplate.setReadOnly(true);
+    this.objectMapper = objectMapper;
+  }
+
+  public void exportNdjson(Filter filter, OutputStream out) throws IOException {
+    try (JsonGenerator gen = this.objectMapper.getFactory().createGenerator(out)) {
+      // 줄 사이에 Jackson 기본 구분자(공백)가 끼지 않도록 줄바꿈만 직접 쓴다.
+      gen.setRootValueSeparator(null);
+      query(filter, rs -> {
+        try {
+          gen.writeStartObject();
+          gen.writeNumberField("id", rs.getInt("id"));
+          gen.writeStringField("name", rs.getString("name"));
+          gen.writeStringField("description", rs.getString("description"));
+          gen.writeStringField("beginEnrollmentDateTime", format(rs.getTimestamp("begin_enrollment_date_time")));
+          gen.writeStringField("closeEnrollmentDateTime", format(rs.getTimestamp("close_enrollment_date_time")));
+          gen.writeStringField("beginEventDateTime", format(rs.getTimestamp("begin_event_date_time")));
+          gen.writeStringField("endEventDateTime", format(rs.getTimestamp("end_event_date_time")));
+          gen.writeStringField("location", rs.getString("location"));
+          gen.writeNumberField("basePrice", rs.getInt("base_price"));
+          gen.writeNumberField("maxPrice", rs.getInt("max_price"));
+          gen.writeNumberField("limitOfEnrollment", rs.getInt("limit_of_enrollment"));
+          gen.writeBooleanField("offline", rs.getBoolean("offline"));
+          gen.writeBooleanField("free", rs.getBoolean("free"));
+          gen.writeStringField("eventStatus", rs.getString("event_status"));
+          int managerId = rs.getInt("manager_id");
+          if (!rs.wasNull()) {
+            gen.writeObjectFieldStart("manager");
+            gen.writeNumberField("id", managerId);
+            gen.writeEndObject();
+          }
+          gen.writeEndObject();
+          gen.writeRaw('\n');
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+    }
+  }
+
+  public void exportCsv(Filter filter, OutputStream out) throws IOException {
+    Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    writeCsvRow(writer, CSV_HEADER);
+    query(filter, rs -> {
+      String managerId = rs.getString("manager_id");
+      try {
+        writeCsvRow(writer, new String[]{
+          rs.getString("id"),
+          rs.getString("name"),
+          rs.getString("description"),
+          format(rs.getTimestamp("begin_enrollment_date_time")),
+          format(rs.getTimestamp("close_enrollment_date_time")),
+          format(rs.getTimestamp("begin_event_date_time")),
+          format(rs.getTimestamp("end_event_date_time")),
+          rs.getString("location"),
+          rs.getString("base_price"),
+          rs.getString("max_price"),
+          rs.getString("limit_of_enrollment"),
+          String.valueOf(rs.getBoolean("offline")),
+          String.valueOf(rs.getBoolean("free")),
+          rs.getString("event_status"),
+          managerId
+        });
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+    writer.flush();
+  }
+
+  private void query(Filter filter, RowCallbackHandler handler) throws IOException {
+    StringBuilder sql = new StringBuilder(SELECT);
+    List<Object> args = new ArrayList<>();
+    List<String> conditions = new ArrayList<>();
+    if (filter.getEventStatus() != null) {
+      conditions.add("event_status = ?");
+      args.add(filter.getEventStatus().name());
+    }
+    if (filter.getFrom() != null) {
+      conditions.add("begin_event_date_time >= ?");
+      args.add(Timestamp.valueOf(filter.getFrom()));
+    }
+    if (filter.getTo() != null) {
+      conditions.add("begin_event_date_time < ?");
+      args.add(Timestamp.valueOf(filter.getTo()));
+    }
+    if (!conditions.isEmpty()) {
+      sql.append(" where ").append(String.join(" and ", conditions));
+    }
+    sql.append(" order by id");
+
+    try {
+      this.transactionTemplate.executeWithoutResult(status ->
+        this.jdbcTemplate.query(sql.toString(), handler, args.toArray()));
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  private static String format(Timestamp timestamp) {
+    return timestamp == null ? null : DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(timestamp.toLocalDateTime());
+  }
+
+  private static void writeCsvRow(Writer writer, String[] values) throws IOException {
+    for (int i = 0; i < values.length; i++) {
+      if (i > 0) {
+        writer.write(',');
+      }
+      String value = values[i];
+      if (value == null) {
+        continue;
+      }
+      if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+      } else {
+        writer.write(value);
+      }
+    }
+    writer.write("\r\n");
+  }
+
+  @Getter @AllArgsConstructor
+  public static class Filter {
+    private final EventStatus eventStatus;
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+  }
+}
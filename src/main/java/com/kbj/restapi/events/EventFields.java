@@ -0,0 +1,74 @@
+package com.kbj.restapi.events;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.TreeSet;
+
+// fields= 파라미터로 고른 Event 속성만 직렬화하는 sparse fieldset. _links 는 항상 포함된다.
+public class EventFields {
+
+  static final String FILTER_ID = "eventFields";
+  static final String ATTRIBUTE = EventFields.class.getName();
+
+  public static final EventFields ALL = new EventFields(null);
+
+  // 필터를 지정하지 않은 직렬화(전체 속성)에 쓰는 기본 provider.
+  public static final FilterProvider DEFAULT_FILTERS = new SimpleFilterProvider()
+    .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll());
+
+  private static final Set<String> PROPERTIES = Set.of(
+    "id", "name", "description", "beginEnrollmentDateTime", "closeEnrollmentDateTime", "beginEventDateTime",
+    "endEventDateTime", "location", "basePrice", "maxPrice", "limitOfEnrollment", "offline", "free",
+    "eventStatus", "manager");
+
+  private final Set<String> names;
+
+  private EventFields(Set<String> names) {
+    this.names = names;
+  }
+
+  public static EventFields parse(String fields) {
+    if (StringUtils.isEmpty(fields)) {
+      return ALL;
+    }
+    Set<String> names = new TreeSet<>();
+    for (String name : fields.split(",")) {
+      String trimmed = name.trim();
+      if (!PROPERTIES.contains(trimmed)) {
+        throw new IllegalArgumentException("Unknown field: " + trimmed);
+      }
+      names.add(trimmed);
+    }
+    return new EventFields(names);
+  }
+
+  public boolean isAll() {
+    return this.names == null;
+  }
+
+  public FilterProvider filters() {
+    return new SimpleFilterProvider()
+      .addFilter(FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept(this.names));
+  }
+
+  // 같은 이벤트라도 고른 속성에 따라 본문이 다르므로 ETag 에 속성 목록의 해시를 덧붙인다.
+  public String eTag(String eTag) {
+    if (isAll()) {
+      return eTag;
+    }
+    String hash = DigestUtils.md5DigestAsHex(String.join(",", this.names).getBytes(StandardCharsets.UTF_8));
+    return eTag.substring(0, eTag.length() - 1) + ".f" + hash.substring(0, 8) + "\"";
+  }
+
+  // ObjectMapper 에만 등록해서 Event 클래스와 다른 ObjectMapper 에는 영향을 주지 않는다.
+  @JsonFilter(FILTER_ID)
+  public interface Mixin {
+  }
+}
@@ -0,0 +1,40 @@
+package com.kbj.restapi.events;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+// EventController 가 요청 attribute 로 남긴 EventFields 를 Jackson 필터로 적용한다.
+// 컨버터를 고른 뒤에 감싸므로 HAL 컨버터가 그대로 쓰인다.
+@ControllerAdvice(assignableTypes = EventController.class)
+public class EventFieldsAdvice implements ResponseBodyAdvice<Object> {
+
+  @Override
+  public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+    return AbstractJackson2HttpMessageConverter.class.isAssignableFrom(converterType);
+  }
+
+  @Override
+  public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                ServerHttpRequest request, ServerHttpResponse response) {
+    if (body == null || !(request instanceof ServletServerHttpRequest)) {
+      return body;
+    }
+    Object fields = ((ServletServerHttpRequest) request).getServletRequest().getAttribute(EventFields.ATTRIBUTE);
+    if (!(fields instanceof EventFields) || ((EventFields) fields).isAll()) {
+      return body;
+    }
+    MappingJacksonValue value = body instanceof MappingJacksonValue
+      ? (MappingJacksonValue) body : new MappingJacksonValue(body);
+    value.setFilters(((EventFields) fields).filters());
+    return value;
+  }
+}
@@ -0,0 +1,143 @@
+package com.kbj.restapi.events;
+
+import com.kbj.restapi.common.SchedulerLease;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+// lease 를 가진 노드만 이벤트 상태를 날짜에 맞춰 옮긴다.
+// horizon 안에 전이 시각이 있는 이벤트만 인덱스로 읽어 시각 순서 큐에 두고, tick 마다 큐 앞에서 때가 된 것만 꺼내
+// from 상태별 UPDATE 한 번(batchSize 개씩)으로 옮긴다. 새로 생기거나 날짜가 바뀐 이벤트는 refresh 때 다시 읽는다.
+@Slf4j
+public class EventLifecycleScheduler {
+
+  private static final EventStatus[] SCHEDULED = {
+    EventStatus.PUBLISHED, EventStatus.BEGAN_ENROLLMENT, EventStatus.CLOSED_ENROLLMENT
+  };
+
+  private final EventRepository eventRepository;
+  private final EventService eventService;
+  private final SchedulerLease lease;
+  private final Clock clock;
+  private final Duration horizon;
+  private final Duration refreshInterval;
+  private final int loadSize;
+  private final int batchSize;
+  private final Map<EventStatus, Counter> transitions = new EnumMap<>(EventStatus.class);
+  private final PriorityQueue<EventTransition> queue =
+    new PriorityQueue<>(Comparator.comparing(EventTransition::getDueAt));
+  // 이 시각까지의 전이는 모두 큐에 있다.
+  private LocalDateTime loadedUntil;
+  private LocalDateTime nextRefresh;
+
+  public EventLifecycleScheduler(EventRepository eventRepository, EventService eventService, SchedulerLease lease,
+                                 Clock clock, Duration horizon, Duration refreshInterval, int loadSize, int batchSize,
+                                 MeterRegistry meterRegistry) {
+    this.eventRepository = eventRepository;
+    this.eventService = eventService;
+    this.lease = lease;
+    this.clock = clock;
+    this.horizon = horizon;
+    this.refreshInterval = refreshInterval;
+    this.loadSize = loadSize;
+    this.batchSize = batchSize;
+    for (EventStatus status : SCHEDULED) {
+      EventStatus to = EventTransition.next(status);
+      this.transitions.put(status, Counter.builder("event.lifecycle.transitions")
+        .tag("to", to.name())
+        .register(meterRegistry));
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${my-app.lifecycle.tick-interval-millis:1000}")
+  public synchronized void tick() {
+    if (!this.lease.acquire()) {
+      // 다시 lease 를 얻으면 그 사이 다른 노드가 옮긴 상태를 반영하도록 처음부터 읽는다.
+      this.queue.clear();
+      this.nextRefresh = null;
+      return;
+    }
+
+    LocalDateTime now = LocalDateTime.now(this.clock);
+    if (this.nextRefresh == null || !now.isBefore(this.nextRefresh)) {
+      refresh(now);
+    }
+    applyDue(now);
+  }
+
+  public synchronized int getQueued() {
+    return this.queue.size();
+  }
+
+  private void refresh(LocalDateTime now) {
+    LocalDateTime until = now.plus(this.horizon);
+    List<EventTransition> loaded = new ArrayList<>();
+    LocalDateTime complete = until;
+    for (EventStatus status : SCHEDULED) {
+      List<EventTransition> due = this.eventRepository.findTransitionsDueBefore(status, until, this.loadSize);
+      loaded.addAll(due);
+      // loadSize 만큼 읽었으면 마지막 시각 뒤에 더 있을 수 있으므로 그 시각까지만 다 읽은 것으로 본다.
+      if (due.size() == this.loadSize) {
+        LocalDateTime last = due.get(due.size() - 1).getDueAt();
+        complete = last.isBefore(complete) ? last : complete;
+      }
+    }
+
+    this.queue.clear();
+    this.queue.addAll(loaded);
+    this.loadedUntil = complete;
+    LocalDateTime refreshAt = now.plus(this.refreshInterval);
+    this.nextRefresh = complete.isBefore(refreshAt) ? complete : refreshAt;
+  }
+
+  private void applyDue(LocalDateTime now) {
+    while (!this.queue.isEmpty() && !this.queue.peek().getDueAt().isAfter(now)) {
+      Map<EventStatus, List<EventTransition>> due = new EnumMap<>(EventStatus.class);
+      while (!this.queue.isEmpty() && !this.queue.peek().getDueAt().isAfter(now)) {
+        EventTransition transition = this.queue.poll();
+        due.computeIfAbsent(transition.getFrom(), status -> new ArrayList<>()).add(transition);
+      }
+
+      for (Map.Entry<EventStatus, List<EventTransition>> entry : due.entrySet()) {
+        List<EventTransition> transitions = entry.getValue();
+        for (int from = 0; from < transitions.size(); from += this.batchSize) {
+          if (!this.lease.isHeld()) {
+            this.nextRefresh = null;
+            return;
+          }
+          List<EventTransition> batch = transitions.subList(from, Math.min(from + this.batchSize, transitions.size()));
+          apply(entry.getKey(), batch, now);
+        }
+      }
+    }
+  }
+
+  private void apply(EventStatus from, List<EventTransition> batch, LocalDateTime now) {
+    List<Integer> ids = new ArrayList<>(batch.size());
+    batch.forEach(transition -> ids.add(transition.getEventId()));
+    int updated = this.eventService.applyTransition(from, ids, now);
+    if (updated > 0) {
+      this.transitions.get(from).increment(updated);
+      log.info("Moved {} events from {} to {}", updated, from, EventTransition.next(from));
+    }
+
+    // 이미 다른 노드가 옮겼거나 상태가 바뀐 이벤트도 UPDATE 조건에서 걸러지므로 다음 전이를 그대로 이어 둔다.
+    for (EventTransition transition : batch) {
+      EventTransition following = transition.following();
+      if (following != null && !following.getDueAt().isAfter(this.loadedUntil)) {
+        this.queue.add(following);
+      }
+    }
+  }
+}
@@ -0,0 +1,27 @@
+package com.kbj.restapi.events;
+
+import org.mapstruct.Builder;
+import org.mapstruct.InheritConfiguration;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.ReportingPolicy;
+
+// 컴파일 시점에 생성되는 EventDto -> Event 매핑. 요청마다 리플렉션으로 타입 맵을 찾는 ModelMapper 를 대신한다.
+// 새 필드가 생기면 매핑 여부를 정하도록 매핑되지 않은 필드는 컴파일 에러로 처리한다.
+@Mapper(componentModel = "spring", builder = @Builder(disableBuilder = true),
+  unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface EventMapper {
+
+  @Mapping(target = "id", ignore = true)
+  @Mapping(target = "offline", ignore = true)
+  @Mapping(target = "free", ignore = true)
+  @Mapping(target = "eventStatus", ignore = true)
+  @Mapping(target = "manager", ignore = true)
+  @Mapping(target = "version", ignore = true)
+  Event toEvent(EventDto eventDto);
+
+  @InheritConfiguration
+  void update(EventDto eventDto, @MappingTarget Event event);
+
+}
@@ -0,0 +1,26 @@
+package com.kbj.restapi.events;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface EventRepositoryCustom {
+
+  // count 쿼리 없이 cursor 위치 다음(backward 이면 이전)의 이벤트 중 spec 에 맞는 것을 limit 개까지 조회한다.
+  List<Event> findAllByCursor(EventCursor cursor, Specification<Event> spec, boolean backward, int limit);
+
+  // status 인 이벤트 중 다음 전이 시각이 until 이전인 것을 시각 순서로 limit 개까지 조회한다. (eventStatus, 날짜) 인덱스를 탄다.
+  List<EventTransition> findTransitionsDueBefore(EventStatus status, LocalDateTime until, int limit);
+
+  // 아직 from 상태이고 전이 시각이 now 이전인 이벤트만 다음 상태로 바꾸고, ETag 와 낙관적 잠금이 알 수 있도록 version 을 올린다.
+  int applyTransition(EventStatus from, List<Integer> ids, LocalDateTime now);
+
+  // 2차 캐시를 거치지 않고 DB 에서 읽어, 이 노드의 캐시도 읽은 값으로 바꾼다.
+  Optional<Event> findFreshById(Integer id);
+
+  // 한 트랜잭션에서 JDBC batch 크기 단위로 flush/clear 하며 저장한다.
+  List<Event> insertAll(List<Event> events);
+
+}
@@ -0,0 +1,121 @@
+package com.kbj.restapi.events;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.CacheRetrieveMode;
+import javax.persistence.CacheStoreMode;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public class EventRepositoryCustomImpl implements EventRepositoryCustom {
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+  private int batchSize;
+
+  @Override
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  public List<Event> findAllByCursor(EventCursor cursor, Specification<Event> spec, boolean backward, int limit) {
+    CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+    CriteriaQuery<Event> query = cb.createQuery(Event.class);
+    Root<Event> root = query.from(Event.class);
+    Path<Comparable> key = root.get(cursor.getProperty());
+    Path<Integer> id = root.get("id");
+    boolean ascending = cursor.getDirection().isAscending() != backward;
+    boolean keyedById = "id".equals(cursor.getProperty());
+
+    List<Predicate> predicates = new ArrayList<>();
+    Predicate filter = spec == null ? null : spec.toPredicate(root, query, cb);
+    if (filter != null) {
+      predicates.add(filter);
+    }
+    if (!cursor.isFirst()) {
+      Comparable value = cursor.getValue();
+      Predicate afterId = ascending ? cb.greaterThan(id, cursor.getId()) : cb.lessThan(id, cursor.getId());
+      if (keyedById) {
+        predicates.add(afterId);
+      } else {
+        Predicate afterKey = ascending ? cb.greaterThan(key, value) : cb.lessThan(key, value);
+        predicates.add(cb.or(afterKey, cb.and(cb.equal(key, value), afterId)));
+      }
+    }
+    query.where(predicates.toArray(new Predicate[0]));
+
+    List<javax.persistence.criteria.Order> orders = new ArrayList<>();
+    if (!keyedById) {
+      orders.add(ascending ? cb.asc(key) : cb.desc(key));
+    }
+    orders.add(ascending ? cb.asc(id) : cb.desc(id));
+    query.orderBy(orders);
+
+    List<Event> events = new ArrayList<>(this.entityManager.createQuery(query)
+      .setMaxResults(limit)
+      .getResultList());
+    if (backward) {
+      Collections.reverse(events);
+    }
+    return events;
+  }
+
+  @Override
+  public List<EventTransition> findTransitionsDueBefore(EventStatus status, LocalDateTime until, int limit) {
+    String due = "e." + EventTransition.dueProperty(status);
+    return this.entityManager.createQuery("select new com.kbj.restapi.events.EventTransition("
+      + "e.id, e.eventStatus, e.beginEnrollmentDateTime, e.closeEnrollmentDateTime, e.beginEventDateTime) "
+      + "from Event e where e.eventStatus = :status and " + due + " <= :until order by " + due, EventTransition.class)
+      .setParameter("status", status)
+      .setParameter("until", until)
+      .setMaxResults(limit)
+      .getResultList();
+  }
+
+  // bulk update 는 이 노드의 Event 2차 캐시를 Hibernate 가 비운다.
+  // 다른 노드(2차 캐시, 검색 색인, SSE)는 EventService 가 남기는 event_change 피드로 바뀐 상태를 받는다.
+  @Override
+  @Transactional
+  public int applyTransition(EventStatus from, List<Integer> ids, LocalDateTime now) {
+    return this.entityManager.createQuery("update Event e set e.eventStatus = :to, e.version = e.version + 1 "
+      + "where e.id in :ids and e.eventStatus = :from and e." + EventTransition.dueProperty(from) + " <= :now")
+      .setParameter("to", EventTransition.next(from))
+      .setParameter("ids", ids)
+      .setParameter("from", from)
+      .setParameter("now", now)
+      .executeUpdate();
+  }
+
+  @Override
+  public Optional<Event> findFreshById(Integer id) {
+    return Optional.ofNullable(this.entityManager.find(Event.class, id, Map.of(
+      "javax.persistence.cache.retrieveMode", CacheRetrieveMode.BYPASS,
+      "javax.persistence.cache.storeMode", CacheStoreMode.REFRESH)));
+  }
+
+  @Override
+  @Transactional
+  public List<Event> insertAll(List<Event> events) {
+    for (int i = 0; i < events.size(); i++) {
+      this.entityManager.persist(events.get(i));
+      if ((i + 1) % this.batchSize == 0) {
+        // 영속성 컨텍스트가 커지면 flush 마다 dirty checking 비용이 늘어나므로 batch 단위로 비운다.
+        this.entityManager.flush();
+        this.entityManager.clear();
+      }
+    }
+    return events;
+  }
+}
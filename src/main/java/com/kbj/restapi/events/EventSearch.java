@@ -0,0 +1,60 @@
+package com.kbj.restapi.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+import static com.kbj.restapi.events.EventSpecifications.*;
+
+// GET /api/events 의 필터 파라미터. 값이 있는 조건만 and 로 묶는다.
+// 날짜 범위는 from 이상 to 미만, 가격 범위는 basePrice 가 minBasePrice 이상 maxBasePrice 이하.
+// maxPrice 는 Event 의 다른 속성이므로 파라미터 이름에 basePrice 를 그대로 쓴다.
+@Data @Builder @NoArgsConstructor @AllArgsConstructor
+public class EventSearch {
+
+  private EventStatus eventStatus;
+  private Boolean free;
+  private Boolean offline;
+  private Integer manager;
+  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+  private LocalDateTime beginEventFrom;
+  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+  private LocalDateTime beginEventTo;
+  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+  private LocalDateTime beginEnrollmentFrom;
+  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+  private LocalDateTime beginEnrollmentTo;
+  private Integer minBasePrice;
+  private Integer maxBasePrice;
+
+  public Specification<Event> toSpecification() {
+    Specification<Event> spec = Specification.where(null);
+    if (this.eventStatus != null) {
+      spec = spec.and(hasStatus(this.eventStatus));
+    }
+    if (this.free != null) {
+      spec = spec.and(isFree(this.free));
+    }
+    if (this.offline != null) {
+      spec = spec.and(isOffline(this.offline));
+    }
+    if (this.manager != null) {
+      spec = spec.and(managedBy(this.manager));
+    }
+    if (this.beginEventFrom != null || this.beginEventTo != null) {
+      spec = spec.and(beginEventBetween(this.beginEventFrom, this.beginEventTo));
+    }
+    if (this.beginEnrollmentFrom != null || this.beginEnrollmentTo != null) {
+      spec = spec.and(beginEnrollmentBetween(this.beginEnrollmentFrom, this.beginEnrollmentTo));
+    }
+    if (this.minBasePrice != null || this.maxBasePrice != null) {
+      spec = spec.and(basePriceBetween(this.minBasePrice, this.maxBasePrice));
+    }
+    return spec;
+  }
+}
@@ -0,0 +1,74 @@
+package com.kbj.restapi.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// 이벤트를 바꾸는 작업은 모두 여기를 거쳐 같은 트랜잭션에서 EventChange 를 남긴다.
+@Service @AllArgsConstructor
+@Transactional
+public class EventService {
+
+  private final EventRepository eventRepository;
+  private final EventChangeRepository eventChangeRepository;
+  private final ObjectMapper objectMapper;
+  private final Clock clock;
+
+  public Event create(Event event) {
+    Event newEvent = this.eventRepository.saveAndFlush(event);
+    record(newEvent, EventChangeType.CREATED);
+    return newEvent;
+  }
+
+  public List<Event> createAll(List<Event> events) {
+    List<Event> newEvents = this.eventRepository.insertAll(events);
+    List<EventChange> changes = new ArrayList<>(newEvents.size());
+    newEvents.forEach(event -> changes.add(change(event, EventChangeType.CREATED)));
+    this.eventChangeRepository.saveAll(changes);
+    return newEvents;
+  }
+
+  // 변경된 version 을 기록하도록 flush 한 뒤 남긴다. 그 사이 다른 요청이 바꿨으면 여기서 낙관적 잠금 예외가 난다.
+  public Event update(Event event) {
+    Event savedEvent = this.eventRepository.saveAndFlush(event);
+    record(savedEvent, EventChangeType.UPDATED);
+    return savedEvent;
+  }
+
+  public int applyTransition(EventStatus from, List<Integer> ids, LocalDateTime now) {
+    int updated = this.eventRepository.applyTransition(from, ids, now);
+    if (updated > 0) {
+      EventStatus to = EventTransition.next(from);
+      this.eventRepository.findAllById(ids).stream()
+        .filter(event -> event.getEventStatus() == to)
+        .forEach(event -> record(event, EventChangeType.UPDATED));
+    }
+    return updated;
+  }
+
+  private void record(Event event, EventChangeType type) {
+    this.eventChangeRepository.save(change(event, type));
+  }
+
+  private EventChange change(Event event, EventChangeType type) {
+    try {
+      return EventChange.builder()
+        .eventId(event.getId())
+        .managerId(event.getManager() == null ? null : event.getManager().getId())
+        .type(type)
+        .eventVersion(event.getVersion())
+        .payload(this.objectMapper.writeValueAsString(event))
+        .changedAt(LocalDateTime.now(this.clock))
+        .build();
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Failed to serialize event " + event.getId(), e);
+    }
+  }
+}
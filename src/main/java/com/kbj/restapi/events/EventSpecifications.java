@@ -0,0 +1,66 @@
+package com.kbj.restapi.events;
+
+import com.kbj.restapi.accounts.Account_;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+// 이벤트 목록 필터 조건. Event_ 메타모델을 사용하므로 필드 이름이 바뀌면 컴파일 에러가 난다.
+// 각 조건은 Event 의 @Table 인덱스 중 하나를 탈 수 있는 컬럼에만 건다.
+public final class EventSpecifications {
+
+  private EventSpecifications() {
+  }
+
+  public static Specification<Event> hasStatus(EventStatus eventStatus) {
+    return (root, query, cb) -> cb.equal(root.get(Event_.eventStatus), eventStatus);
+  }
+
+  public static Specification<Event> isFree(boolean free) {
+    return (root, query, cb) -> cb.equal(root.get(Event_.free), free);
+  }
+
+  public static Specification<Event> isOffline(boolean offline) {
+    return (root, query, cb) -> cb.equal(root.get(Event_.offline), offline);
+  }
+
+  public static Specification<Event> managedBy(Integer managerId) {
+    // manager 를 join 하지 않고 event.manager_id 로만 비교한다.
+    return (root, query, cb) -> cb.equal(root.get(Event_.manager).get(Account_.id), managerId);
+  }
+
+  public static Specification<Event> beginEventBetween(LocalDateTime from, LocalDateTime to) {
+    return (root, query, cb) -> {
+      if (from != null && to != null) {
+        return cb.and(cb.greaterThanOrEqualTo(root.get(Event_.beginEventDateTime), from),
+          cb.lessThan(root.get(Event_.beginEventDateTime), to));
+      }
+      return from != null
+        ? cb.greaterThanOrEqualTo(root.get(Event_.beginEventDateTime), from)
+        : cb.lessThan(root.get(Event_.beginEventDateTime), to);
+    };
+  }
+
+  public static Specification<Event> beginEnrollmentBetween(LocalDateTime from, LocalDateTime to) {
+    return (root, query, cb) -> {
+      if (from != null && to != null) {
+        return cb.and(cb.greaterThanOrEqualTo(root.get(Event_.beginEnrollmentDateTime), from),
+          cb.lessThan(root.get(Event_.beginEnrollmentDateTime), to));
+      }
+      return from != null
+        ? cb.greaterThanOrEqualTo(root.get(Event_.beginEnrollmentDateTime), from)
+        : cb.lessThan(root.get(Event_.beginEnrollmentDateTime), to);
+    };
+  }
+
+  public static Specification<Event> basePriceBetween(Integer min, Integer max) {
+    return (root, query, cb) -> {
+      if (min != null && max != null) {
+        return cb.between(root.get(Event_.basePrice), min, max);
+      }
+      return min != null
+        ? cb.greaterThanOrEqualTo(root.get(Event_.basePrice), min)
+        : cb.lessThanOrEqualTo(root.get(Event_.basePrice), max);
+    };
+  }
+}
@@ -2,6 +2,6 @@ package com.kbj.restapi.events;
 
 public enum EventStatus {
 
-  DRAFT, PUBLISHED, BEGAN_ENROLLMENT;
+  DRAFT, PUBLISHED, BEGAN_ENROLLMENT, CLOSED_ENROLLMENT, STARTED;
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,40 @@
+package com.kbj.restapi.events;
+
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+
+// 이벤트가 생성/수정되면 SSE 로 알려준다. id(여러 개 가능)와 manager 로 받을 이벤트를 고른다.
+// 응답은 EventStreamHub 가 servlet async 로 직접 쓰므로 핸들러는 void 이다.
+@Controller @AllArgsConstructor
+@RequestMapping(value = "/api/events/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+public class EventStreamController {
+
+  private final EventStreamHub eventStreamHub;
+
+  @GetMapping
+  public void streamEvents(@RequestParam(required = false) List<Integer> id,
+                           @RequestParam(required = false) Integer manager,
+                           HttpServletRequest request, HttpServletResponse response) throws IOException {
+    // ETag, X-Query-Count 필터가 본문을 모아 두지 않고 바로 내보내도록 한다.
+    ShallowEtagHeaderFilter.disableContentCaching(request);
+    response.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+    response.setCharacterEncoding("UTF-8");
+    // nginx 가 응답을 모아서 보내지 않도록 한다.
+    response.setHeader("X-Accel-Buffering", "no");
+    if (!this.eventStreamHub.subscribe(request, response, id, manager)) {
+      response.reset();
+      response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+    }
+  }
+}
@@ -0,0 +1,329 @@
+package com.kbj.restapi.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 이벤트 변경 피드를 노드마다 따라 읽어서 SSE 구독자에게 나눠 준다.
+// 변경 하나는 SSE 프레임 byte[] 로 한 번만 만들고, 구독자마다 최대 bufferSize 개를 이벤트 id 별로 쌓는다.
+// 같은 이벤트가 다시 바뀌면 쌓인 프레임을 최신 것으로 바꾸고(coalesce), 그래도 넘치는 느린 구독자는 연결을 끊는다.
+// 연결은 servlet async 요청이고 non-blocking write(WriteListener)로 보내므로, 받지 않는 클라이언트가 있어도 스레드가 묶이지 않는다.
+// 소켓이 writeTimeout 넘게 쓸 수 없는 상태로 남은 구독자는 heartbeat 때 끊는다.
+@Slf4j
+public class EventStreamHub {
+
+  private static final Object HEARTBEAT_KEY = new Object();
+  private static final Frame HEARTBEAT = new Frame(HEARTBEAT_KEY, ":\n\n");
+
+  private final EventChangeRepository eventChangeRepository;
+  private final Clock clock;
+  private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+  private final long timeoutMillis;
+  private final long writeTimeoutMillis;
+  private final int bufferSize;
+  private final int maxSubscribers;
+  private final int pollSize;
+  private final Counter coalesced;
+  private final Counter dropped;
+  private final Counter stalled;
+  // 여기까지의 변경은 구독자에게 넘겼다. 처음 poll 때 정한다.
+  private long lastSequence = -1;
+
+  public EventStreamHub(EventChangeRepository eventChangeRepository, Clock clock, long timeoutMillis,
+                        long writeTimeoutMillis, int bufferSize, int maxSubscribers, int pollSize,
+                        MeterRegistry meterRegistry) {
+    this.eventChangeRepository = eventChangeRepository;
+    this.clock = clock;
+    this.timeoutMillis = timeoutMillis;
+    this.writeTimeoutMillis = writeTimeoutMillis;
+    this.bufferSize = bufferSize;
+    this.maxSubscribers = maxSubscribers;
+    this.pollSize = pollSize;
+    Gauge.builder("event.stream.subscribers", this.subscribers, Set::size).register(meterRegistry);
+    this.coalesced = Counter.builder("event.stream.backpressure").tag("action", "coalesced").register(meterRegistry);
+    this.dropped = Counter.builder("event.stream.backpressure").tag("action", "dropped").register(meterRegistry);
+    this.stalled = Counter.builder("event.stream.backpressure").tag("action", "stalled").register(meterRegistry);
+  }
+
+  // 요청을 async 로 바꾸고 구독자로 등록한다. 구독자가 maxSubscribers 만큼 있으면 false.
+  public boolean subscribe(HttpServletRequest request, HttpServletResponse response, Collection<Integer> ids,
+                           Integer managerId) throws IOException {
+    if (this.subscribers.size() >= this.maxSubscribers) {
+      return false;
+    }
+    AsyncContext asyncContext = request.startAsync(request, response);
+    asyncContext.setTimeout(this.timeoutMillis);
+    Subscriber subscriber = new Subscriber(asyncContext.getResponse().getOutputStream(), this.clock,
+      () -> complete(asyncContext), ids == null || ids.isEmpty() ? null : Set.copyOf(ids), managerId);
+    asyncContext.addListener(new AsyncListener() {
+      @Override
+      public void onComplete(AsyncEvent event) {
+        remove(subscriber);
+      }
+
+      @Override
+      public void onTimeout(AsyncEvent event) {
+        close(subscriber);
+      }
+
+      @Override
+      public void onError(AsyncEvent event) {
+        remove(subscriber);
+      }
+
+      @Override
+      public void onStartAsync(AsyncEvent event) {
+      }
+    });
+    // 첫 변경을 기다리지 않고 응답 헤더를 바로 보내도록 주석 한 줄을 먼저 쓴다.
+    // 처음 쓰기는 WriteListener 를 등록하면 컨테이너가 onWritePossible 로 시작하고, 그 전에는 isReady 를 부를 수 없다.
+    subscriber.offer(HEARTBEAT, this.bufferSize);
+    asyncContext.getResponse().getOutputStream().setWriteListener(subscriber);
+    register(subscriber);
+    return true;
+  }
+
+  public int getSubscribers() {
+    return this.subscribers.size();
+  }
+
+  // 구독자가 없으면 행을 읽지 않고 마지막 sequence 만 옮긴다.
+  @Scheduled(fixedDelayString = "${my-app.stream.poll-interval-millis:500}")
+  public synchronized void poll() {
+    if (this.lastSequence < 0 || this.subscribers.isEmpty()) {
+      this.lastSequence = this.eventChangeRepository.findMaxSequence();
+      return;
+    }
+
+    List<EventChange> changes;
+    do {
+      changes = this.eventChangeRepository.findBySequenceGreaterThanOrderBySequence(this.lastSequence,
+        PageRequest.of(0, this.pollSize));
+      for (EventChange change : changes) {
+        broadcast(change);
+        this.lastSequence = change.getSequence();
+      }
+    } while (changes.size() == this.pollSize);
+  }
+
+  // 프록시가 유휴 연결을 끊지 않도록 주석 한 줄을 보내고, 소켓에 오래 쓰지 못한 구독자를 정리한다.
+  @Scheduled(fixedRateString = "${my-app.stream.heartbeat-interval-millis:15000}")
+  public void heartbeat() {
+    long now = this.clock.millis();
+    for (Subscriber subscriber : this.subscribers) {
+      if (subscriber.isStalled(now, this.writeTimeoutMillis)) {
+        this.stalled.increment();
+        close(subscriber);
+      } else {
+        offer(subscriber, HEARTBEAT);
+      }
+    }
+  }
+
+  public void close() {
+    this.subscribers.forEach(this::close);
+  }
+
+  void register(Subscriber subscriber) {
+    this.subscribers.add(subscriber);
+  }
+
+  void broadcast(EventChange change) {
+    Frame frame = null;
+    for (Subscriber subscriber : this.subscribers) {
+      if (subscriber.matches(change)) {
+        if (frame == null) {
+          frame = Frame.of(change);
+        }
+        offer(subscriber, frame);
+      }
+    }
+  }
+
+  private void offer(Subscriber subscriber, Frame frame) {
+    switch (subscriber.offer(frame, this.bufferSize)) {
+      case QUEUED:
+        subscriber.write();
+        break;
+      case COALESCED:
+        this.coalesced.increment();
+        break;
+      case OVERFLOW:
+        this.dropped.increment();
+        close(subscriber);
+        break;
+      default:
+        break;
+    }
+  }
+
+  private void close(Subscriber subscriber) {
+    remove(subscriber);
+    subscriber.close();
+  }
+
+  private void remove(Subscriber subscriber) {
+    if (this.subscribers.remove(subscriber)) {
+      subscriber.discard();
+    }
+  }
+
+  private static void complete(AsyncContext asyncContext) {
+    try {
+      asyncContext.complete();
+    } catch (IllegalStateException e) {
+      // 이미 끝난 요청이다.
+    }
+  }
+
+  enum Offer {QUEUED, COALESCED, OVERFLOW, CLOSED}
+
+  // 쓸 수 있을 때(isReady)만 쓰므로 write 는 막히지 않는다. 못 쓴 프레임은 pending 에 남았다가 onWritePossible 에서 보낸다.
+  static class Subscriber implements WriteListener {
+
+    private final ServletOutputStream out;
+    private final Clock clock;
+    private final Runnable complete;
+    private final Set<Integer> ids;
+    private final Integer managerId;
+    private final Map<Object, Frame> pending = new LinkedHashMap<>();
+    private boolean unflushed;
+    // 소켓이 쓸 수 없는 상태가 된 시각. 쓸 수 있으면 0.
+    private long blockedSince;
+    private boolean closed;
+
+    Subscriber(ServletOutputStream out, Clock clock, Runnable complete, Set<Integer> ids, Integer managerId) {
+      this.out = out;
+      this.clock = clock;
+      this.complete = complete;
+      this.ids = ids;
+      this.managerId = managerId;
+    }
+
+    boolean matches(EventChange change) {
+      return (this.ids == null || this.ids.contains(change.getEventId()))
+        && (this.managerId == null || this.managerId.equals(change.getManagerId()));
+    }
+
+    synchronized Offer offer(Frame frame, int bufferSize) {
+      if (this.closed) {
+        return Offer.CLOSED;
+      }
+      if (this.pending.remove(frame.key) != null) {
+        this.pending.put(frame.key, frame);
+        return Offer.COALESCED;
+      }
+      if (this.pending.size() >= bufferSize) {
+        this.closed = true;
+        this.pending.clear();
+        return Offer.OVERFLOW;
+      }
+      this.pending.put(frame.key, frame);
+      return Offer.QUEUED;
+    }
+
+    @Override
+    public void onWritePossible() {
+      write();
+    }
+
+    @Override
+    public void onError(Throwable t) {
+      log.debug("Closing event stream subscriber: {}", t.getMessage());
+      close();
+    }
+
+    // 쌓인 프레임을 소켓이 받는 만큼 쓰고 flush 한다.
+    synchronized void write() {
+      if (this.closed) {
+        return;
+      }
+      try {
+        while (this.out.isReady()) {
+          Iterator<Frame> frames = this.pending.values().iterator();
+          if (frames.hasNext()) {
+            Frame frame = frames.next();
+            frames.remove();
+            this.out.write(frame.bytes);
+            this.unflushed = true;
+          } else if (this.unflushed) {
+            this.unflushed = false;
+            this.out.flush();
+          } else {
+            this.blockedSince = 0;
+            return;
+          }
+        }
+        if (this.blockedSince == 0) {
+          this.blockedSince = this.clock.millis();
+        }
+      } catch (IOException | IllegalStateException e) {
+        log.debug("Closing event stream subscriber: {}", e.getMessage());
+        this.closed = true;
+        this.pending.clear();
+        this.complete.run();
+      }
+    }
+
+    synchronized boolean isStalled(long now, long writeTimeoutMillis) {
+      return this.blockedSince != 0 && now - this.blockedSince > writeTimeoutMillis;
+    }
+
+    void close() {
+      discard();
+      this.complete.run();
+    }
+
+    synchronized void discard() {
+      this.closed = true;
+      this.pending.clear();
+    }
+  }
+
+  // 변경 하나의 SSE 프레임. 모든 구독자에게 같은 byte[] 를 쓴다.
+  static class Frame {
+
+    private final Object key;
+    private final byte[] bytes;
+
+    private Frame(Object key, String text) {
+      this.key = key;
+      this.bytes = text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    static Frame of(EventChange change) {
+      StringBuilder text = new StringBuilder()
+        .append("id:").append(change.getSequence()).append('\n')
+        .append("event:").append(change.getType()).append('\n');
+      for (String line : change.getPayload().split("\n")) {
+        text.append("data:").append(line).append('\n');
+      }
+      return new Frame(change.getEventId(), text.append('\n').toString());
+    }
+
+    String text() {
+      return new String(this.bytes, StandardCharsets.UTF_8);
+    }
+  }
+}
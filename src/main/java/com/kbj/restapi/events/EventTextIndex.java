@@ -0,0 +1,272 @@
+package com.kbj.restapi.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+// name, description, location 에 대한 노드 로컬 역색인.
+// term 은 정렬된 map 에 두어 접두어 검색을 범위 조회로 처리하고, 점수는 필드 가중치 x tf x idf 의 합이다.
+// 시작 시 전체를 새 색인에 만들어 한 번에 바꾸고, 이후에는 이 노드의 저장과 다른 노드의 변경(event_change 피드)을
+// 이벤트 단위로 다시 색인한다. 같은 이벤트가 여러 경로로 들어와도 version 이 낮은 내용으로 되돌리지 않는다.
+@Slf4j
+@Component
+public class EventTextIndex {
+
+  private static final Pattern SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+  private static final float NAME_WEIGHT = 3.0f;
+  private static final float LOCATION_WEIGHT = 2.0f;
+  private static final float DESCRIPTION_WEIGHT = 1.0f;
+  // 접두어로만 일치한 term 은 완전히 일치한 term 보다 낮게 평가한다.
+  private static final float PREFIX_PENALTY = 0.5f;
+  private static final int REBUILD_CHUNK_SIZE = 1000;
+  private static final int POLL_SIZE = 500;
+
+  private final EventRepository eventRepository;
+  private final EventChangeRepository eventChangeRepository;
+  private final ObjectMapper objectMapper;
+  private volatile Segment current = new Segment();
+  // rebuild 중에는 색인 요청을 새 색인에도 적용해서 바꾼 뒤에 잃어버리지 않게 한다.
+  private Segment building;
+  // 여기까지의 피드는 색인에 반영했다. 처음 rebuild 때 정한다.
+  private volatile long lastSequence = -1;
+
+  public EventTextIndex(EventRepository eventRepository, EventChangeRepository eventChangeRepository,
+                        ObjectMapper objectMapper) {
+    this.eventRepository = eventRepository;
+    this.eventChangeRepository = eventChangeRepository;
+    this.objectMapper = objectMapper;
+  }
+
+  // 읽기 전의 피드 위치를 기억해 두고, 읽는 동안 바뀐 이벤트는 그 위치부터 poll 이 다시 색인한다.
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    long started = System.currentTimeMillis();
+    long sequence = this.eventChangeRepository.findMaxSequence();
+    Segment segment = new Segment();
+    synchronized (this) {
+      this.building = segment;
+    }
+    try {
+      EventCursor cursor = EventCursor.first(Sort.by("id"));
+      List<Event> events;
+      do {
+        events = this.eventRepository.findAllByCursor(cursor, null, false, REBUILD_CHUNK_SIZE);
+        synchronized (this) {
+          events.forEach(segment::index);
+        }
+        if (!events.isEmpty()) {
+          cursor = EventCursor.of(cursor, events.get(events.size() - 1));
+        }
+      } while (events.size() == REBUILD_CHUNK_SIZE);
+      synchronized (this) {
+        this.current = segment;
+      }
+    } finally {
+      synchronized (this) {
+        this.building = null;
+      }
+    }
+    this.lastSequence = sequence;
+    log.info("Indexed {} events in {} ms", segment.size(), System.currentTimeMillis() - started);
+  }
+
+  // 다른 노드에서 만들거나 바꾼 이벤트를 피드에서 읽어 색인한다.
+  @Scheduled(fixedDelayString = "${my-app.search.poll-interval-millis:1000}")
+  public void poll() {
+    if (this.lastSequence < 0) {
+      return;
+    }
+    List<EventChange> changes;
+    do {
+      changes = this.eventChangeRepository.findBySequenceGreaterThanOrderBySequence(this.lastSequence,
+        PageRequest.of(0, POLL_SIZE));
+      for (EventChange change : changes) {
+        index(change);
+        this.lastSequence = change.getSequence();
+      }
+    } while (changes.size() == POLL_SIZE);
+  }
+
+  public void index(Event event) {
+    index(event.getId(), event.getVersion(), event.getName(), event.getLocation(), event.getDescription());
+  }
+
+  void index(EventChange change) {
+    try {
+      JsonNode event = this.objectMapper.readTree(change.getPayload());
+      index(change.getEventId(), change.getEventVersion(), text(event, "name"), text(event, "location"),
+        text(event, "description"));
+    } catch (JsonProcessingException e) {
+      log.warn("Skipping unreadable event change {}: {}", change.getSequence(), e.getMessage());
+    }
+  }
+
+  // 모든 검색어가 (접두어로라도) 들어있는 이벤트의 id 를 점수가 높은 순서로 돌려준다.
+  public List<Integer> search(String query) {
+    List<String> terms = new ArrayList<>(tokenize(query));
+    if (terms.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    Segment segment = this.current;
+    int documents = Math.max(1, segment.size());
+    Map<Integer, Float> scores = null;
+    for (String term : terms) {
+      Map<Integer, Float> termScores = new HashMap<>();
+      for (Map.Entry<String, Map<Integer, Float>> entry : segment.prefixRange(term).entrySet()) {
+        Map<Integer, Float> posting = entry.getValue();
+        float idf = (float) Math.log(1 + (double) documents / Math.max(1, posting.size()));
+        float penalty = entry.getKey().equals(term) ? 1.0f : PREFIX_PENALTY;
+        posting.forEach((id, weight) -> termScores.merge(id, weight * idf * penalty, Math::max));
+      }
+      if (scores == null) {
+        scores = termScores;
+      } else {
+        Map<Integer, Float> previous = scores;
+        scores = new HashMap<>();
+        for (Map.Entry<Integer, Float> entry : termScores.entrySet()) {
+          Float score = previous.get(entry.getKey());
+          if (score != null) {
+            scores.put(entry.getKey(), score + entry.getValue());
+          }
+        }
+      }
+      if (scores.isEmpty()) {
+        return Collections.emptyList();
+      }
+    }
+
+    List<Map.Entry<Integer, Float>> ranked = new ArrayList<>(scores.entrySet());
+    ranked.sort(Map.Entry.<Integer, Float>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+    List<Integer> ids = new ArrayList<>(ranked.size());
+    ranked.forEach(entry -> ids.add(entry.getKey()));
+    return ids;
+  }
+
+  static Set<String> tokenize(String text) {
+    Set<String> tokens = new LinkedHashSet<>();
+    if (text == null) {
+      return tokens;
+    }
+    for (String token : SEPARATOR.split(text.toLowerCase())) {
+      if (!token.isEmpty()) {
+        tokens.add(token);
+      }
+    }
+    return tokens;
+  }
+
+  private synchronized void index(Integer id, Long version, String name, String location, String description) {
+    Document document = document(version, name, location, description);
+    this.current.put(id, document);
+    if (this.building != null) {
+      this.building.put(id, document);
+    }
+  }
+
+  private static Document document(Long version, String name, String location, String description) {
+    Map<String, Float> weights = new HashMap<>();
+    addTerms(weights, name, NAME_WEIGHT);
+    addTerms(weights, location, LOCATION_WEIGHT);
+    addTerms(weights, description, DESCRIPTION_WEIGHT);
+    return new Document(version, weights);
+  }
+
+  private static String text(JsonNode event, String field) {
+    JsonNode value = event.get(field);
+    return value == null || value.isNull() ? null : value.asText();
+  }
+
+  private static void addTerms(Map<String, Float> weights, String text, float weight) {
+    if (text == null) {
+      return;
+    }
+    for (String token : SEPARATOR.split(text.toLowerCase())) {
+      if (!token.isEmpty()) {
+        weights.merge(token, weight, Float::sum);
+      }
+    }
+  }
+
+  private static class Document {
+
+    private final Long version;
+    private final Map<String, Float> weights;
+
+    private Document(Long version, Map<String, Float> weights) {
+      this.version = version;
+      this.weights = weights;
+    }
+
+    // version 을 모르는 쪽이 있으면 나중에 들어온 것을 쓴다.
+    private boolean isOlderThan(Document other) {
+      return this.version != null && other.version != null && this.version < other.version;
+    }
+  }
+
+  // 색인 하나. 쓰기는 EventTextIndex 의 lock 안에서만 하고, 검색은 lock 없이 읽는다.
+  private static class Segment {
+
+    private final NavigableMap<String, Map<Integer, Float>> postings = new ConcurrentSkipListMap<>();
+    private final Map<Integer, Document> documents = new ConcurrentHashMap<>();
+
+    private void index(Event event) {
+      put(event.getId(),
+        document(event.getVersion(), event.getName(), event.getLocation(), event.getDescription()));
+    }
+
+    private void put(Integer id, Document document) {
+      Document previous = this.documents.get(id);
+      if (previous != null && document.isOlderThan(previous)) {
+        return;
+      }
+      if (previous != null) {
+        for (String term : previous.weights.keySet()) {
+          if (!document.weights.containsKey(term)) {
+            removePosting(term, id);
+          }
+        }
+      }
+      document.weights.forEach((term, weight) ->
+        this.postings.computeIfAbsent(term, t -> new ConcurrentHashMap<>()).put(id, weight));
+      this.documents.put(id, document);
+    }
+
+    private int size() {
+      return this.documents.size();
+    }
+
+    private NavigableMap<String, Map<Integer, Float>> prefixRange(String prefix) {
+      return this.postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private void removePosting(String term, Integer eventId) {
+      Map<Integer, Float> posting = this.postings.get(term);
+      if (posting != null) {
+        posting.remove(eventId);
+        if (posting.isEmpty()) {
+          this.postings.remove(term);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,57 @@
+package com.kbj.restapi.events;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+// 공개된 이벤트는 신청 시작, 신청 마감, 이벤트 시작 시각에 맞춰 다음 상태로 넘어간다.
+// PUBLISHED -> BEGAN_ENROLLMENT -> CLOSED_ENROLLMENT -> STARTED
+@Getter
+public class EventTransition {
+
+  private final Integer eventId;
+  private final EventStatus from;
+  private final EventStatus to;
+  private final LocalDateTime dueAt;
+  private final LocalDateTime closeEnrollmentDateTime;
+  private final LocalDateTime beginEventDateTime;
+
+  public EventTransition(Integer eventId, EventStatus from, LocalDateTime beginEnrollmentDateTime,
+                         LocalDateTime closeEnrollmentDateTime, LocalDateTime beginEventDateTime) {
+    this.eventId = eventId;
+    this.from = from;
+    this.to = next(from);
+    this.dueAt = from == EventStatus.PUBLISHED ? beginEnrollmentDateTime
+      : from == EventStatus.BEGAN_ENROLLMENT ? closeEnrollmentDateTime
+      : from == EventStatus.CLOSED_ENROLLMENT ? beginEventDateTime
+      : null;
+    this.closeEnrollmentDateTime = closeEnrollmentDateTime;
+    this.beginEventDateTime = beginEventDateTime;
+  }
+
+  // status 에서 다음 상태로 넘어가는 시각을 담은 Event 속성. 더 넘어갈 상태가 없으면 null.
+  public static String dueProperty(EventStatus status) {
+    switch (status) {
+      case PUBLISHED: return "beginEnrollmentDateTime";
+      case BEGAN_ENROLLMENT: return "closeEnrollmentDateTime";
+      case CLOSED_ENROLLMENT: return "beginEventDateTime";
+      default: return null;
+    }
+  }
+
+  public static EventStatus next(EventStatus status) {
+    switch (status) {
+      case PUBLISHED: return EventStatus.BEGAN_ENROLLMENT;
+      case BEGAN_ENROLLMENT: return EventStatus.CLOSED_ENROLLMENT;
+      case CLOSED_ENROLLMENT: return EventStatus.STARTED;
+      default: return null;
+    }
+  }
+
+  // 이 전이가 적용된 뒤의 다음 전이. 날짜가 이미 지났으면 같은 tick 에서 이어서 적용된다.
+  public EventTransition following() {
+    EventTransition following =
+      new EventTransition(this.eventId, this.to, null, this.closeEnrollmentDateTime, this.beginEventDateTime);
+    return following.dueAt == null ? null : following;
+  }
+}
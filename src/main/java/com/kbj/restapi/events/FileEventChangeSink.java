@@ -0,0 +1,47 @@
+package com.kbj.restapi.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// 변경 내역을 한 줄에 하나씩 JSON 으로 파일 끝에 덧붙이는 sink. 묶음 하나를 한 번에 쓰고 닫는다.
+public class FileEventChangeSink implements EventChangeSink {
+
+  private final Path path;
+  private final ObjectMapper objectMapper;
+
+  public FileEventChangeSink(Path path, ObjectMapper objectMapper) {
+    this.path = path;
+    this.objectMapper = objectMapper;
+  }
+
+  @Override
+  public synchronized void publish(List<EventChange> changes) {
+    try {
+      Path parent = this.path.toAbsolutePath().getParent();
+      if (parent != null) {
+        Files.createDirectories(parent);
+      }
+      try (BufferedWriter writer = Files.newBufferedWriter(this.path, StandardCharsets.UTF_8,
+        StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+        for (EventChange change : changes) {
+          writer.write(this.objectMapper.writeValueAsString(change));
+          writer.newLine();
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  public Path getPath() {
+    return this.path;
+  }
+}
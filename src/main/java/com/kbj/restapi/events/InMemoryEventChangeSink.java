@@ -0,0 +1,31 @@
+package com.kbj.restapi.events;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+// 최근 capacity 개의 변경만 메모리에 들고 있는 sink. 로컬 실행과 테스트용이다.
+public class InMemoryEventChangeSink implements EventChangeSink {
+
+  private final int capacity;
+  private final Deque<EventChange> changes = new ArrayDeque<>();
+
+  public InMemoryEventChangeSink(int capacity) {
+    this.capacity = capacity;
+  }
+
+  @Override
+  public synchronized void publish(List<EventChange> changes) {
+    for (EventChange change : changes) {
+      if (this.changes.size() == this.capacity) {
+        this.changes.pollFirst();
+      }
+      this.changes.addLast(change);
+    }
+  }
+
+  public synchronized List<EventChange> getChanges() {
+    return new ArrayList<>(this.changes);
+  }
+}
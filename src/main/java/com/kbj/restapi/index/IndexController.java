@@ -1,19 +1,18 @@
 package com.kbj.restapi.index;
 
-import com.kbj.restapi.events.EventController;
+import com.kbj.restapi.common.LinkTemplates;
+import org.springframework.hateoas.Link;
 import org.springframework.hateoas.RepresentationModel;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-
 @RestController
 public class IndexController {
 
     @GetMapping("/api")
     public RepresentationModel index() {
         var index = new RepresentationModel<>();
-        index.add(linkTo(EventController.class).withRel("events"));
+        index.add(new Link(LinkTemplates.events(), "events"));
         return index;
     }
 
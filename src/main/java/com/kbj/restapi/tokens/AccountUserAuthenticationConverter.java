@@ -0,0 +1,53 @@
+package com.kbj.restapi.tokens;
+
+import com.kbj.restapi.accounts.Account;
+import com.kbj.restapi.accounts.AccountAdapter;
+import com.kbj.restapi.accounts.AccountRole;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.provider.token.DefaultUserAuthenticationConverter;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// 토큰에 account id 와 role 을 담아서 리소스 서버가 DB 조회 없이 @CurrentUser 의 Account 를 만들 수 있게 한다.
+public class AccountUserAuthenticationConverter extends DefaultUserAuthenticationConverter {
+
+    static final String ACCOUNT_ID = "account_id";
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    @Override
+    public Map<String, ?> convertUserAuthentication(Authentication authentication) {
+        Map<String, Object> response = new LinkedHashMap<>(super.convertUserAuthentication(authentication));
+        if (authentication.getPrincipal() instanceof AccountAdapter) {
+            response.put(ACCOUNT_ID, ((AccountAdapter) authentication.getPrincipal()).getAccount().getId());
+        }
+        return response;
+    }
+
+    @Override
+    public Authentication extractAuthentication(Map<String, ?> map) {
+        if (!map.containsKey(ACCOUNT_ID)) {
+            return super.extractAuthentication(map);
+        }
+
+        Collection<?> authorities = (Collection<?>) map.get(AUTHORITIES);
+        Set<AccountRole> roles = authorities == null ? Set.of() : authorities.stream()
+                .map(Object::toString)
+                .filter(a -> a.startsWith(ROLE_PREFIX))
+                .map(a -> AccountRole.valueOf(a.substring(ROLE_PREFIX.length())))
+                .collect(Collectors.toSet());
+        Account account = Account.builder()
+                .id(((Number) map.get(ACCOUNT_ID)).intValue())
+                .email((String) map.get(USERNAME))
+                .password("")
+                .roles(roles)
+                .build();
+        AccountAdapter principal = new AccountAdapter(account);
+        return new UsernamePasswordAuthenticationToken(principal, "N/A", principal.getAuthorities());
+    }
+}
@@ -0,0 +1,123 @@
+package com.kbj.restapi.tokens;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2RefreshToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+
+import java.time.Duration;
+import java.util.Collection;
+
+// 리소스 서버가 요청마다 DB 를 보지 않도록 access token 조회 결과를 노드 로컬에 잠깐 들고 있는다.
+// 다른 노드에서 폐기된 토큰은 ttl 동안 유효하게 보일 수 있으므로 ttl 은 짧게 유지한다.
+public class CachingTokenStore implements TokenStore {
+
+    private final TokenStore delegate;
+    private final Cache<String, OAuth2AccessToken> accessTokens;
+    private final Cache<String, OAuth2Authentication> authentications;
+    private final Cache<String, String> accessTokenValues;
+
+    public CachingTokenStore(TokenStore delegate, Duration ttl, long maximumSize) {
+        this.delegate = delegate;
+        this.accessTokens = Caffeine.newBuilder().expireAfterWrite(ttl).maximumSize(maximumSize).build();
+        this.authentications = Caffeine.newBuilder().expireAfterWrite(ttl).maximumSize(maximumSize).build();
+        this.accessTokenValues = Caffeine.newBuilder().expireAfterWrite(ttl).maximumSize(maximumSize).build();
+    }
+
+    @Override
+    public OAuth2Authentication readAuthentication(OAuth2AccessToken token) {
+        return readAuthentication(token.getValue());
+    }
+
+    @Override
+    public OAuth2Authentication readAuthentication(String token) {
+        OAuth2Authentication authentication = this.authentications.getIfPresent(token);
+        if (authentication == null) {
+            authentication = this.delegate.readAuthentication(token);
+            if (authentication != null) {
+                this.authentications.put(token, authentication);
+            }
+        }
+        return authentication;
+    }
+
+    @Override
+    public void storeAccessToken(OAuth2AccessToken token, OAuth2Authentication authentication) {
+        this.delegate.storeAccessToken(token, authentication);
+        this.accessTokens.put(token.getValue(), token);
+        this.authentications.put(token.getValue(), authentication);
+        if (token.getRefreshToken() != null) {
+            this.accessTokenValues.put(token.getRefreshToken().getValue(), token.getValue());
+        }
+    }
+
+    @Override
+    public OAuth2AccessToken readAccessToken(String tokenValue) {
+        OAuth2AccessToken token = this.accessTokens.getIfPresent(tokenValue);
+        if (token == null) {
+            token = this.delegate.readAccessToken(tokenValue);
+            if (token != null) {
+                this.accessTokens.put(tokenValue, token);
+            }
+        }
+        return token;
+    }
+
+    @Override
+    public void removeAccessToken(OAuth2AccessToken token) {
+        evict(token.getValue());
+        this.delegate.removeAccessToken(token);
+    }
+
+    @Override
+    public void storeRefreshToken(OAuth2RefreshToken refreshToken, OAuth2Authentication authentication) {
+        this.delegate.storeRefreshToken(refreshToken, authentication);
+    }
+
+    @Override
+    public OAuth2RefreshToken readRefreshToken(String tokenValue) {
+        return this.delegate.readRefreshToken(tokenValue);
+    }
+
+    @Override
+    public OAuth2Authentication readAuthenticationForRefreshToken(OAuth2RefreshToken token) {
+        return this.delegate.readAuthenticationForRefreshToken(token);
+    }
+
+    @Override
+    public void removeRefreshToken(OAuth2RefreshToken token) {
+        this.delegate.removeRefreshToken(token);
+    }
+
+    @Override
+    public void removeAccessTokenUsingRefreshToken(OAuth2RefreshToken refreshToken) {
+        String tokenValue = this.accessTokenValues.getIfPresent(refreshToken.getValue());
+        if (tokenValue != null) {
+            this.accessTokenValues.invalidate(refreshToken.getValue());
+            evict(tokenValue);
+        }
+        this.delegate.removeAccessTokenUsingRefreshToken(refreshToken);
+    }
+
+    @Override
+    public OAuth2AccessToken getAccessToken(OAuth2Authentication authentication) {
+        return this.delegate.getAccessToken(authentication);
+    }
+
+    @Override
+    public Collection<OAuth2AccessToken> findTokensByClientIdAndUserName(String clientId, String userName) {
+        return this.delegate.findTokensByClientIdAndUserName(clientId, userName);
+    }
+
+    @Override
+    public Collection<OAuth2AccessToken> findTokensByClientId(String clientId) {
+        return this.delegate.findTokensByClientId(clientId);
+    }
+
+    private void evict(String tokenValue) {
+        this.accessTokens.invalidate(tokenValue);
+        this.authentications.invalidate(tokenValue);
+    }
+}
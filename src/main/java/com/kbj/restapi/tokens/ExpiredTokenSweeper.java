@@ -0,0 +1,22 @@
+package com.kbj.restapi.tokens;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Date;
+
+@Slf4j
+@AllArgsConstructor
+public class ExpiredTokenSweeper {
+
+    private final ExpiringJdbcTokenStore tokenStore;
+
+    @Scheduled(fixedDelayString = "${my-app.token-store.sweep-interval-millis:300000}")
+    public void sweep() {
+        int removed = this.tokenStore.removeExpiredTokens(new Date());
+        if (removed > 0) {
+            log.info("Removed {} expired tokens", removed);
+        }
+    }
+}
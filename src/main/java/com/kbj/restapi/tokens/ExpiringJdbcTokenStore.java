@@ -0,0 +1,49 @@
+package com.kbj.restapi.tokens;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.oauth2.common.ExpiringOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2RefreshToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.store.JdbcTokenStore;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.Date;
+
+// 만료 시각을 별도 컬럼에 저장해서 토큰을 역직렬화하지 않고도 만료된 토큰을 지울 수 있게 한다.
+public class ExpiringJdbcTokenStore extends JdbcTokenStore {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ExpiringJdbcTokenStore(DataSource dataSource) {
+        super(dataSource);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public void storeAccessToken(OAuth2AccessToken token, OAuth2Authentication authentication) {
+        super.storeAccessToken(token, authentication);
+        if (token.getExpiration() != null) {
+            this.jdbcTemplate.update("update oauth_access_token set expiration = ? where token_id = ?",
+                    new Timestamp(token.getExpiration().getTime()), extractTokenKey(token.getValue()));
+        }
+    }
+
+    @Override
+    public void storeRefreshToken(OAuth2RefreshToken refreshToken, OAuth2Authentication authentication) {
+        super.storeRefreshToken(refreshToken, authentication);
+        if (refreshToken instanceof ExpiringOAuth2RefreshToken) {
+            Date expiration = ((ExpiringOAuth2RefreshToken) refreshToken).getExpiration();
+            this.jdbcTemplate.update("update oauth_refresh_token set expiration = ? where token_id = ?",
+                    new Timestamp(expiration.getTime()), extractTokenKey(refreshToken.getValue()));
+        }
+    }
+
+    public int removeExpiredTokens(Date now) {
+        Timestamp timestamp = new Timestamp(now.getTime());
+        int accessTokens = this.jdbcTemplate.update("delete from oauth_access_token where expiration < ?", timestamp);
+        int refreshTokens = this.jdbcTemplate.update("delete from oauth_refresh_token where expiration < ?", timestamp);
+        return accessTokens + refreshTokens;
+    }
+}
@@ -0,0 +1,24 @@
+package com.kbj.restapi.tokens;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "my-app.jwt")
+@Getter @Setter
+public class JwtProperties {
+
+    private boolean enabled;
+
+    // 새 토큰을 서명할 키. 키를 교체할 때는 새 키를 keys 에 추가하고 active 로 바꾼 뒤,
+    // 이전 키로 발급된 토큰이 모두 만료되면 이전 키를 지운다.
+    private String activeKeyId;
+
+    private Map<String, String> keys = new LinkedHashMap<>();
+
+}
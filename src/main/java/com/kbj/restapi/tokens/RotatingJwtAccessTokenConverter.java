@@ -0,0 +1,63 @@
+package com.kbj.restapi.tokens;
+
+import org.springframework.security.jwt.Jwt;
+import org.springframework.security.jwt.JwtHelper;
+import org.springframework.security.jwt.crypto.sign.MacSigner;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.exceptions.InvalidTokenException;
+import org.springframework.security.oauth2.common.util.JsonParser;
+import org.springframework.security.oauth2.common.util.JsonParserFactory;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// 토큰 헤더의 kid 로 서명 키를 고르므로, 키를 교체하는 동안에도 이전 키로 서명된 토큰을 검증할 수 있다.
+public class RotatingJwtAccessTokenConverter extends JwtAccessTokenConverter {
+
+    private static final String KEY_ID = "kid";
+
+    private final JsonParser jsonParser = JsonParserFactory.create();
+    private final String activeKeyId;
+    private final Map<String, MacSigner> signers;
+
+    public RotatingJwtAccessTokenConverter(String activeKeyId, Map<String, String> keys) {
+        if (!keys.containsKey(activeKeyId)) {
+            throw new IllegalArgumentException("Unknown active key id: " + activeKeyId);
+        }
+        this.activeKeyId = activeKeyId;
+        this.signers = keys.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> new MacSigner(e.getValue())));
+        setSigner(this.signers.get(activeKeyId));
+        setVerifier(this.signers.get(activeKeyId));
+    }
+
+    @Override
+    protected String encode(OAuth2AccessToken accessToken, OAuth2Authentication authentication) {
+        String content = this.jsonParser.formatMap(getAccessTokenConverter().convertAccessToken(accessToken, authentication));
+        return JwtHelper.encode(content, this.signers.get(this.activeKeyId), Map.of(KEY_ID, this.activeKeyId)).getEncoded();
+    }
+
+    @Override
+    protected Map<String, Object> decode(String token) {
+        Map<String, Object> claims;
+        try {
+            MacSigner verifier = this.signers.get(JwtHelper.headers(token).get(KEY_ID));
+            if (verifier == null) {
+                throw new InvalidTokenException("Unknown signing key");
+            }
+            Jwt jwt = JwtHelper.decodeAndVerify(token, verifier);
+            claims = this.jsonParser.parseMap(jwt.getClaims());
+            if (claims.get(EXP) instanceof Integer) {
+                claims.put(EXP, ((Integer) claims.get(EXP)).longValue());
+            }
+        } catch (InvalidTokenException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new InvalidTokenException("Cannot convert access token to JSON", e);
+        }
+        getJwtClaimsSetVerifier().verify(claims);
+        return claims;
+    }
+}
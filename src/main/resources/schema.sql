@@ -0,0 +1,28 @@
+create table if not exists oauth_access_token (
+    token_id varchar(256),
+    token bytea,
+    authentication_id varchar(256) primary key,
+    user_name varchar(256),
+    client_id varchar(256),
+    authentication bytea,
+    refresh_token varchar(256),
+    expiration timestamp
+);
+create index if not exists oauth_access_token_token_id_idx on oauth_access_token (token_id);
+create index if not exists oauth_access_token_expiration_idx on oauth_access_token (expiration);
+
+create table if not exists oauth_refresh_token (
+    token_id varchar(256),
+    token bytea,
+    authentication bytea,
+    expiration timestamp
+);
+create index if not exists oauth_refresh_token_token_id_idx on oauth_refresh_token (token_id);
+create index if not exists oauth_refresh_token_expiration_idx on oauth_refresh_token (expiration);
+
+-- 여러 노드 중 하나만 스케줄 작업을 실행하도록 이름별 lease 를 기록한다.
+create table if not exists scheduler_lease (
+    name varchar(64) primary key,
+    owner varchar(256) not null,
+    expires_at timestamp not null
+);
@@ -1,5 +1,8 @@
 package com.kbj.restapi.accounts;
 
+import com.kbj.restapi.common.TestDescription;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -8,9 +11,11 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import javax.persistence.EntityManagerFactory;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -26,6 +31,9 @@ public class AccountServiceTest {
     @Autowired
     PasswordEncoder passwordEncoder;
 
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
     @Test
     public void findByUsername() {
         // Given
@@ -47,6 +55,46 @@ public class AccountServiceTest {
         assertThat(this.passwordEncoder.matches(password, userDetails.getPassword())).isTrue();
     }
 
+    @Test
+    public void findByUsernameCached() {
+        // Given
+        String userName = "cached@email.com";
+        Account account = Account.builder()
+                .email(userName)
+                .password("1234")
+                .roles(Set.of(AccountRole.USER))
+                .build();
+        this.accountService.saveAccount(account);
+        this.accountService.loadUserByUsername(userName);
+        Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long queryCacheHits = statistics.getQueryCacheHitCount();
+
+        // When
+        UserDetails userDetails = this.accountService.loadUserByUsername(userName);
+
+        // Then
+        assertThat(userDetails.getUsername()).isEqualTo(userName);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(queryCacheHits + 1);
+    }
+
+    @Test
+    @TestDescription("새 비밀번호는 bcrypt 로 만들고, {noop} 이나 {pbkdf2} 로 저장된 비밀번호도 확인한다")
+    public void matchOtherEncodings() {
+        // Given
+        String password = "1234";
+        String pbkdf2 = "{pbkdf2}" + new Pbkdf2PasswordEncoder().encode(password);
+
+        // When
+        String encoded = this.passwordEncoder.encode(password);
+
+        // Then
+        assertThat(encoded).startsWith("{bcrypt}");
+        assertThat(this.passwordEncoder.matches(password, encoded)).isTrue();
+        assertThat(this.passwordEncoder.matches(password, "{noop}" + password)).isTrue();
+        assertThat(this.passwordEncoder.matches(password, pbkdf2)).isTrue();
+        assertThat(this.passwordEncoder.matches("wrong", pbkdf2)).isFalse();
+    }
+
     @Test
     public void findByUsernameFail() {
         Assertions.assertThrows(UsernameNotFoundException.class, () -> {
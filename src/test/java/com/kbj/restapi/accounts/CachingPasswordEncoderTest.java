@@ -0,0 +1,89 @@
+package com.kbj.restapi.accounts;
+
+import com.kbj.restapi.common.TestDescription;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CachingPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ThreadPoolExecutor hashExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(1));
+    private final CountingPasswordEncoder delegate = new CountingPasswordEncoder();
+    private final CachingPasswordEncoder passwordEncoder = new CachingPasswordEncoder(delegate, hashExecutor,
+            Duration.ofMinutes(1), 100, meterRegistry);
+
+    @AfterEach
+    public void tearDown() {
+        this.passwordEncoder.close();
+    }
+
+    @Test
+    @TestDescription("성공한 검증은 캐시되어 다시 해시하지 않는다")
+    public void matchesCached() {
+        String encoded = passwordEncoder.encode("pass");
+
+        assertThat(passwordEncoder.matches("pass", encoded)).isTrue();
+        assertThat(passwordEncoder.matches("pass", encoded)).isTrue();
+
+        assertThat(delegate.matchesCount.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("password.hash").tag("operation", "matches").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @TestDescription("실패한 검증과 다른 해시에 대한 검증은 캐시되지 않는다")
+    public void mismatchNotCached() {
+        String encoded = passwordEncoder.encode("pass");
+
+        assertThat(passwordEncoder.matches("wrong", encoded)).isFalse();
+        assertThat(passwordEncoder.matches("wrong", encoded)).isFalse();
+        assertThat(passwordEncoder.matches("pass", encoded)).isTrue();
+        assertThat(passwordEncoder.matches("pass", encoded + "-changed")).isFalse();
+
+        assertThat(delegate.matchesCount.get()).isEqualTo(4);
+    }
+
+    @Test
+    @TestDescription("해시 대기열이 가득 차면 요청 스레드에서 계산하지 않고 인증 실패로 처리한다")
+    public void rejectWhenSaturated() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        hashExecutor.submit(() -> release.await(1, TimeUnit.MINUTES));
+        hashExecutor.submit(() -> release.await(1, TimeUnit.MINUTES));
+
+        try {
+            assertThatThrownBy(() -> passwordEncoder.matches("pass", "pass"))
+                    .isInstanceOf(AuthenticationServiceException.class);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private static class CountingPasswordEncoder implements PasswordEncoder {
+
+        private final AtomicInteger matchesCount = new AtomicInteger();
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return "{test}" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            matchesCount.incrementAndGet();
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+}
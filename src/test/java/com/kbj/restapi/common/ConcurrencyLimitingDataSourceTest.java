@@ -0,0 +1,79 @@
+package com.kbj.restapi.common;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class ConcurrencyLimitingDataSourceTest {
+
+    private final DataSource delegate = mock(DataSource.class);
+    private final Connection connection = mock(Connection.class);
+
+    @Test
+    @TestDescription("동시에 열린 커넥션 수가 한도에 닿으면 대기 시간 후 실패한다")
+    public void limitReached() throws Exception {
+        given(delegate.getConnection()).willReturn(connection);
+        ConcurrencyLimitingDataSource dataSource =
+                new ConcurrencyLimitingDataSource(delegate, 2, 10, Duration.ofMillis(10));
+
+        Connection first = dataSource.getConnection();
+        dataSource.getConnection();
+
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+
+        first.close();
+        assertThat(dataSource.getConnection()).isNotNull();
+    }
+
+    @Test
+    @TestDescription("커넥션을 여러 번 닫아도 한도는 한 번만 돌려받는다")
+    public void closeReleasesOnce() throws Exception {
+        given(delegate.getConnection()).willReturn(connection);
+        ConcurrencyLimitingDataSource dataSource =
+                new ConcurrencyLimitingDataSource(delegate, 1, 10, Duration.ofMillis(10));
+
+        Connection first = dataSource.getConnection();
+        first.close();
+        first.close();
+
+        assertThat(dataSource.getAvailablePermits()).isEqualTo(1);
+        verify(connection, times(1)).close();
+    }
+
+    @Test
+    @TestDescription("대기자가 한도를 넘으면 기다리지 않고 바로 실패한다")
+    public void tooManyWaiting() throws Exception {
+        given(delegate.getConnection()).willReturn(connection);
+        ConcurrencyLimitingDataSource dataSource =
+                new ConcurrencyLimitingDataSource(delegate, 1, 0, Duration.ofMinutes(1));
+
+        dataSource.getConnection();
+
+        assertThatThrownBy(dataSource::getConnection)
+                .isInstanceOf(SQLTransientConnectionException.class)
+                .hasMessageContaining("waiting");
+    }
+
+    @Test
+    @TestDescription("커넥션을 얻지 못하면 한도를 돌려준다")
+    public void releaseOnFailure() throws Exception {
+        given(delegate.getConnection(anyString(), anyString())).willThrow(new SQLException("down"));
+        ConcurrencyLimitingDataSource dataSource =
+                new ConcurrencyLimitingDataSource(delegate, 1, 10, Duration.ofMillis(10));
+
+        assertThatThrownBy(() -> dataSource.getConnection("user", "pass")).isInstanceOf(SQLException.class);
+        assertThat(dataSource.getAvailablePermits()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,139 @@
+package com.kbj.restapi.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class IdempotencyStoreTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final IdempotencyStore store = new IdempotencyStore(Duration.ofMinutes(1), 100_000,
+            Duration.ofMillis(500), new ObjectMapper(), meterRegistry);
+    private final AtomicInteger executions = new AtomicInteger();
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    public void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    @TestDescription("같은 키로 동시에 들어온 요청은 한 번만 실행되고 모두 같은 응답을 받는다")
+    public void coalesceConcurrentRequests() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<ResponseEntity<?>> request = () -> {
+            started.countDown();
+            await(release);
+            return created(this.executions.incrementAndGet());
+        };
+
+        List<Future<ResponseEntity<?>>> responses = new ArrayList<>();
+        responses.add(this.executor.submit(() -> store.execute("key", "body", request)));
+        started.await(1, TimeUnit.SECONDS);
+        for (int i = 0; i < 7; i++) {
+            responses.add(this.executor.submit(() -> store.execute("key", "body", request)));
+        }
+        Thread.sleep(100);
+        release.countDown();
+
+        for (Future<ResponseEntity<?>> response : responses) {
+            assertThat(response.get(1, TimeUnit.SECONDS).getStatusCode()).isEqualTo(HttpStatus.CREATED);
+            assertThat(response.get().getHeaders().getLocation()).isEqualTo(URI.create("/api/events/1"));
+        }
+        assertThat(this.executions.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("idempotency.requests").tag("outcome", "replayed").counter().count())
+                .isEqualTo(7);
+    }
+
+    @Test
+    @TestDescription("같은 키에 다른 본문이 오면 422, 처리 중인 요청을 기다리다 시간이 지나면 409 를 응답한다")
+    public void rejectMismatchAndInProgress() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<ResponseEntity<?>> first = this.executor.submit(() -> store.execute("key", "body", () -> {
+            started.countDown();
+            await(release);
+            return created(this.executions.incrementAndGet());
+        }));
+        started.await(1, TimeUnit.SECONDS);
+
+        assertThat(store.execute("key", "other", () -> created(0)).getStatusCode())
+                .isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+        assertThat(store.execute("key", "body", () -> created(0)).getStatusCode())
+                .isEqualTo(HttpStatus.CONFLICT);
+
+        release.countDown();
+        assertThat(first.get(1, TimeUnit.SECONDS).getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(this.executions.get()).isEqualTo(1);
+    }
+
+    @Test
+    @TestDescription("실패한 응답과 예외는 기억하지 않아 같은 키로 다시 실행할 수 있다")
+    public void forgetFailures() {
+        assertThat(store.execute("key", "body", () -> ResponseEntity.badRequest().build()).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThatThrownBy(() -> store.execute("key", "body", () -> {
+            throw new IllegalStateException("database down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        ResponseEntity<?> response = store.execute("key", "body", () -> created(this.executions.incrementAndGet()));
+        ResponseEntity<?> replayed = store.execute("key", "body", () -> created(this.executions.incrementAndGet()));
+
+        assertThat(response.getHeaders().containsKey(IdempotencyStore.REPLAYED_HEADER)).isFalse();
+        assertThat(replayed.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(replayed.getBody()).isEqualTo(response.getBody());
+        assertThat(this.executions.get()).isEqualTo(1);
+    }
+
+    @Test
+    @TestDescription("기억한 응답 크기의 합이 maximumWeight 를 넘지 않도록 응답을 잊는다")
+    public void boundByResponseSize() {
+        IdempotencyStore store = new IdempotencyStore(Duration.ofMinutes(1), 10_000, Duration.ofMillis(500),
+                new ObjectMapper(), meterRegistry);
+        String body = "x".repeat(3_000);
+        for (int i = 0; i < 10; i++) {
+            store.execute("key" + i, "body", () -> ResponseEntity.status(HttpStatus.CREATED).body(body));
+        }
+
+        // 실패 응답은 기억하지 않으므로 다시 실행되어도 남은 응답을 밀어내지 않는다.
+        for (int i = 0; i < 10; i++) {
+            store.execute("key" + i, "body", () -> {
+                this.executions.incrementAndGet();
+                return ResponseEntity.badRequest().build();
+            });
+        }
+        // 3KB 응답은 10KB 에 세 개까지만 들어간다.
+        assertThat(this.executions.get()).isGreaterThanOrEqualTo(7);
+    }
+
+    private static ResponseEntity<?> created(int id) {
+        return ResponseEntity.created(URI.create("/api/events/" + id)).body("event " + id);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.kbj.restapi.common;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class QueryTimingDataSourceTest {
+
+    private final JdbcDataSource h2 = new JdbcDataSource();
+    private final Logger logger = (Logger) LoggerFactory.getLogger(QueryTimingDataSource.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    public void setUp() {
+        h2.setURL("jdbc:h2:mem:query-timing");
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        logger.detachAppender(appender);
+    }
+
+    @Test
+    @TestDescription("느린 문장은 값이 지워진 SQL 모양과 호출 위치가 로그로 남는다")
+    public void slowQueryLogged() throws Exception {
+        QueryTimingDataSource dataSource = new QueryTimingDataSource(h2, Duration.ZERO);
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select   'a''b', 42 from dual where 1 = 1")) {
+            assertThat(resultSet.next()).isTrue();
+        }
+
+        assertThat(appender.list).hasSize(1);
+        assertThat(appender.list.get(0).getFormattedMessage())
+                .contains("at common.QueryTimingDataSourceTest.slowQueryLogged:")
+                .endsWith(": select ?, ? from dual where ? = ?");
+    }
+
+    @Test
+    @TestDescription("threshold 보다 빠른 문장은 로그를 남기지 않는다")
+    public void fastQueryNotLogged() throws Exception {
+        QueryTimingDataSource dataSource = new QueryTimingDataSource(h2, Duration.ofMinutes(1));
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("select ? from dual")) {
+            statement.setInt(1, 1);
+            statement.executeQuery().close();
+            statement.executeQuery().close();
+        }
+
+        assertThat(appender.list).isEmpty();
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.restdocs.mockmvc.MockMvcRestDocumentationConfigurer;
 
 import static org.springframework.restdocs.operation.preprocess.Preprocessors.prettyPrint;
+import static org.springframework.restdocs.operation.preprocess.Preprocessors.removeHeaders;
 
 @TestConfiguration
 public class RestDocsConfiguration {
@@ -14,6 +15,6 @@ public class RestDocsConfiguration {
   public RestDocsMockMvcConfigurationCustomizer restDocsMockMvcConfigurationCustomizer() {
     return configurer -> configurer.operationPreprocessors()
       .withRequestDefaults(prettyPrint())
-      .withResponseDefaults(prettyPrint());
+      .withResponseDefaults(prettyPrint(), removeHeaders(QueryStatsFilter.QUERY_COUNT_HEADER));
   }
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+package com.kbj.restapi.common;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TokenBucketLimiterTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final Ticker ticker = this.nanos::get;
+    private final TokenBucketLimiter limiter = new TokenBucketLimiter(100, Duration.ofMinutes(1), this.ticker);
+
+    @Test
+    @TestDescription("burst 만큼 바로 허용하고, 그 뒤로는 초당 perSecond 개씩 다시 허용한다")
+    public void burstThenRefill() {
+        TokenBucketLimiter.Limit limit = new TokenBucketLimiter.Limit(2, 3);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(this.limiter.tryAcquire("a", limit)).isZero();
+        }
+        assertThat(this.limiter.tryAcquire("a", limit)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(500));
+        assertThat(this.limiter.tryAcquire("b", limit)).isZero();
+
+        this.nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        assertThat(this.limiter.tryAcquire("a", limit)).isZero();
+        assertThat(this.limiter.tryAcquire("a", limit)).isPositive();
+
+        // 오래 쉬어도 burst 보다 많이 쌓이지 않는다.
+        this.nanos.addAndGet(TimeUnit.MINUTES.toNanos(10));
+        for (int i = 0; i < 3; i++) {
+            assertThat(this.limiter.tryAcquire("a", limit)).isZero();
+        }
+        assertThat(this.limiter.tryAcquire("a", limit)).isPositive();
+    }
+
+    @Test
+    @TestDescription("한 key 에 동시에 요청해도 burst 보다 많이 허용하지 않는다")
+    public void concurrentAcquire() throws Exception {
+        TokenBucketLimiter.Limit limit = new TokenBucketLimiter.Limit(1, 1000);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int acquired = 0;
+                    for (int j = 0; j < 10000; j++) {
+                        if (this.limiter.tryAcquire("hot", limit) == 0) {
+                            acquired++;
+                        }
+                    }
+                    return acquired;
+                }));
+            }
+            start.countDown();
+            int acquired = 0;
+            for (Future<Integer> result : results) {
+                acquired += result.get(1, TimeUnit.MINUTES);
+            }
+            assertThat(acquired).isEqualTo(1000);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.kbj.restapi.configs;
+
+import com.kbj.restapi.common.TestDescription;
+import com.kbj.restapi.events.Event;
+import com.kbj.restapi.events.EventRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public class CompressionTest {
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    EventRepository eventRepository;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    @TestDescription("Accept-Encoding: gzip 으로 요청하면 HAL 목록이 압축되어 절반 이하 크기로 응답된다")
+    public void gzipHalJson() throws Exception {
+        List<Event> events = IntStream.range(0, 20)
+                .mapToObj(i -> Event.builder()
+                        .name("Name " + i)
+                        .description("Description " + i)
+                        .beginEnrollmentDateTime(LocalDateTime.of(2020, 2, 27, 11, 29, 30))
+                        .closeEnrollmentDateTime(LocalDateTime.of(2020, 2, 28, 0, 0, 0))
+                        .beginEventDateTime(LocalDateTime.of(2020, 3, 1, 8, 0, 0))
+                        .endEventDateTime(LocalDateTime.of(2020, 3, 2, 0, 0, 0))
+                        .basePrice(100)
+                        .maxPrice(200)
+                        .limitOfEnrollment(100)
+                        .location("강남역")
+                        .build())
+                .collect(Collectors.toList());
+        eventRepository.insertAll(events);
+        URI uri = URI.create("http://localhost:" + port + "/api/events?size=20");
+
+        HttpResponse<byte[]> plain = client.send(HttpRequest.newBuilder(uri).GET().build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        HttpResponse<byte[]> gzip = client.send(HttpRequest.newBuilder(uri).header("Accept-Encoding", "gzip").GET().build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+
+        assertThat(plain.headers().firstValue("Content-Encoding")).isEmpty();
+        assertThat(gzip.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        assertThat(gzip.body().length).isLessThan(plain.body().length / 2);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip.body()))) {
+            assertThat(in.readAllBytes()).isEqualTo(plain.body());
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.kbj.restapi.configs;
+
+import com.kbj.restapi.common.ConcurrencyLimitingDataSource;
+import com.kbj.restapi.common.TestDescription;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = "my-app.jdbc.max-concurrency=5")
+@ActiveProfiles("test")
+public class DataSourceMetricsTest {
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    @TestDescription("동시성 제한으로 감싼 DataSource 에서도 커넥션 풀 대기/점유 시간이 기록된다")
+    public void poolMetrics() throws Exception {
+        jdbcTemplate.queryForObject("select 1", Integer.class);
+
+        assertThat(dataSource.isWrapperFor(ConcurrencyLimitingDataSource.class)).isTrue();
+        assertThat(meterRegistry.get("hikaricp.connections.acquire").timer().count()).isPositive();
+        assertThat(meterRegistry.get("hikaricp.connections.usage").timer().count()).isPositive();
+        assertThat(meterRegistry.get("hikaricp.connections.pending").gauge()).isNotNull();
+        assertThat(meterRegistry.get("jdbc.limiter.available").gauge().value()).isEqualTo(5);
+    }
+}
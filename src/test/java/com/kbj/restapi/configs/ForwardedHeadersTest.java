@@ -0,0 +1,70 @@
+package com.kbj.restapi.configs;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kbj.restapi.common.TestDescription;
+import com.kbj.restapi.events.Event;
+import com.kbj.restapi.events.EventRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// X-Forwarded-* 는 Tomcat RemoteIpValve 가 처리하므로 MockMvc 가 아니라 실제 서버로 요청한다.
+// 테스트 클라이언트(loopback)를 신뢰하지 않는 외부 클라이언트로 만들기 위해 프록시 주소를 따로 정한다.
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "server.tomcat.internal-proxies=10\\.0\\.0\\.1")
+@ActiveProfiles("test")
+public class ForwardedHeadersTest {
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    @TestDescription("신뢰하는 프록시가 아닌 클라이언트가 보낸 X-Forwarded-* 헤더는 링크에 반영하지 않는다")
+    public void ignoreForwardedHeadersFromClient() throws Exception {
+        // Given
+        Event event = eventRepository.save(Event.builder()
+                .name("Forwarded")
+                .description("forwarded headers")
+                .beginEnrollmentDateTime(LocalDateTime.of(2020, 2, 27, 11, 29, 30))
+                .closeEnrollmentDateTime(LocalDateTime.of(2020, 2, 28, 0, 0, 0))
+                .beginEventDateTime(LocalDateTime.of(2020, 3, 1, 8, 0, 0))
+                .endEventDateTime(LocalDateTime.of(2020, 3, 2, 0, 0, 0))
+                .build());
+        URI uri = URI.create("http://localhost:" + port + "/api/events/" + event.getId());
+
+        // When
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri)
+                        .header("X-Forwarded-Proto", "https")
+                        .header("X-Forwarded-Host", "evil.example.com")
+                        .header("X-Forwarded-For", "203.0.113.7")
+                        .GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        // Then
+        assertThat(response.statusCode()).isEqualTo(200);
+        JsonNode links = objectMapper.readTree(response.body()).get("_links");
+        assertThat(links.get("self").get("href").asText()).isEqualTo("http://localhost:" + port + "/api/events/" + event.getId());
+    }
+}
@@ -0,0 +1,85 @@
+package com.kbj.restapi.configs;
+
+import com.kbj.restapi.common.AppProperties;
+import com.kbj.restapi.common.BaseControllerTests;
+import com.kbj.restapi.common.TestDescription;
+import com.kbj.restapi.events.EventDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.jwt.JwtHelper;
+import org.springframework.security.oauth2.common.util.Jackson2JsonParser;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = {
+        "my-app.jwt.enabled=true",
+        "my-app.jwt.active-key-id=k2",
+        "my-app.jwt.keys.k1=first-secret",
+        "my-app.jwt.keys.k2=second-secret"
+})
+class JwtTokenTest extends BaseControllerTests {
+
+    @Autowired
+    AppProperties appProperties;
+
+    @Test
+    @TestDescription("서명된 토큰에 account 정보와 키 id 가 담기는지 확인하는 테스트")
+    public void getJwtToken() throws Exception {
+        String accessToken = getAccessToken();
+
+        assertThat(JwtHelper.headers(accessToken)).containsEntry("kid", "k2");
+        Map<String, Object> claims = new Jackson2JsonParser().parseMap(JwtHelper.decode(accessToken).getClaims());
+        assertThat(claims).containsKey("account_id");
+        assertThat(claims.get("user_name")).isEqualTo(appProperties.getUserUsername());
+    }
+
+    @Test
+    @TestDescription("서명된 토큰만으로 이벤트를 생성하는 테스트")
+    public void createEventWithJwtToken() throws Exception {
+        EventDto event = EventDto.builder()
+                .name("Spring")
+                .description("REST API Development with Spring")
+                .beginEnrollmentDateTime(LocalDateTime.of(2020, 2, 27, 11, 29, 30))
+                .closeEnrollmentDateTime(LocalDateTime.of(2020, 2, 28, 0, 0, 0))
+                .beginEventDateTime(LocalDateTime.of(2020, 3, 1, 8, 0, 0))
+                .endEventDateTime(LocalDateTime.of(2020, 3, 2, 0, 0, 0))
+                .basePrice(100)
+                .maxPrice(200)
+                .limitOfEnrollment(100)
+                .location("강남역")
+                .build();
+
+        this.mockMvc.perform(post("/api/events/")
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + getAccessToken())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(MediaTypes.HAL_JSON)
+                    .content(objectMapper.writeValueAsString(event)))
+                .andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("manager.id").exists())
+        ;
+    }
+
+    private String getAccessToken() throws Exception {
+        String content = this.mockMvc.perform(post("/oauth/token")
+                    .with(httpBasic(appProperties.getClientId(), appProperties.getClientSecret()))
+                    .param("username", appProperties.getUserUsername())
+                    .param("password", appProperties.getUserPassword())
+                    .param("grant_type", "password"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return new Jackson2JsonParser().parseMap(content).get("access_token").toString();
+    }
+}
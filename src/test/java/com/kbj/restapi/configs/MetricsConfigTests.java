@@ -0,0 +1,62 @@
+package com.kbj.restapi.configs;
+
+import com.kbj.restapi.common.BaseControllerTests;
+import com.kbj.restapi.common.TestDescription;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class MetricsConfigTests extends BaseControllerTests {
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    @TestDescription("내부 주소에서는 인증 없이 Prometheus 형식의 지표를 수집할 수 있다")
+    public void scrapePrometheus() throws Exception {
+        mockMvc.perform(get("/api/events"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket")))
+                .andExpect(content().string(containsString("http_server_phases_seconds_bucket")))
+                .andExpect(content().string(containsString("quantile=\"0.99\"")))
+                .andExpect(content().string(containsString("hibernate_statements_total")))
+                .andExpect(content().string(containsString("db_request_statements_count")));
+    }
+
+    @Test
+    @TestDescription("scrape-addresses 밖의 주소에서는 Prometheus 지표를 수집할 수 없다")
+    public void scrapePrometheusFromPublicAddress() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus").with(request -> {
+                    request.setRemoteAddr("203.0.113.7");
+                    return request;
+                }))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @TestDescription("보안 필터에서 끝난 401 응답도 집계된다")
+    public void countUnauthorized() throws Exception {
+        double before = unauthorizedCount();
+
+        mockMvc.perform(post("/api/events"))
+                .andExpect(status().isUnauthorized());
+
+        assertThat(unauthorizedCount()).isEqualTo(before + 1);
+    }
+
+    private double unauthorizedCount() {
+        Counter counter = meterRegistry.find("http.server.client.errors").tag("status", "401").counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
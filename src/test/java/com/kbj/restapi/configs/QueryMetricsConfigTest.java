@@ -0,0 +1,36 @@
+package com.kbj.restapi.configs;
+
+import com.kbj.restapi.common.QueryTimingDataSource;
+import com.kbj.restapi.common.TestDescription;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class QueryMetricsConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(QueryMetricsConfig.class)
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+            .withBean(DataSource.class, () -> new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build());
+
+    @Test
+    @TestDescription("query-timing 을 켜지 않으면 DataSource 를 감싸지 않는다")
+    public void queryTimingOffByDefault() {
+        this.contextRunner.run(context ->
+                assertThat(context.getBean(DataSource.class)).isNotInstanceOf(QueryTimingDataSource.class));
+    }
+
+    @Test
+    @TestDescription("query-timing=true 이면 DataSource 를 감싸 문장 시간을 잰다")
+    public void queryTimingOptIn() {
+        this.contextRunner.withPropertyValues("my-app.jdbc.query-timing=true").run(context ->
+                assertThat(context.getBean(DataSource.class)).isInstanceOf(QueryTimingDataSource.class));
+    }
+}
@@ -0,0 +1,91 @@
+package com.kbj.restapi.configs;
+
+import com.kbj.restapi.common.AppProperties;
+import com.kbj.restapi.common.BaseControllerTests;
+import com.kbj.restapi.common.TestDescription;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.oauth2.common.util.Jackson2JsonParser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = {
+        "my-app.rate-limit.enabled=true",
+        "my-app.rate-limit.scopes.ip.read.per-second=1000",
+        "my-app.rate-limit.scopes.ip.read.burst=1000",
+        "my-app.rate-limit.scopes.ip.write.per-second=1000",
+        "my-app.rate-limit.scopes.ip.write.burst=1000",
+        "my-app.rate-limit.scopes.account.read.per-second=0.1",
+        "my-app.rate-limit.scopes.account.read.burst=2",
+        "my-app.rate-limit.scopes.account.write.per-second=0.1",
+        "my-app.rate-limit.scopes.account.write.burst=2"
+})
+class RateLimitConfigTests extends BaseControllerTests {
+
+    @Autowired
+    AppProperties appProperties;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    @TestDescription("계정의 읽기 한도를 넘으면 429 와 Retry-After 를 응답하고, 익명 요청과 다른 계정은 영향받지 않는다")
+    public void limitAccountReads() throws Exception {
+        String accessToken = getAccessToken(appProperties.getUserUsername(), appProperties.getUserPassword());
+
+        for (int i = 0; i < 2; i++) {
+            this.mockMvc.perform(get("/api/events").header(HttpHeaders.AUTHORIZATION, accessToken))
+                    .andExpect(status().isOk());
+        }
+        this.mockMvc.perform(get("/api/events").header(HttpHeaders.AUTHORIZATION, accessToken))
+                .andDo(print())
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "10"));
+
+        this.mockMvc.perform(get("/api/events"))
+                .andExpect(status().isOk());
+        String adminToken = getAccessToken(appProperties.getAdminUsername(), appProperties.getAdminPassword());
+        this.mockMvc.perform(get("/api/events").header(HttpHeaders.AUTHORIZATION, adminToken))
+                .andExpect(status().isOk());
+        assertThat(this.meterRegistry.get("http.server.rate.limited").tag("scope", "account").counter().count())
+                .isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    @TestDescription("한 계정에 토큰 발급을 반복하면 비밀번호가 틀려도 쓰기 한도로 막는다")
+    public void limitTokenRequestsPerAccount() throws Exception {
+        String username = "rate-limit@email.com";
+        for (int i = 0; i < 2; i++) {
+            this.mockMvc.perform(tokenRequest(username, "wrong"))
+                    .andExpect(status().isBadRequest());
+        }
+        this.mockMvc.perform(tokenRequest(username, "wrong"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+    }
+
+    private MockHttpServletRequestBuilder tokenRequest(String username, String password) {
+        return post("/oauth/token")
+                .with(httpBasic(appProperties.getClientId(), appProperties.getClientSecret()))
+                .param("username", username)
+                .param("password", password)
+                .param("grant_type", "password");
+    }
+
+    private String getAccessToken(String username, String password) throws Exception {
+        String content = this.mockMvc.perform(tokenRequest(username, password))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return "Bearer " + new Jackson2JsonParser().parseMap(content).get("access_token");
+    }
+}
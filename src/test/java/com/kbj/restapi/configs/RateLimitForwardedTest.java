@@ -0,0 +1,60 @@
+package com.kbj.restapi.configs;
+
+import com.kbj.restapi.common.TestDescription;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// IP 한도는 Tomcat RemoteIpValve 가 바꾼 주소로 세므로 MockMvc 가 아니라 실제 서버로 요청한다.
+// 테스트 클라이언트(loopback)는 기본 internal-proxies 에 들어 있어 신뢰하는 프록시가 된다.
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "my-app.rate-limit.enabled=true",
+        "my-app.rate-limit.scopes.ip.read.per-second=0.1",
+        "my-app.rate-limit.scopes.ip.read.burst=2"
+})
+@ActiveProfiles("test")
+public class RateLimitForwardedTest {
+
+    @LocalServerPort
+    int port;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    @TestDescription("같은 프록시를 거친 두 클라이언트는 X-Forwarded-For 주소별로 IP 한도를 따로 센다")
+    public void limitEachClientBehindProxy() throws Exception {
+        // Given
+        for (int i = 0; i < 2; i++) {
+            assertThat(query("203.0.113.7").statusCode()).isEqualTo(200);
+        }
+
+        // When
+        HttpResponse<String> limited = query("203.0.113.7");
+        HttpResponse<String> other = query("203.0.113.8");
+
+        // Then
+        assertThat(limited.statusCode()).isEqualTo(429);
+        assertThat(limited.headers().firstValue(HttpHeaders.RETRY_AFTER)).isPresent();
+        assertThat(other.statusCode()).isEqualTo(200);
+    }
+
+    private HttpResponse<String> query(String clientAddress) throws Exception {
+        URI uri = URI.create("http://127.0.0.1:" + port + "/api/events");
+        return client.send(HttpRequest.newBuilder(uri)
+                        .header("X-Forwarded-For", clientAddress)
+                        .GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,68 @@
+package com.kbj.restapi.configs;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kbj.restapi.common.TestDescription;
+import com.kbj.restapi.events.Event;
+import com.kbj.restapi.events.EventRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// ForwardedHeadersTest 와 반대로 기본 internal-proxies 를 써서 테스트 클라이언트(loopback)를 신뢰하는 프록시로 둔다.
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public class TrustedProxyForwardedHeadersTest {
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    EventRepository eventRepository;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    @TestDescription("신뢰하는 프록시가 보낸 X-Forwarded-Proto/Host 는 링크의 scheme 과 host 에 반영한다")
+    public void applyForwardedHeadersFromTrustedProxy() throws Exception {
+        // Given
+        Event event = eventRepository.save(Event.builder()
+                .name("Forwarded")
+                .description("forwarded headers")
+                .beginEnrollmentDateTime(LocalDateTime.of(2020, 2, 27, 11, 29, 30))
+                .closeEnrollmentDateTime(LocalDateTime.of(2020, 2, 28, 0, 0, 0))
+                .beginEventDateTime(LocalDateTime.of(2020, 3, 1, 8, 0, 0))
+                .endEventDateTime(LocalDateTime.of(2020, 3, 2, 0, 0, 0))
+                .build());
+        URI uri = URI.create("http://127.0.0.1:" + port + "/api/events/" + event.getId());
+
+        // When
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri)
+                        .header("X-Forwarded-Proto", "https")
+                        .header("X-Forwarded-Host", "api.example.com")
+                        .header("X-Forwarded-For", "203.0.113.7")
+                        .GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        // Then
+        assertThat(response.statusCode()).isEqualTo(200);
+        JsonNode links = objectMapper.readTree(response.body()).get("_links");
+        assertThat(links.get("self").get("href").asText()).isEqualTo("https://api.example.com/api/events/" + event.getId());
+    }
+}
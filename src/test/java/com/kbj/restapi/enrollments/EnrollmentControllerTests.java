@@ -0,0 +1,211 @@
+package com.kbj.restapi.enrollments;
+
+import com.kbj.restapi.accounts.Account;
+import com.kbj.restapi.accounts.AccountRepository;
+import com.kbj.restapi.accounts.AccountRole;
+import com.kbj.restapi.common.AppProperties;
+import com.kbj.restapi.common.BaseControllerTests;
+import com.kbj.restapi.common.TestDescription;
+import com.kbj.restapi.events.Event;
+import com.kbj.restapi.events.EventRepository;
+import com.kbj.restapi.events.EventStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.oauth2.common.util.Jackson2JsonParser;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.restdocs.headers.HeaderDocumentation.headerWithName;
+import static org.springframework.restdocs.headers.HeaderDocumentation.requestHeaders;
+import static org.springframework.restdocs.hypermedia.HypermediaDocumentation.linkWithRel;
+import static org.springframework.restdocs.hypermedia.HypermediaDocumentation.links;
+import static org.springframework.restdocs.mockmvc.MockMvcRestDocumentation.document;
+import static org.springframework.restdocs.payload.PayloadDocumentation.fieldWithPath;
+import static org.springframework.restdocs.payload.PayloadDocumentation.relaxedResponseFields;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class EnrollmentControllerTests extends BaseControllerTests {
+
+  @Autowired
+  EventRepository eventRepository;
+
+  @Autowired
+  EnrollmentRepository enrollmentRepository;
+
+  @Autowired
+  EnrollmentService enrollmentService;
+
+  @Autowired
+  AccountRepository accountRepository;
+
+  @Autowired
+  AppProperties appProperties;
+
+  @Test
+  @TestDescription("신청 기간에 정원 안에서 신청하면 ACCEPTED 로 생성되는 테스트")
+  public void createEnrollment() throws Exception {
+    Event event = generateEvent(100);
+
+    this.mockMvc.perform(post("/api/events/{eventId}/enrollments", event.getId())
+            .header(HttpHeaders.AUTHORIZATION, getAccessToken(appProperties.getUserUsername(), appProperties.getUserPassword()))
+            .accept(MediaTypes.HAL_JSON))
+            .andDo(print())
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("id").exists())
+            .andExpect(jsonPath("status").value(EnrollmentStatus.ACCEPTED.name()))
+            .andExpect(jsonPath("seat").value(1))
+            .andExpect(jsonPath("_links.event").exists())
+            .andDo(document("create-enrollment",
+                    links(
+                            linkWithRel("event").description("link to the event"),
+                            linkWithRel("profile").description("link to profile")
+                    ),
+                    requestHeaders(
+                            headerWithName(HttpHeaders.AUTHORIZATION).description("access token"),
+                            headerWithName(HttpHeaders.ACCEPT).description("accept header")
+                    ),
+                    relaxedResponseFields(
+                            fieldWithPath("id").description("Id of the enrollment"),
+                            fieldWithPath("account.id").description("Id of the enrolled account"),
+                            fieldWithPath("status").description("ACCEPTED within the limit of enrollment, WAITLISTED otherwise"),
+                            fieldWithPath("seat").description("seat number from 1 to limit of enrollment, null when waitlisted"),
+                            fieldWithPath("enrolledAt").description("date time of the enrollment")
+                    )
+            ));
+  }
+
+  @Test
+  @TestDescription("정원이 찬 뒤의 신청은 WAITLISTED, 같은 사용자의 재신청은 기존 신청을 200 으로 응답하는 테스트")
+  public void createEnrollmentWaitlisted() throws Exception {
+    Event event = generateEvent(1);
+    String userToken = getAccessToken(appProperties.getUserUsername(), appProperties.getUserPassword());
+    String adminToken = getAccessToken(appProperties.getAdminUsername(), appProperties.getAdminPassword());
+
+    this.mockMvc.perform(post("/api/events/{eventId}/enrollments", event.getId())
+            .header(HttpHeaders.AUTHORIZATION, userToken))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("status").value(EnrollmentStatus.ACCEPTED.name()));
+
+    this.mockMvc.perform(post("/api/events/{eventId}/enrollments", event.getId())
+            .header(HttpHeaders.AUTHORIZATION, adminToken))
+            .andDo(print())
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("status").value(EnrollmentStatus.WAITLISTED.name()))
+            .andExpect(jsonPath("seat").doesNotExist());
+
+    this.mockMvc.perform(post("/api/events/{eventId}/enrollments", event.getId())
+            .header(HttpHeaders.AUTHORIZATION, userToken))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("status").value(EnrollmentStatus.ACCEPTED.name()))
+            .andExpect(jsonPath("seat").value(1));
+  }
+
+  @Test
+  @TestDescription("신청 기간이 아니거나 공개되지 않은 이벤트면 400, 없는 이벤트면 404, 토큰이 없으면 401 을 응답하는 테스트")
+  public void createEnrollment_Bad_Request() throws Exception {
+    Event event = generateEvent(100);
+    event.setCloseEnrollmentDateTime(LocalDateTime.now().minusMinutes(1));
+    this.eventRepository.save(event);
+    String accessToken = getAccessToken(appProperties.getUserUsername(), appProperties.getUserPassword());
+
+    this.mockMvc.perform(post("/api/events/{eventId}/enrollments", event.getId())
+            .header(HttpHeaders.AUTHORIZATION, accessToken))
+            .andDo(print())
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("content[0].code").value("enrollmentClosed"))
+            .andExpect(jsonPath("_links.index").exists());
+
+    Event draft = generateEvent(100);
+    draft.setEventStatus(EventStatus.DRAFT);
+    this.eventRepository.save(draft);
+    this.mockMvc.perform(post("/api/events/{eventId}/enrollments", draft.getId())
+            .header(HttpHeaders.AUTHORIZATION, accessToken))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("content[0].code").value("enrollmentClosed"));
+
+    this.mockMvc.perform(post("/api/events/{eventId}/enrollments", 987654321)
+            .header(HttpHeaders.AUTHORIZATION, accessToken))
+            .andExpect(status().isNotFound());
+
+    this.mockMvc.perform(post("/api/events/{eventId}/enrollments", event.getId()))
+            .andExpect(status().isUnauthorized());
+  }
+
+  @Test
+  @TestDescription("DB 에 동시에 신청해도 정원보다 많이 승인되지 않는 테스트")
+  public void createEnrollmentsConcurrently() throws Exception {
+    Event event = generateEvent(30);
+    List<Account> accounts = this.accountRepository.saveAll(IntStream.range(0, 300)
+            .mapToObj(i -> Account.builder()
+                    .email(UUID.randomUUID() + "@email.com")
+                    .password("1234")
+                    .roles(Set.of(AccountRole.USER))
+                    .build())
+            .collect(Collectors.toList()));
+
+    ExecutorService executor = Executors.newFixedThreadPool(32);
+    try {
+      List<Future<EnrollmentService.Result>> results = new ArrayList<>();
+      for (Account account : accounts) {
+        results.add(executor.submit(() -> this.enrollmentService.enroll(event, account)));
+        results.add(executor.submit(() -> this.enrollmentService.enroll(event, account)));
+      }
+      for (Future<EnrollmentService.Result> result : results) {
+        result.get(1, TimeUnit.MINUTES);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(this.enrollmentRepository.countByEventIdAndStatus(event.getId(), EnrollmentStatus.ACCEPTED))
+            .isEqualTo(30);
+    assertThat(this.enrollmentRepository.countByEventIdAndStatus(event.getId(), EnrollmentStatus.WAITLISTED))
+            .isEqualTo(270);
+    assertThat(this.enrollmentRepository.findMaxSeat(event.getId())).isEqualTo(30);
+  }
+
+  private String getAccessToken(String username, String password) throws Exception {
+    String content = this.mockMvc.perform(post("/oauth/token")
+            .with(httpBasic(appProperties.getClientId(), appProperties.getClientSecret()))
+            .param("username", username)
+            .param("password", password)
+            .param("grant_type", "password"))
+            .andReturn().getResponse().getContentAsString();
+    return "Bearer " + new Jackson2JsonParser().parseMap(content).get("access_token");
+  }
+
+  private Event generateEvent(int limitOfEnrollment) {
+    LocalDateTime now = LocalDateTime.now();
+    Event event = Event.builder()
+            .name("Enrollment " + limitOfEnrollment)
+            .description("Enrollment test")
+            .beginEnrollmentDateTime(now.minusDays(1))
+            .closeEnrollmentDateTime(now.plusDays(1))
+            .beginEventDateTime(now.plusDays(2))
+            .endEventDateTime(now.plusDays(3))
+            .basePrice(100)
+            .maxPrice(200)
+            .limitOfEnrollment(limitOfEnrollment)
+            .location("강남역")
+            .eventStatus(EventStatus.BEGAN_ENROLLMENT)
+            .build();
+    return this.eventRepository.save(event);
+  }
+}
@@ -0,0 +1,238 @@
+package com.kbj.restapi.enrollments;
+
+import com.kbj.restapi.accounts.Account;
+import com.kbj.restapi.common.TestDescription;
+import com.kbj.restapi.events.Event;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+public class EnrollmentServiceTest {
+
+  private static final int LIMIT = 500;
+  private static final int ACCOUNTS = 20000;
+
+  private final Event event = Event.builder().id(1).limitOfEnrollment(LIMIT).build();
+  private final InMemoryEnrollments enrollments = new InMemoryEnrollments();
+  private final ExecutorService executor = Executors.newFixedThreadPool(64);
+
+  @AfterEach
+  public void tearDown() {
+    this.executor.shutdownNow();
+  }
+
+  @Test
+  @TestDescription("두 노드에서 동시에 들어온 4만 건의 신청(사용자마다 두 번)이 정원을 넘겨 승인되지 않는다")
+  public void noOverbookingUnderContention() throws Exception {
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    EnrollmentRepository repository = this.enrollments.repository();
+    List<EnrollmentService> nodes = List.of(
+      new EnrollmentService(repository, new EnrollmentSeats(eventId -> this.enrollments.maxSeat()), meterRegistry),
+      new EnrollmentService(repository, new EnrollmentSeats(eventId -> this.enrollments.maxSeat()), meterRegistry));
+
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<EnrollmentService.Result>> results = new ArrayList<>();
+    for (int attempt = 0; attempt < ACCOUNTS * 2; attempt++) {
+      Account account = Account.builder().id(attempt % ACCOUNTS).build();
+      EnrollmentService node = nodes.get(attempt % 3 == 0 ? 0 : 1);
+      results.add(this.executor.submit(() -> {
+        start.await();
+        return node.enroll(this.event, account);
+      }));
+    }
+    start.countDown();
+
+    int created = 0;
+    for (Future<EnrollmentService.Result> future : results) {
+      EnrollmentService.Result result = future.get(1, TimeUnit.MINUTES);
+      Enrollment enrollment = result.getEnrollment();
+      // 대기자는 나중에 승인될 수 있으므로 상태 대신 같은 신청을 돌려받았는지 본다.
+      assertThat(enrollment).isSameAs(this.enrollments.byAccount.get(enrollment.getAccount().getId()));
+      created += result.isCreated() ? 1 : 0;
+    }
+
+    assertThat(created).isEqualTo(ACCOUNTS);
+    assertThat(this.enrollments.byAccount).hasSize(ACCOUNTS);
+    assertThat(this.enrollments.bySeat.keySet())
+      .containsExactlyInAnyOrderElementsOf(IntStream.rangeClosed(1, LIMIT).boxed().collect(Collectors.toList()));
+    assertThat(this.enrollments.byAccount.values().stream()
+      .filter(enrollment -> enrollment.getStatus() == EnrollmentStatus.ACCEPTED).count()).isEqualTo(LIMIT);
+    assertThat(meterRegistry.get("enrollment.requests").tag("outcome", "accepted").counter().count()
+      + meterRegistry.get("enrollment.requests").tag("outcome", "promoted").counter().count())
+      .isEqualTo(LIMIT);
+  }
+
+  @Test
+  @TestDescription("한 노드가 저장하지 못한 좌석을 처음 쓰는 다른 노드가 DB 에서 찾아 승인한다")
+  public void reclaimSeatReleasedOnOtherNode() {
+    // Given
+    Event event = Event.builder().id(1).limitOfEnrollment(2).build();
+    EnrollmentRepository repository = this.enrollments.repository();
+    EnrollmentService nodeA = new EnrollmentService(repository,
+      new EnrollmentSeats(eventId -> this.enrollments.maxSeat()), new SimpleMeterRegistry());
+    EnrollmentService nodeB = new EnrollmentService(repository,
+      new EnrollmentSeats(eventId -> this.enrollments.maxSeat()), new SimpleMeterRegistry());
+    // 1번 좌석을 저장하는 동안 같은 노드의 다른 신청이 2번 좌석으로 저장되고, 1번 좌석 저장은 실패한다.
+    this.enrollments.failOnce(1, () -> nodeA.enroll(event, Account.builder().id(2).build()));
+    assertThatThrownBy(() -> nodeA.enroll(event, Account.builder().id(1).build()))
+      .isInstanceOf(QueryTimeoutException.class);
+
+    // When
+    Enrollment enrollment = nodeB.enroll(event, Account.builder().id(3).build()).getEnrollment();
+
+    // Then
+    assertThat(enrollment.getStatus()).isEqualTo(EnrollmentStatus.ACCEPTED);
+    assertThat(enrollment.getSeat()).isEqualTo(1);
+    assertThat(this.enrollments.bySeat.keySet()).containsExactlyInAnyOrder(1, 2);
+  }
+
+  @Test
+  @TestDescription("빈 좌석이 있으면 새 신청보다 먼저 기다린 대기자를 승인한다")
+  public void promoteWaitlisted() {
+    // Given
+    Event event = Event.builder().id(1).limitOfEnrollment(2).build();
+    LocalDateTime now = LocalDateTime.now();
+    Enrollment waiting = this.enrollments.save(Enrollment.builder()
+      .event(event).account(Account.builder().id(1).build())
+      .status(EnrollmentStatus.WAITLISTED).enrolledAt(now.minusMinutes(2)).build());
+    this.enrollments.save(Enrollment.builder()
+      .event(event).account(Account.builder().id(2).build())
+      .status(EnrollmentStatus.ACCEPTED).seat(2).enrolledAt(now.minusMinutes(1)).build());
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    EnrollmentService node = new EnrollmentService(this.enrollments.repository(),
+      new EnrollmentSeats(eventId -> this.enrollments.maxSeat()), meterRegistry);
+
+    // When
+    Enrollment enrollment = node.enroll(event, Account.builder().id(3).build()).getEnrollment();
+
+    // Then
+    assertThat(enrollment.getStatus()).isEqualTo(EnrollmentStatus.WAITLISTED);
+    assertThat(waiting.getStatus()).isEqualTo(EnrollmentStatus.ACCEPTED);
+    assertThat(waiting.getSeat()).isEqualTo(1);
+    assertThat(meterRegistry.get("enrollment.requests").tag("outcome", "promoted").counter().count()).isEqualTo(1);
+  }
+
+  @Test
+  @TestDescription("정원이 늘어나면 대기자 이후 신청부터 다시 승인된다")
+  public void limitIncreased() {
+    EnrollmentService service = new EnrollmentService(this.enrollments.repository(),
+      new EnrollmentSeats(eventId -> this.enrollments.maxSeat()), new SimpleMeterRegistry());
+    Event small = Event.builder().id(1).limitOfEnrollment(1).build();
+
+    assertThat(service.enroll(small, Account.builder().id(1).build()).getEnrollment().getSeat()).isEqualTo(1);
+    assertThat(service.enroll(small, Account.builder().id(2).build()).getEnrollment().getStatus())
+      .isEqualTo(EnrollmentStatus.WAITLISTED);
+
+    small.setLimitOfEnrollment(2);
+    assertThat(service.enroll(small, Account.builder().id(3).build()).getEnrollment().getSeat()).isEqualTo(2);
+  }
+
+  // (event, account) 와 (event, seat) unique 제약만 흉내 내는 저장소.
+  private static class InMemoryEnrollments {
+
+    private final Map<Integer, Enrollment> byAccount = new ConcurrentHashMap<>();
+    private final Map<Integer, Enrollment> bySeat = new ConcurrentHashMap<>();
+    private final Map<Integer, Enrollment> byId = new ConcurrentHashMap<>();
+    private final AtomicInteger ids = new AtomicInteger();
+    private final Map<Integer, Runnable> failures = new ConcurrentHashMap<>();
+
+    private EnrollmentRepository repository() {
+      EnrollmentRepository repository = mock(EnrollmentRepository.class, withSettings().stubOnly());
+      when(repository.findByEventIdAndAccountId(anyInt(), anyInt()))
+        .thenAnswer(invocation -> Optional.ofNullable(this.byAccount.get(invocation.<Integer>getArgument(1))));
+      when(repository.existsByEventIdAndSeat(anyInt(), anyInt()))
+        .thenAnswer(invocation -> this.bySeat.containsKey(invocation.<Integer>getArgument(1)));
+      when(repository.saveAndFlush(any(Enrollment.class)))
+        .thenAnswer(invocation -> save(invocation.getArgument(0)));
+      when(repository.countByEventIdAndStatus(anyInt(), any(EnrollmentStatus.class)))
+        .thenAnswer(invocation -> this.byAccount.values().stream()
+          .filter(enrollment -> enrollment.getStatus() == invocation.getArgument(1))
+          .count());
+      when(repository.findSeats(anyInt()))
+        .thenAnswer(invocation -> new ArrayList<>(this.bySeat.keySet()));
+      when(repository.findByEventIdAndStatusOrderByEnrolledAtAscIdAsc(anyInt(), any(EnrollmentStatus.class),
+        any(Pageable.class)))
+        .thenAnswer(invocation -> this.byAccount.values().stream()
+          .filter(enrollment -> enrollment.getStatus() == invocation.getArgument(1))
+          .sorted(Comparator.comparing(Enrollment::getEnrolledAt).thenComparing(Enrollment::getId))
+          .limit(invocation.<Pageable>getArgument(2).getPageSize())
+          .collect(Collectors.toList()));
+      when(repository.promote(anyInt(), anyInt()))
+        .thenAnswer(invocation -> promote(invocation.getArgument(0), invocation.getArgument(1)));
+      return repository;
+    }
+
+    // 그 좌석의 다음 저장은 during 을 실행한 뒤 실패한다.
+    private void failOnce(int seat, Runnable during) {
+      this.failures.put(seat, during);
+    }
+
+    // 같은 키를 동시에 insert 하면 DB 는 먼저 온 쪽이 끝날 때까지 기다리므로 한 번에 하나씩 확인한다.
+    private synchronized Enrollment save(Enrollment enrollment) {
+      Runnable during = enrollment.getSeat() == null ? null : this.failures.remove(enrollment.getSeat());
+      if (during != null) {
+        during.run();
+        throw new QueryTimeoutException("seat " + enrollment.getSeat());
+      }
+      Integer accountId = enrollment.getAccount().getId();
+      if (this.byAccount.containsKey(accountId)) {
+        throw new DataIntegrityViolationException("uk_enrollment_event_account");
+      }
+      if (enrollment.getSeat() != null && this.bySeat.containsKey(enrollment.getSeat())) {
+        throw new DataIntegrityViolationException("uk_enrollment_event_seat");
+      }
+      enrollment.setId(this.ids.incrementAndGet());
+      this.byId.put(enrollment.getId(), enrollment);
+      this.byAccount.put(accountId, enrollment);
+      if (enrollment.getSeat() != null) {
+        this.bySeat.put(enrollment.getSeat(), enrollment);
+      }
+      return enrollment;
+    }
+
+    private synchronized int promote(Integer id, Integer seat) {
+      if (this.bySeat.containsKey(seat)) {
+        throw new DataIntegrityViolationException("uk_enrollment_event_seat");
+      }
+      Enrollment enrollment = this.byId.get(id);
+      if (enrollment.getStatus() != EnrollmentStatus.WAITLISTED) {
+        return 0;
+      }
+      enrollment.setStatus(EnrollmentStatus.ACCEPTED);
+      enrollment.setSeat(seat);
+      this.bySeat.put(seat, enrollment);
+      return 1;
+    }
+
+    private int maxSeat() {
+      return this.bySeat.keySet().stream().mapToInt(Integer::intValue).max().orElse(0);
+    }
+  }
+}
@@ -0,0 +1,148 @@
+package com.kbj.restapi.events;
+
+import com.kbj.restapi.accounts.Account;
+import com.kbj.restapi.accounts.AccountRepository;
+import com.kbj.restapi.common.AppProperties;
+import com.kbj.restapi.common.BaseControllerTests;
+import com.kbj.restapi.common.TestDescription;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.oauth2.common.util.Jackson2JsonParser;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class EventCacheInvalidatorTests extends BaseControllerTests {
+
+  @Autowired
+  EventService eventService;
+
+  @Autowired
+  EventChangeRelay eventChangeRelay;
+
+  @Autowired
+  EventCacheInvalidator eventCacheInvalidator;
+
+  @Autowired
+  EventChangeRepository eventChangeRepository;
+
+  @Autowired
+  AccountRepository accountRepository;
+
+  @Autowired
+  AppProperties appProperties;
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  EntityManagerFactory entityManagerFactory;
+
+  @Test
+  @TestDescription("조회는 2차 캐시에서 읽고, 다른 노드가 바꾼 이벤트는 변경 피드를 읽은 뒤 캐시에서 비운다")
+  public void evictEventChangedOnOtherNode() throws Exception {
+    // Given
+    Account manager = this.accountRepository.findByEmail(appProperties.getUserUsername()).orElseThrow();
+    Event event = this.eventService.create(generateEvent(manager));
+    this.eventChangeRelay.relay();
+    this.eventCacheInvalidator.poll();
+    this.eventCacheInvalidator.poll();
+    this.mockMvc.perform(get("/api/events/{id}", event.getId())).andExpect(status().isOk());
+    Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    long hits = statistics.getSecondLevelCacheHitCount();
+
+    // When
+    this.mockMvc.perform(get("/api/events/{id}", event.getId()))
+            .andExpect(jsonPath("name").value("Cached"));
+    assertThat(statistics.getSecondLevelCacheHitCount()).isGreaterThan(hits);
+    updateOnOtherNode(event, "Changed");
+    this.mockMvc.perform(get("/api/events/{id}", event.getId()))
+            .andExpect(jsonPath("name").value("Cached"));
+    this.eventChangeRelay.relay();
+    this.eventCacheInvalidator.poll();
+
+    // Then
+    this.mockMvc.perform(get("/api/events/{id}", event.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("name").value("Changed"))
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + event.getId() + "." + (event.getVersion() + 1) + "\""));
+  }
+
+  @Test
+  @TestDescription("캐시에 이전 version 이 남아 있어도 최신 If-Match 로 이벤트를 수정한다")
+  public void updateBypassesStaleCache() throws Exception {
+    // Given
+    Account manager = this.accountRepository.findByEmail(appProperties.getUserUsername()).orElseThrow();
+    Event event = this.eventService.create(generateEvent(manager));
+    String accessToken = getAccessToken();
+    this.mockMvc.perform(get("/api/events/{id}", event.getId())).andExpect(status().isOk());
+    updateOnOtherNode(event, "Changed");
+    EventDto eventDto = this.modelMapper.map(event, EventDto.class);
+    eventDto.setName("Updated");
+
+    // When & Then
+    this.mockMvc.perform(get("/api/events/{id}", event.getId()))
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + event.getId() + "." + event.getVersion() + "\""));
+    this.mockMvc.perform(put("/api/events/{id}", event.getId())
+            .header(HttpHeaders.AUTHORIZATION, accessToken)
+            .header(HttpHeaders.IF_MATCH, "\"" + event.getId() + "." + (event.getVersion() + 1) + ".m\"")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(eventDto)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("name").value("Updated"))
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + event.getId() + "." + (event.getVersion() + 2) + ".m\""));
+    this.mockMvc.perform(get("/api/events/{id}", event.getId()))
+            .andExpect(jsonPath("name").value("Updated"));
+  }
+
+  // 다른 노드가 EventService 로 수정한 것처럼 이 노드의 캐시를 거치지 않고 행과 변경 내역을 바꾼다.
+  private void updateOnOtherNode(Event event, String name) {
+    long version = event.getVersion() + 1;
+    this.jdbcTemplate.update("update event set name = ?, version = ? where id = ?", name, version, event.getId());
+    this.eventChangeRepository.save(EventChange.builder()
+            .eventId(event.getId())
+            .managerId(event.getManager().getId())
+            .type(EventChangeType.UPDATED)
+            .eventVersion(version)
+            .payload("{\"id\":" + event.getId() + ",\"name\":\"" + name + "\"}")
+            .changedAt(LocalDateTime.now())
+            .build());
+  }
+
+  private String getAccessToken() throws Exception {
+    String responseBody = this.mockMvc.perform(post("/oauth/token")
+            .with(httpBasic(appProperties.getClientId(), appProperties.getClientSecret()))
+            .param("username", appProperties.getUserUsername())
+            .param("password", appProperties.getUserPassword())
+            .param("grant_type", "password"))
+            .andReturn().getResponse().getContentAsString();
+    return "Bearer " + new Jackson2JsonParser().parseMap(responseBody).get("access_token").toString();
+  }
+
+  private Event generateEvent(Account manager) {
+    return Event.builder()
+            .name("Cached")
+            .description("Cache test")
+            .beginEnrollmentDateTime(LocalDateTime.of(2020, 2, 27, 11, 29, 30))
+            .closeEnrollmentDateTime(LocalDateTime.of(2020, 2, 28, 0, 0, 0))
+            .beginEventDateTime(LocalDateTime.of(2020, 3, 1, 8, 0, 0, 0))
+            .endEventDateTime(LocalDateTime.of(2020, 3, 2, 0, 0, 0, 0))
+            .location("강남역")
+            .manager(manager)
+            .build();
+  }
+}
@@ -0,0 +1,185 @@
+package com.kbj.restapi.events;
+
+import com.kbj.restapi.accounts.Account;
+import com.kbj.restapi.accounts.AccountRepository;
+import com.kbj.restapi.common.AppProperties;
+import com.kbj.restapi.common.BaseControllerTests;
+import com.kbj.restapi.common.TestDescription;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.oauth2.common.util.Jackson2JsonParser;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.endsWith;
+import static org.springframework.restdocs.hypermedia.HypermediaDocumentation.linkWithRel;
+import static org.springframework.restdocs.hypermedia.HypermediaDocumentation.links;
+import static org.springframework.restdocs.mockmvc.MockMvcRestDocumentation.document;
+import static org.springframework.restdocs.payload.PayloadDocumentation.fieldWithPath;
+import static org.springframework.restdocs.payload.PayloadDocumentation.relaxedResponseFields;
+import static org.springframework.restdocs.request.RequestDocumentation.parameterWithName;
+import static org.springframework.restdocs.request.RequestDocumentation.requestParameters;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class EventChangeControllerTests extends BaseControllerTests {
+
+  @Autowired
+  EventRepository eventRepository;
+
+  @Autowired
+  EventChangeRepository eventChangeRepository;
+
+  @Autowired
+  EventChangeRelay eventChangeRelay;
+
+  @Autowired
+  InMemoryEventChangeSink inMemoryEventChangeSink;
+
+  @Autowired
+  AccountRepository accountRepository;
+
+  @Autowired
+  AppProperties appProperties;
+
+  @Test
+  @TestDescription("이벤트를 생성하고 수정하면 변경 내역이 순서대로 피드와 sink 에 나오는 테스트")
+  public void queryChanges() throws Exception {
+    this.eventChangeRelay.relay();
+    long since = this.eventChangeRepository.findMaxSequence();
+    String accessToken = getAccessToken();
+
+    String content = this.mockMvc.perform(post("/api/events")
+            .header(HttpHeaders.AUTHORIZATION, accessToken)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(this.objectMapper.writeValueAsString(generateEventDto("Outbox"))))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+    Integer id = (Integer) new Jackson2JsonParser().parseMap(content).get("id");
+
+    this.mockMvc.perform(put("/api/events/{id}", id)
+            .header(HttpHeaders.AUTHORIZATION, accessToken)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(this.objectMapper.writeValueAsString(generateEventDto("Outbox updated"))))
+            .andExpect(status().isOk());
+
+    // relay 가 sequence 를 매기기 전에는 피드에 나오지 않는다.
+    assertThat(this.eventChangeRepository.findBySequenceGreaterThanOrderBySequence(since,
+      PageRequest.of(0, 10))).isEmpty();
+    assertThat(this.eventChangeRelay.relay()).isEqualTo(2);
+
+    this.mockMvc.perform(get("/api/events/changes")
+            .param("since", String.valueOf(since))
+            .param("size", "10")
+            .accept(MediaTypes.HAL_JSON))
+            .andDo(print())
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("_embedded.eventChangeList.length()").value(2))
+            .andExpect(jsonPath("_embedded.eventChangeList[0].sequence").value(since + 1))
+            .andExpect(jsonPath("_embedded.eventChangeList[0].eventId").value(id))
+            .andExpect(jsonPath("_embedded.eventChangeList[0].type").value(EventChangeType.CREATED.name()))
+            .andExpect(jsonPath("_embedded.eventChangeList[0].event.name").value("Outbox"))
+            .andExpect(jsonPath("_embedded.eventChangeList[1].type").value(EventChangeType.UPDATED.name()))
+            .andExpect(jsonPath("_embedded.eventChangeList[1].eventVersion").value(1))
+            .andExpect(jsonPath("_embedded.eventChangeList[1].event.name").value("Outbox updated"))
+            .andExpect(jsonPath("_embedded.eventChangeList[1]._links.event").exists())
+            .andExpect(jsonPath("_links.next.href").value(endsWith("since=" + (since + 2) + "&size=10")))
+            .andDo(document("query-event-changes",
+                    links(
+                            linkWithRel("self").description("link to self"),
+                            linkWithRel("next").description("link to the changes after this page"),
+                            linkWithRel("profile").description("link to profile")
+                    ),
+                    requestParameters(
+                            parameterWithName("since").description("sequence of the last change already read, 0 by default"),
+                            parameterWithName("size").description("maximum number of changes, 100 by default")
+                    ),
+                    relaxedResponseFields(
+                            fieldWithPath("_embedded.eventChangeList[].sequence").description("increasing sequence of the change"),
+                            fieldWithPath("_embedded.eventChangeList[].eventId").description("Id of the changed event"),
+                            fieldWithPath("_embedded.eventChangeList[].type").description("CREATED or UPDATED"),
+                            fieldWithPath("_embedded.eventChangeList[].eventVersion").description("version of the event after the change"),
+                            fieldWithPath("_embedded.eventChangeList[].changedAt").description("date time of the change"),
+                            fieldWithPath("_embedded.eventChangeList[].event").description("the event after the change")
+                    )
+            ));
+
+    List<Integer> published = this.inMemoryEventChangeSink.getChanges().stream()
+      .filter(change -> change.getSequence() > since)
+      .map(EventChange::getEventId)
+      .collect(Collectors.toList());
+    assertThat(published).containsExactly(id, id);
+  }
+
+  @Test
+  @TestDescription("저장하지 못한 수정은 변경 내역을 남기지 않고, 잘못된 since 는 400 을 응답하는 테스트")
+  public void queryChanges_Bad_Request() throws Exception {
+    Account manager = this.accountRepository.findByEmail(appProperties.getUserUsername()).orElseThrow();
+    Event event = generateEvent(manager);
+    long changes = this.eventChangeRepository.count();
+
+    this.mockMvc.perform(put("/api/events/{id}", event.getId())
+            .header(HttpHeaders.AUTHORIZATION, getAccessToken())
+            .header(HttpHeaders.IF_MATCH, "\"" + event.getId() + ".99.m\"")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(this.objectMapper.writeValueAsString(generateEventDto("Stale"))))
+            .andExpect(status().isPreconditionFailed());
+    assertThat(this.eventChangeRepository.count()).isEqualTo(changes);
+
+    this.mockMvc.perform(get("/api/events/changes").param("since", "-1"))
+            .andExpect(status().isBadRequest());
+    this.mockMvc.perform(get("/api/events/changes").param("size", "0"))
+            .andExpect(status().isBadRequest());
+  }
+
+  private String getAccessToken() throws Exception {
+    String content = this.mockMvc.perform(post("/oauth/token")
+            .with(httpBasic(appProperties.getClientId(), appProperties.getClientSecret()))
+            .param("username", appProperties.getUserUsername())
+            .param("password", appProperties.getUserPassword())
+            .param("grant_type", "password"))
+            .andReturn().getResponse().getContentAsString();
+    return "Bearer " + new Jackson2JsonParser().parseMap(content).get("access_token");
+  }
+
+  private EventDto generateEventDto(String name) {
+    return EventDto.builder()
+            .name(name)
+            .description("Outbox test")
+            .beginEnrollmentDateTime(LocalDateTime.of(2020, 2, 27, 11, 29, 30))
+            .closeEnrollmentDateTime(LocalDateTime.of(2020, 2, 28, 0, 0, 0))
+            .beginEventDateTime(LocalDateTime.of(2020, 3, 1, 8, 0, 0, 0))
+            .endEventDateTime(LocalDateTime.of(2020, 3, 2, 0, 0, 0, 0))
+            .basePrice(100)
+            .maxPrice(200)
+            .limitOfEnrollment(100)
+            .location("강남역")
+            .build();
+  }
+
+  private Event generateEvent(Account manager) {
+    Event event = Event.builder()
+            .name("Outbox")
+            .description("Outbox test")
+            .beginEnrollmentDateTime(LocalDateTime.of(2020, 2, 27, 11, 29, 30))
+            .closeEnrollmentDateTime(LocalDateTime.of(2020, 2, 28, 0, 0, 0))
+            .beginEventDateTime(LocalDateTime.of(2020, 3, 1, 8, 0, 0, 0))
+            .endEventDateTime(LocalDateTime.of(2020, 3, 2, 0, 0, 0, 0))
+            .location("강남역")
+            .manager(manager)
+            .build();
+    return this.eventRepository.save(event);
+  }
+}
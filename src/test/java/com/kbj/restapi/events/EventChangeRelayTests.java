@@ -0,0 +1,140 @@
+package com.kbj.restapi.events;
+
+import com.kbj.restapi.common.SchedulerLease;
+import com.kbj.restapi.common.TestDescription;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// prune 이 다른 테스트의 변경 내역까지 지우지 않도록 별도 context(DB)에서 실행한다.
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = "my-app.outbox.retention=1d")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class EventChangeRelayTests {
+
+  private static final LocalDateTime NOW = LocalDateTime.of(2030, 5, 1, 12, 0);
+
+  @Autowired
+  MockMvc mockMvc;
+
+  @Autowired
+  EventChangeRepository eventChangeRepository;
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  PlatformTransactionManager transactionManager;
+
+  @Test
+  @TestDescription("id 순서가 version 순서와 달라도 같은 이벤트의 낮은 version 을 높은 version 뒤에 내보내지 않는다")
+  public void neverSequenceLowerVersionAfterHigher() {
+    // Given
+    // 다른 노드가 미리 받은 id 블록 때문에 높은 version 이 낮은 id 를 가진 경우
+    relay(new InMemoryEventChangeSink(100), 100, Clock.systemUTC()).relay();
+    long since = this.eventChangeRepository.findMaxSequence();
+    save(1001, 2);
+    save(1002, 0);
+    save(1001, 1);
+    InMemoryEventChangeSink sink = new InMemoryEventChangeSink(100);
+
+    // When
+    relay(sink, 2, Clock.systemUTC()).relay();
+    save(1003, 2);
+    save(1003, 1);
+    relay(sink, 10, Clock.systemUTC()).relay();
+
+    // Then
+    // 한 번에 읽은 묶음 안에서는 version 순서로 매기고, 이미 더 높은 version 이 나간 변경은 지운다.
+    List<EventChange> feed = this.eventChangeRepository.findBySequenceGreaterThanOrderBySequence(since,
+      PageRequest.of(0, 10));
+    assertThat(feed)
+      .extracting(EventChange::getEventId, EventChange::getEventVersion)
+      .containsExactly(tuple(1001, 2L), tuple(1002, 0L), tuple(1003, 1L), tuple(1003, 2L));
+    assertThat(feed)
+      .extracting(EventChange::getSequence)
+      .containsExactly(since + 1, since + 2, since + 3, since + 4);
+    assertThat(sink.getChanges())
+      .extracting(EventChange::getEventId, EventChange::getEventVersion)
+      .containsExactly(tuple(1001, 2L), tuple(1002, 0L), tuple(1003, 1L), tuple(1003, 2L));
+    assertThat(this.eventChangeRepository.findUnsequenced(PageRequest.of(0, 10))).isEmpty();
+  }
+
+  @Test
+  @TestDescription("보관 기간이 지난 변경은 마지막 하나를 남기고 지우고, 지워진 구간을 since 로 읽으면 410 을 응답한다")
+  public void pruneExpiredChanges() throws Exception {
+    // Given
+    InMemoryEventChangeSink sink = new InMemoryEventChangeSink(100);
+    relay(sink, 100, Clock.systemUTC()).relay();
+    long since = this.eventChangeRepository.findMaxSequence();
+    save(2001, 0);
+    save(2002, 0);
+    save(2003, 0);
+    relay(sink, 100, clock(NOW)).relay();
+
+    // When
+    int pruned = relay(sink, 100, clock(NOW.plusDays(2))).prune();
+
+    // Then
+    assertThat(pruned).isGreaterThanOrEqualTo(2);
+    assertThat(this.eventChangeRepository.findMaxSequence()).isEqualTo(since + 3);
+    assertThat(this.eventChangeRepository.findMinSequence()).isEqualTo(since + 3);
+    save(2004, 0);
+    relay(sink, 100, clock(NOW.plusDays(2))).relay();
+    assertThat(this.eventChangeRepository.findMaxSequence()).isEqualTo(since + 4);
+
+    this.mockMvc.perform(get("/api/events/changes").param("since", String.valueOf(since)))
+      .andExpect(status().isGone());
+    this.mockMvc.perform(get("/api/events/changes").param("since", String.valueOf(since + 2)))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("_embedded.eventChangeList[0].eventId").value(2003));
+    this.mockMvc.perform(get("/api/events/changes"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("_embedded.eventChangeList[0].eventId").value(2003));
+  }
+
+  private EventChangeRelay relay(EventChangeSink sink, int batchSize, Clock clock) {
+    SchedulerLease lease = new SchedulerLease(this.jdbcTemplate, "relay-" + UUID.randomUUID(), Duration.ofSeconds(30),
+      Clock.systemUTC());
+    return new EventChangeRelay(this.eventChangeRepository, List.of(sink), lease,
+      new TransactionTemplate(this.transactionManager), clock, batchSize, Duration.ofDays(1), new SimpleMeterRegistry());
+  }
+
+  private void save(int eventId, long eventVersion) {
+    this.eventChangeRepository.save(EventChange.builder()
+      .eventId(eventId)
+      .type(eventVersion == 0 ? EventChangeType.CREATED : EventChangeType.UPDATED)
+      .eventVersion(eventVersion)
+      .payload("{\"id\":" + eventId + "}")
+      .changedAt(NOW)
+      .build());
+  }
+
+  private static Clock clock(LocalDateTime now) {
+    return Clock.fixed(now.toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+  }
+}
@@ -1,26 +1,53 @@
 package com.kbj.restapi.events;
 
+import com.kbj.restapi.accounts.Account;
 import com.kbj.restapi.accounts.AccountRepository;
+import com.kbj.restapi.accounts.AccountRole;
 import com.kbj.restapi.accounts.AccountService;
 import com.kbj.restapi.common.AppProperties;
 import com.kbj.restapi.common.BaseControllerTests;
 import com.kbj.restapi.common.TestDescription;
+import com.jayway.jsonpath.JsonPath;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.MediaTypes;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.oauth2.common.util.Jackson2JsonParser;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import javax.persistence.EntityManagerFactory;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+
 import static org.springframework.restdocs.headers.HeaderDocumentation.*;
 import static org.springframework.restdocs.hypermedia.HypermediaDocumentation.linkWithRel;
 import static org.springframework.restdocs.hypermedia.HypermediaDocumentation.links;
 import static org.springframework.restdocs.mockmvc.MockMvcRestDocumentation.document;
 import static org.springframework.restdocs.payload.PayloadDocumentation.*;
+import static org.springframework.restdocs.request.RequestDocumentation.parameterWithName;
+import static org.springframework.restdocs.request.RequestDocumentation.requestParameters;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -41,6 +68,12 @@ public class EventControllerTests extends BaseControllerTests {
   @Autowired
   AppProperties appProperties;
 
+  @Autowired
+  EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  MeterRegistry meterRegistry;
+
 
   @Test
   @TestDescription("정상적으로 이벤트를 생성하는 테스트")
@@ -222,6 +255,195 @@ public class EventControllerTests extends BaseControllerTests {
     ;
   }
 
+  @Test
+  @TestDescription("여러 이벤트를 한번에 생성하는 테스트")
+  public void createEvents() throws Exception {
+    List<EventDto> eventDtos = IntStream.range(0, 3).mapToObj(this::generateEventDto).collect(Collectors.toList());
+
+    this.mockMvc.perform(post("/api/events/batch")
+            .header(HttpHeaders.AUTHORIZATION, getAccessToken())
+            .contentType(MediaType.APPLICATION_JSON)
+            .accept(MediaTypes.HAL_JSON)
+            .content(objectMapper.writeValueAsString(eventDtos)))
+            .andDo(print())
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("_embedded.eventList.length()").value(3))
+            .andExpect(jsonPath("_embedded.eventList[0].id").exists())
+            .andExpect(jsonPath("_embedded.eventList[0].offline").value(true))
+            .andExpect(jsonPath("_embedded.eventList[0]._links.self").exists())
+            .andExpect(jsonPath("_links.self").exists())
+            .andExpect(jsonPath("_links.query-events").exists())
+            .andExpect(jsonPath("_links.profile").exists())
+            .andDo(document("create-events-batch",
+                    links(
+                            linkWithRel("self").description("link to self"),
+                            linkWithRel("query-events").description("link to query events"),
+                            linkWithRel("profile").description("link to profile")
+                    ),
+                    requestFields(
+                            fieldWithPath("[].name").description("Name of new event"),
+                            fieldWithPath("[].description").description("description of new event"),
+                            fieldWithPath("[].beginEnrollmentDateTime").description("date time of begin of new event"),
+                            fieldWithPath("[].closeEnrollmentDateTime").description("date time of close of new event"),
+                            fieldWithPath("[].beginEventDateTime").description("date time of begin of new event"),
+                            fieldWithPath("[].endEventDateTime").description("date time of end of new event"),
+                            fieldWithPath("[].location").description("location of new event"),
+                            fieldWithPath("[].basePrice").description("base price of new event"),
+                            fieldWithPath("[].maxPrice").description("max price of new event"),
+                            fieldWithPath("[].limitOfEnrollment").description("limit of enrollment of new event")
+                    )
+            ))
+    ;
+  }
+
+
+  @Test
+  @TestDescription("여러 이벤트 중 잘못된 입력이 있으면 index 별로 에러를 응답하고 아무것도 저장하지 않는 테스트")
+  public void createEvents_Bad_Request() throws Exception {
+    List<EventDto> eventDtos = IntStream.range(0, 3).mapToObj(this::generateEventDto).collect(Collectors.toList());
+    eventDtos.get(1).setBasePrice(10000);
+    eventDtos.get(2).setName("");
+    long count = this.eventRepository.count();
+
+    this.mockMvc.perform(post("/api/events/batch")
+            .header(HttpHeaders.AUTHORIZATION, getAccessToken())
+            .contentType(MediaType.APPLICATION_JSON)
+            .accept(MediaTypes.HAL_JSON)
+            .content(objectMapper.writeValueAsString(eventDtos)))
+            .andDo(print())
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("content[0].objectName").value("events[1]"))
+            .andExpect(jsonPath("content[0].field").value("basePrice"))
+            .andExpect(jsonPath("content[2].objectName").value("events[2]"))
+            .andExpect(jsonPath("content[2].field").value("name"))
+            .andExpect(jsonPath("_links.index").exists())
+    ;
+    assertThat(this.eventRepository.count()).isEqualTo(count);
+  }
+
+
+  @Test
+  @TestDescription("같은 Idempotency-Key 로 다시 생성 요청하면 저장하지 않고 처음 응답을 그대로 돌려주는 테스트")
+  public void createEventIdempotent() throws Exception {
+    EventDto eventDto = generateEventDto(1);
+    String accessToken = getAccessToken();
+    String idempotencyKey = UUID.randomUUID().toString();
+    long count = this.eventRepository.count();
+
+    MvcResult first = this.mockMvc.perform(post("/api/events/")
+            .header(HttpHeaders.AUTHORIZATION, accessToken)
+            .header("Idempotency-Key", idempotencyKey)
+            .contentType(MediaType.APPLICATION_JSON)
+            .accept(MediaTypes.HAL_JSON)
+            .content(objectMapper.writeValueAsString(eventDto)))
+            .andExpect(status().isCreated())
+            .andExpect(header().doesNotExist("Idempotent-Replayed"))
+            .andReturn();
+    String location = first.getResponse().getHeader(HttpHeaders.LOCATION);
+
+    this.mockMvc.perform(post("/api/events/")
+            .header(HttpHeaders.AUTHORIZATION, accessToken)
+            .header("Idempotency-Key", idempotencyKey)
+            .contentType(MediaType.APPLICATION_JSON)
+            .accept(MediaTypes.HAL_JSON)
+            .content(objectMapper.writeValueAsString(eventDto)))
+            .andDo(print())
+            .andExpect(status().isCreated())
+            .andExpect(header().string(HttpHeaders.LOCATION, location))
+            .andExpect(header().string("Idempotent-Replayed", "true"))
+            .andExpect(content().json(first.getResponse().getContentAsString()))
+            .andDo(document("create-event-idempotent",
+                    requestHeaders(
+                            headerWithName(HttpHeaders.AUTHORIZATION).description("access token"),
+                            headerWithName("Idempotency-Key").description("client generated key identifying the request (up to 255 characters)"),
+                            headerWithName(HttpHeaders.ACCEPT).description("accept header"),
+                            headerWithName(HttpHeaders.CONTENT_TYPE).description("content type header")
+                    ),
+                    responseHeaders(
+                            headerWithName(HttpHeaders.LOCATION).description("location of the event created by the first request"),
+                            headerWithName(HttpHeaders.CONTENT_TYPE).description("content type header"),
+                            headerWithName("Idempotent-Replayed").description("present when the stored response is returned")
+                    )
+            ));
+
+    assertThat(this.eventRepository.count()).isEqualTo(count + 1);
+  }
+
+  @Test
+  @TestDescription("같은 Idempotency-Key 로 다른 본문을 보내면 422 를 응답하고 저장하지 않는 테스트")
+  public void createEventIdempotentMismatch() throws Exception {
+    String accessToken = getAccessToken();
+    String idempotencyKey = UUID.randomUUID().toString();
+
+    this.mockMvc.perform(post("/api/events/batch")
+            .header(HttpHeaders.AUTHORIZATION, accessToken)
+            .header("Idempotency-Key", idempotencyKey)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(List.of(generateEventDto(1), generateEventDto(2)))))
+            .andExpect(status().isCreated());
+    long count = this.eventRepository.count();
+
+    this.mockMvc.perform(post("/api/events/batch")
+            .header(HttpHeaders.AUTHORIZATION, accessToken)
+            .header("Idempotency-Key", idempotencyKey)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(List.of(generateEventDto(3)))))
+            .andDo(print())
+            .andExpect(status().isUnprocessableEntity());
+
+    this.mockMvc.perform(post("/api/events/batch")
+            .header(HttpHeaders.AUTHORIZATION, accessToken)
+            .header("Idempotency-Key", idempotencyKey)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(List.of(generateEventDto(1), generateEventDto(2)))))
+            .andExpect(status().isCreated())
+            .andExpect(header().string("Idempotent-Replayed", "true"))
+            .andExpect(jsonPath("_embedded.eventList.length()").value(2));
+
+    assertThat(this.eventRepository.count()).isEqualTo(count);
+  }
+
+  @Test
+  @TestDescription("실패한 요청은 기억하지 않아 같은 Idempotency-Key 로 고쳐서 다시 보낼 수 있는 테스트")
+  public void createEventIdempotentAfterBadRequest() throws Exception {
+    String accessToken = getAccessToken();
+    String idempotencyKey = UUID.randomUUID().toString();
+    EventDto eventDto = generateEventDto(1);
+    eventDto.setBasePrice(10000);
+
+    this.mockMvc.perform(post("/api/events/")
+            .header(HttpHeaders.AUTHORIZATION, accessToken)
+            .header("Idempotency-Key", idempotencyKey)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(eventDto)))
+            .andExpect(status().isBadRequest());
+
+    eventDto.setBasePrice(100);
+    this.mockMvc.perform(post("/api/events/")
+            .header(HttpHeaders.AUTHORIZATION, accessToken)
+            .header("Idempotency-Key", idempotencyKey)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(eventDto)))
+            .andExpect(status().isCreated())
+            .andExpect(header().doesNotExist("Idempotent-Replayed"));
+  }
+
+
+  @Test
+  @TestDescription("여러 이벤트를 생성할 때 insert 가 JDBC batch 로 묶이는지 확인하기")
+  public void createEventsStatementCount() throws Exception {
+    List<EventDto> eventDtos = IntStream.range(0, 200).mapToObj(this::generateEventDto).collect(Collectors.toList());
+    String accessToken = getAccessToken();
+
+    long statements = this.countStatements(post("/api/events/batch")
+            .header(HttpHeaders.AUTHORIZATION, accessToken)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(eventDtos)), status().isCreated());
+
+    assertThat(statements).isLessThan(20);
+  }
+
+
   @Test
   @TestDescription("30개의 이벤트를 10개씩 2번째 페이지 조회하기")
   public void queryEvents() throws Exception {
@@ -243,6 +465,319 @@ public class EventControllerTests extends BaseControllerTests {
   }
 
 
+  @Test
+  @TestDescription("필터 조건에 맞는 이벤트만 조회하기")
+  public void queryEventsWithFilter() throws Exception {
+    // Given
+    Account manager = this.generateManager();
+    IntStream.range(0, 10).forEach(i -> {
+      Event event = this.generateEvent(i, manager);
+      event.setBasePrice(i * 100);
+      event.setEventStatus(i % 2 == 0 ? EventStatus.PUBLISHED : EventStatus.DRAFT);
+      this.eventRepository.save(event);
+    });
+    this.generateEvent(100);
+
+    // When & Then
+    this.mockMvc.perform(get("/api/events")
+            .param("manager", String.valueOf(manager.getId()))
+            .param("eventStatus", "PUBLISHED")
+            .param("minBasePrice", "200")
+            .param("maxBasePrice", "600")
+            .param("beginEventFrom", "2020-03-01T00:00:00")
+            .param("beginEventTo", "2020-03-02T00:00:00")
+            .param("sort", "basePrice"))
+            .andDo(print())
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("page.totalElements").value(3))
+            .andExpect(jsonPath("_embedded.eventList[*].basePrice", contains(200, 400, 600)))
+            .andDo(document("query-events-with-filter",
+                    requestParameters(
+                            parameterWithName("eventStatus").description("event status").optional(),
+                            parameterWithName("manager").description("id of event manager").optional(),
+                            parameterWithName("beginEventFrom").description("begin event date time from (inclusive)").optional(),
+                            parameterWithName("beginEventTo").description("begin event date time to (exclusive)").optional(),
+                            parameterWithName("minBasePrice").description("minimum base price (inclusive)").optional(),
+                            parameterWithName("maxBasePrice").description("maximum base price (inclusive)").optional(),
+                            parameterWithName("sort").description("sort property and direction").optional()
+                    )))
+    ;
+
+    this.mockMvc.perform(get("/api/events")
+            .param("manager", String.valueOf(manager.getId()))
+            .param("free", "true"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("page.totalElements").value(0))
+    ;
+  }
+
+
+  @Test
+  @TestDescription("fields 로 고른 속성만 응답받아 목록 본문을 절반 이하로 줄이기")
+  public void queryEventsWithFields() throws Exception {
+    // Given
+    Account manager = this.generateManager();
+    IntStream.range(0, 20).forEach(i -> this.generateEvent(i, manager));
+
+    // When
+    String full = this.mockMvc.perform(get("/api/events")
+            .param("manager", String.valueOf(manager.getId()))
+            .param("size", "20"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+    String compact = this.mockMvc.perform(get("/api/events")
+            .param("manager", String.valueOf(manager.getId()))
+            .param("size", "20")
+            .param("fields", "id,name,beginEventDateTime"))
+            .andDo(print())
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("_embedded.eventList[0].id").exists())
+            .andExpect(jsonPath("_embedded.eventList[0].name").exists())
+            .andExpect(jsonPath("_embedded.eventList[0].beginEventDateTime").exists())
+            .andExpect(jsonPath("_embedded.eventList[0].description").doesNotExist())
+            .andExpect(jsonPath("_embedded.eventList[0].manager").doesNotExist())
+            .andExpect(jsonPath("_embedded.eventList[0]._links.self").exists())
+            .andExpect(jsonPath("page.totalElements").value(20))
+            .andDo(document("query-events-with-fields",
+                    requestParameters(
+                            parameterWithName("manager").description("id of event manager").optional(),
+                            parameterWithName("size").description("page size").optional(),
+                            parameterWithName("fields").description("comma separated event properties to include").optional()
+                    )))
+            .andReturn().getResponse().getContentAsString();
+
+    // Then
+    assertThat(compact.length()).isLessThan(full.length() / 2);
+  }
+
+  @Test
+  @TestDescription("fields 에 따라 ETag 가 달라지고, 없는 속성을 고르면 400 응답받기")
+  public void queryEventWithFields() throws Exception {
+    Event event = this.generateEvent(100);
+
+    String fullETag = this.mockMvc.perform(get("/api/events/{id}", event.getId()))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+    this.mockMvc.perform(get("/api/events/{id}", event.getId())
+            .param("fields", "name")
+            .header(HttpHeaders.IF_NONE_MATCH, fullETag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(fullETag)))
+            .andExpect(jsonPath("name").value(event.getName()))
+            .andExpect(jsonPath("id").doesNotExist())
+            .andExpect(jsonPath("_links.self").exists());
+
+    this.mockMvc.perform(get("/api/events/{id}", event.getId())
+            .param("fields", "name,password"))
+            .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @TestDescription("키워드로 이벤트를 검색하면 이름에 일치한 이벤트가 먼저 나오고, 수정하면 바로 반영된다")
+  public void searchEvents() throws Exception {
+    // Given
+    String keyword = "k" + UUID.randomUUID().toString().replace("-", "");
+    EventDto inDescription = this.generateEventDto(1);
+    inDescription.setDescription("Learn " + keyword + " with us");
+    EventDto inName = this.generateEventDto(2);
+    inName.setName("Spring " + keyword.toUpperCase());
+    String accessToken = getAccessToken();
+    String content = this.mockMvc.perform(post("/api/events/batch")
+            .header(HttpHeaders.AUTHORIZATION, accessToken)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(List.of(inDescription, inName))))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+    Integer inDescriptionId = JsonPath.read(content, "_embedded.eventList[0].id");
+    Integer inNameId = JsonPath.read(content, "_embedded.eventList[1].id");
+
+    // When & Then
+    this.mockMvc.perform(get("/api/events/search")
+            .param("q", keyword.substring(0, 10))
+            .param("size", "10"))
+            .andDo(print())
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("page.totalElements").value(2))
+            .andExpect(jsonPath("_embedded.eventList[*].id", contains(inNameId, inDescriptionId)))
+            .andExpect(jsonPath("_links.profile").exists())
+            .andDo(document("search-events",
+                    requestParameters(
+                            parameterWithName("q").description("keywords, the last one may be a prefix"),
+                            parameterWithName("size").description("page size").optional()
+                    )))
+    ;
+
+    inName.setName("Spring");
+    this.mockMvc.perform(put("/api/events/{id}", inNameId)
+            .header(HttpHeaders.AUTHORIZATION, accessToken)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(inName)))
+            .andExpect(status().isOk());
+
+    this.mockMvc.perform(get("/api/events/search").param("q", keyword))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("_embedded.eventList[*].id", contains(inDescriptionId)))
+    ;
+  }
+
+
+  @Test
+  @TestDescription("30개의 이벤트를 10개씩 keyset 방식으로 다음 페이지 조회하기")
+  public void queryEventsByCursor() throws Exception {
+    // Given
+    IntStream.range(0, 30).forEach(this::generateEvent);
+
+    // When
+    String content = this.mockMvc.perform(get("/api/events")
+            .param("after", "")
+            .param("size", "10")
+            .param("sort", "name,DESC"))
+            .andDo(print())
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("page").doesNotExist())
+            .andExpect(jsonPath("_embedded.eventList.length()").value(10))
+            .andExpect(jsonPath("_links.self").exists())
+            .andExpect(jsonPath("_links.next").exists())
+            .andExpect(jsonPath("_links.prev").doesNotExist())
+            .andExpect(jsonPath("_links.profile").exists())
+            .andReturn().getResponse().getContentAsString();
+    String next = JsonPath.read(content, "_links.next.href");
+
+    // Then
+    this.mockMvc.perform(get(next))
+            .andDo(print())
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("_embedded.eventList.length()").value(10))
+            .andExpect(jsonPath("_links.next").exists())
+            .andExpect(jsonPath("_links.prev").exists())
+            .andDo(document("query-events-by-cursor"))
+    ;
+  }
+
+
+  @Test
+  @TestDescription("페이지 크기가 커져도 이벤트 목록 조회의 SQL 수가 일정한지 확인하기")
+  public void queryEventsStatementCount() throws Exception {
+    // Given
+    IntStream.range(0, 40).forEach(i -> this.generateEvent(i, this.generateManager()));
+
+    // When
+    long smallPage = this.countStatements(get("/api/events").param("size", "5"));
+    long largePage = this.countStatements(get("/api/events").param("size", "20"));
+
+    // Then
+    assertThat(largePage).isEqualTo(smallPage);
+  }
+
+  @Test
+  @TestDescription("X-Query-Count 헤더와 repository 지표로 요청과 repository 호출이 실행한 SQL 수를 확인하기")
+  public void queryEventsQueryCountHeader() throws Exception {
+    // Given
+    IntStream.range(0, 40).forEach(i -> this.generateEvent(i, this.generateManager()));
+    DistributionSummary findAll = this.meterRegistry.find("repository.statements")
+            .tag("repository", "EventRepository").tag("method", "findAll").summary();
+    long findAllCount = findAll == null ? 0 : findAll.count();
+    double findAllStatements = findAll == null ? 0 : findAll.totalAmount();
+
+    // When
+    String smallPage = this.mockMvc.perform(get("/api/events").param("size", "5"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader("X-Query-Count");
+    String largePage = this.mockMvc.perform(get("/api/events").param("size", "20"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader("X-Query-Count");
+
+    // Then
+    assertThat(Integer.parseInt(smallPage)).isPositive();
+    assertThat(largePage).isEqualTo(smallPage);
+    assertThat(this.meterRegistry.get("repository.statements")
+            .tag("repository", "EventRepository").tag("method", "findAll").summary().count())
+            .isEqualTo(findAllCount + 2);
+    assertThat(this.meterRegistry.get("repository.statements")
+            .tag("repository", "EventRepository").tag("method", "findAll").summary().totalAmount())
+            .isGreaterThan(findAllStatements);
+    assertThat(this.meterRegistry.get("db.request.statements").tag("uri", "/api/events").summary().max())
+            .isPositive();
+  }
+
+  private long countStatements(MockHttpServletRequestBuilder request) throws Exception {
+    return this.countStatements(request, status().isOk());
+  }
+
+  private long countStatements(MockHttpServletRequestBuilder request, ResultMatcher resultMatcher) throws Exception {
+    Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    long before = statistics.getPrepareStatementCount();
+    this.mockMvc.perform(request).andExpect(resultMatcher);
+    return statistics.getPrepareStatementCount() - before;
+  }
+
+
+  @Test
+  @TestDescription("전체 이벤트를 NDJSON 으로 내보내기")
+  public void exportEvents() throws Exception {
+    // Given
+    Account manager = this.generateManager();
+    Event event = this.generateEvent(0, manager);
+    IntStream.range(1, 30).forEach(i -> this.generateEvent(i, manager));
+    long count = this.eventRepository.count();
+
+    // When
+    MvcResult mvcResult = this.mockMvc.perform(get("/api/events/export"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    // Then
+    String content = this.mockMvc.perform(asyncDispatch(mvcResult))
+            .andDo(print())
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+            .andDo(document("export-events"))
+            .andReturn().getResponse().getContentAsString();
+    String[] lines = content.split("\n");
+    assertThat(lines).hasSize((int) count);
+    assertThat(content).endsWith("}\n");
+    assertThat(lines).allMatch(l -> l.startsWith("{\"id\":") && l.endsWith("}"));
+    String line = Arrays.stream(lines)
+            .filter(l -> event.getId().equals(JsonPath.read(l, "id")))
+            .findFirst().orElseThrow();
+    assertThat(line).isEqualTo("{\"id\":" + event.getId() + ",\"name\":\"Name 0\",\"description\":\"Description 0\","
+            + "\"beginEnrollmentDateTime\":\"2020-02-27T11:29:30\",\"closeEnrollmentDateTime\":\"2020-02-28T00:00:00\","
+            + "\"beginEventDateTime\":\"2020-03-01T08:00:00\",\"endEventDateTime\":\"2020-03-02T00:00:00\","
+            + "\"location\":\"강남역\",\"basePrice\":100,\"maxPrice\":200,\"limitOfEnrollment\":100,"
+            + "\"offline\":false,\"free\":false,\"eventStatus\":null,\"manager\":{\"id\":" + manager.getId() + "}}");
+  }
+
+
+  @Test
+  @TestDescription("조건에 맞는 이벤트를 CSV 로 내보내기")
+  public void exportEventsCsv() throws Exception {
+    // Given
+    IntStream.range(0, 5).forEach(this::generateEvent);
+    Event published = this.generateEvent(100);
+    published.setName("Spring, \"REST\"");
+    published.setEventStatus(EventStatus.PUBLISHED);
+    this.eventRepository.save(published);
+
+    // When
+    MvcResult mvcResult = this.mockMvc.perform(get("/api/events/export")
+            .param("format", "csv")
+            .param("eventStatus", "PUBLISHED"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    // Then
+    String content = this.mockMvc.perform(asyncDispatch(mvcResult))
+            .andDo(print())
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith("text/csv"))
+            .andExpect(content().string(startsWith("id,name,description,")))
+            .andExpect(content().string(containsString(published.getId() + ",\"Spring, \"\"REST\"\"\",")))
+            .andReturn().getResponse().getContentAsString();
+    assertThat(Arrays.stream(content.split("\r\n")).skip(1)).allMatch(line -> line.contains(",PUBLISHED,"));
+  }
+
+
   @Test
   @TestDescription("기존의 이벤트를 하나 조회하기")
   public void queryEvent() throws Exception {
@@ -262,6 +797,50 @@ public class EventControllerTests extends BaseControllerTests {
   }
 
 
+  @Test
+  @TestDescription("If-None-Match 가 현재 ETag 와 같으면 본문 없이 304 응답받기")
+  public void queryEventNotModified() throws Exception {
+    // Given
+    Event event = this.generateEvent(100);
+    String eTag = this.mockMvc.perform(get("/api/events/{id}", event.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+    // When & Then
+    this.mockMvc.perform(get("/api/events/{id}", event.getId())
+            .header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andDo(print())
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, eTag))
+            .andExpect(content().string(""))
+    ;
+  }
+
+
+  @Test
+  @TestDescription("목록이 바뀌지 않았으면 weak ETag 로 304 응답받고, 바뀌면 200 응답받기")
+  public void queryEventsNotModified() throws Exception {
+    // Given
+    IntStream.range(0, 5).forEach(this::generateEvent);
+    MockHttpServletRequestBuilder request = get("/api/events").param("size", "3").param("sort", "id,DESC");
+    String eTag = this.mockMvc.perform(request)
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    assertThat(eTag).startsWith("W/");
+
+    // When & Then
+    this.mockMvc.perform(request.header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified());
+
+    this.generateEvent(100);
+    this.mockMvc.perform(get("/api/events").param("size", "3").param("sort", "id,DESC")
+            .header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(eTag)));
+  }
+
+
   @Test
   @TestDescription("없는 이벤트를 조회할 경우 404 응답받기")
   public void queryEvent404() throws Exception {
@@ -272,10 +851,43 @@ public class EventControllerTests extends BaseControllerTests {
   }
 
 
+  @Test
+  @TestDescription("이벤트 조회 시간이 단계별로 기록되고 404 응답 수가 집계된다")
+  public void queryEventMetrics() throws Exception {
+    Event event = this.generateEvent(100);
+    long dbCount = phaseCount("queryEvent", "db");
+    long mappingCount = phaseCount("queryEvent", "mapping");
+    long serializationCount = phaseCount("queryEvent", "serialization");
+    long notFoundCount = clientErrorCount("404");
+
+    this.mockMvc.perform(get("/api/events/{id}", event.getId()))
+            .andExpect(status().isOk());
+    this.mockMvc.perform(get("/api/events/{id}", 1234567))
+            .andExpect(status().isNotFound());
+
+    assertThat(phaseCount("queryEvent", "db")).isEqualTo(dbCount + 2);
+    assertThat(phaseCount("queryEvent", "mapping")).isEqualTo(mappingCount + 1);
+    assertThat(phaseCount("queryEvent", "serialization")).isEqualTo(serializationCount + 1);
+    assertThat(phaseCount("queryEvent", "validation")).isZero();
+    assertThat(clientErrorCount("404")).isEqualTo(notFoundCount + 1);
+  }
+
+  private long phaseCount(String endpoint, String phase) {
+    Timer timer = this.meterRegistry.find("http.server.phases").tag("endpoint", endpoint).tag("phase", phase).timer();
+    return timer == null ? 0 : timer.count();
+  }
+
+  private long clientErrorCount(String status) {
+    Counter counter = this.meterRegistry.find("http.server.client.errors")
+            .tag("status", status).tag("uri", "/api/events/{id}").counter();
+    return counter == null ? 0 : (long) counter.count();
+  }
+
   @Test
   @TestDescription("이벤트 수정하기")
   public void updateEvent() throws Exception {
-    Event event = this.generateEvent(100);
+    Account manager = this.accountRepository.findByEmail(appProperties.getUserUsername()).orElseThrow();
+    Event event = this.generateEvent(100, manager);
 
     String name = "Hello name!!";
     String description = "Hello description";
@@ -298,7 +910,107 @@ public class EventControllerTests extends BaseControllerTests {
     ;
   }
 
+  @Test
+  @TestDescription("If-Match 가 현재 버전과 다르면 이벤트를 수정하지 않고 412 응답받기")
+  public void updateEvent_Precondition_Failed() throws Exception {
+    Account manager = this.accountRepository.findByEmail(appProperties.getUserUsername()).orElseThrow();
+    Event event = this.generateEvent(100, manager);
+    EventDto eventDto = this.modelMapper.map(event, EventDto.class);
+    String accessToken = getAccessToken();
+    String eTag = this.mockMvc.perform(get("/api/events/{id}", event.getId())
+            .header(HttpHeaders.AUTHORIZATION, accessToken))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+    eventDto.setName("first");
+    String updatedETag = this.mockMvc.perform(put("/api/events/{id}", event.getId())
+            .header(HttpHeaders.AUTHORIZATION, accessToken)
+            .header(HttpHeaders.IF_MATCH, eTag)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(eventDto)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("name").value("first"))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    assertThat(updatedETag).isNotEqualTo(eTag);
+
+    eventDto.setName("second");
+    this.mockMvc.perform(put("/api/events/{id}", event.getId())
+            .header(HttpHeaders.AUTHORIZATION, accessToken)
+            .header(HttpHeaders.IF_MATCH, eTag)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(eventDto)))
+            .andDo(print())
+            .andExpect(status().isPreconditionFailed());
+
+    assertThat(this.eventRepository.findById(event.getId()).orElseThrow().getName()).isEqualTo("first");
+  }
+
+  @Test
+  @TestDescription("fields 로 조회해서 받은 ETag 로도 같은 버전이면 이벤트를 수정하기")
+  public void updateEvent_IfMatch_Fields() throws Exception {
+    // Given
+    Account manager = this.accountRepository.findByEmail(appProperties.getUserUsername()).orElseThrow();
+    Event event = this.generateEvent(100, manager);
+    EventDto eventDto = this.modelMapper.map(event, EventDto.class);
+    String accessToken = getAccessToken();
+    String eTag = this.mockMvc.perform(get("/api/events/{id}", event.getId())
+            .param("fields", "name,basePrice")
+            .header(HttpHeaders.AUTHORIZATION, accessToken))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    assertThat(eTag).contains(".f");
+
+    // When
+    eventDto.setName("fields");
+    String updatedETag = this.mockMvc.perform(put("/api/events/{id}", event.getId())
+            .header(HttpHeaders.AUTHORIZATION, accessToken)
+            .header(HttpHeaders.IF_MATCH, eTag)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(eventDto)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("name").value("fields"))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+    // Then
+    eventDto.setName("stale");
+    this.mockMvc.perform(put("/api/events/{id}", event.getId())
+            .header(HttpHeaders.AUTHORIZATION, accessToken)
+            .header(HttpHeaders.IF_MATCH, eTag)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(eventDto)))
+            .andExpect(status().isPreconditionFailed());
+    assertThat(updatedETag).isNotEqualTo(eTag);
+    assertThat(this.eventRepository.findById(event.getId()).orElseThrow().getName()).isEqualTo("fields");
+  }
+
   private Event generateEvent(int i) {
+    return this.generateEvent(i, null);
+  }
+
+  private EventDto generateEventDto(int i) {
+    return EventDto.builder()
+            .name("Name " + i)
+            .description("Description " + i)
+            .beginEnrollmentDateTime(LocalDateTime.of(2020, 2, 27, 11, 29, 30))
+            .closeEnrollmentDateTime(LocalDateTime.of(2020, 2, 28, 0, 0, 0))
+            .beginEventDateTime(LocalDateTime.of(2020, 3, 1, 8, 0, 0, 0))
+            .endEventDateTime(LocalDateTime.of(2020, 3, 2, 0, 0, 0, 0))
+            .basePrice(100)
+            .maxPrice(200)
+            .limitOfEnrollment(100)
+            .location("강남역")
+            .build();
+  }
+
+  private Account generateManager() {
+    Account account = Account.builder()
+            .email(UUID.randomUUID() + "@email.com")
+            .password("1234")
+            .roles(Set.of(AccountRole.USER))
+            .build();
+    return this.accountRepository.save(account);
+  }
+
+  private Event generateEvent(int i, Account manager) {
     Event event = Event.builder()
             .name("Name " + i)
             .description("Description " + i)
@@ -310,6 +1022,7 @@ public class EventControllerTests extends BaseControllerTests {
             .maxPrice(200)
             .limitOfEnrollment(100)
             .location("강남역")
+            .manager(manager)
             .build();
 
     return this.eventRepository.save(event);
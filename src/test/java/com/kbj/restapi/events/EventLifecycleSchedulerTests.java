@@ -0,0 +1,157 @@
+package com.kbj.restapi.events;
+
+import com.kbj.restapi.common.SchedulerLease;
+import com.kbj.restapi.common.TestDescription;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+// 스케줄러가 다른 테스트의 이벤트까지 옮기지 않도록 별도 context(DB)에서 실행한다.
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = "my-app.lifecycle.enabled=false")
+@ActiveProfiles("test")
+public class EventLifecycleSchedulerTests {
+
+  private static final LocalDateTime NOW = LocalDateTime.of(2030, 5, 1, 12, 0);
+
+  @Autowired
+  EventRepository eventRepository;
+
+  @Autowired
+  EventService eventService;
+
+  @Autowired
+  EventChangeRepository eventChangeRepository;
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  private final MutableClock clock = new MutableClock(NOW);
+
+  @Test
+  @TestDescription("날짜가 지난 공개 이벤트를 다음 상태로 옮기고, 여러 날짜가 지났으면 한 번에 마지막 상태까지 옮긴다")
+  public void moveDueEvents() {
+    Event beganEnrollment = generateEvent(EventStatus.PUBLISHED, NOW.minusMinutes(1));
+    Event started = generateEvent(EventStatus.PUBLISHED, NOW.minusDays(10));
+    Event closed = generateEvent(EventStatus.BEGAN_ENROLLMENT, NOW.minusHours(1));
+    Event upcoming = generateEvent(EventStatus.PUBLISHED, NOW.plusSeconds(30));
+    Event draft = generateEvent(EventStatus.DRAFT, NOW.minusDays(10));
+    EventLifecycleScheduler scheduler = scheduler(lease("lifecycle-" + UUID.randomUUID(), "node-1"));
+
+    scheduler.tick();
+
+    assertThat(reload(beganEnrollment).getEventStatus()).isEqualTo(EventStatus.BEGAN_ENROLLMENT);
+    assertThat(reload(beganEnrollment).getVersion()).isEqualTo(beganEnrollment.getVersion() + 1);
+    assertThat(reload(started).getEventStatus()).isEqualTo(EventStatus.STARTED);
+    assertThat(reload(closed).getEventStatus()).isEqualTo(EventStatus.CLOSED_ENROLLMENT);
+    assertThat(reload(upcoming).getEventStatus()).isEqualTo(EventStatus.PUBLISHED);
+    assertThat(reload(draft).getEventStatus()).isEqualTo(EventStatus.DRAFT);
+    // 다른 노드는 캐시 무효화 대신 변경 피드로 바뀐 상태와 version 을 받는다.
+    assertThat(this.eventChangeRepository.findAll())
+      .filteredOn(change -> change.getEventId().equals(beganEnrollment.getId()))
+      .extracting(EventChange::getType, EventChange::getEventVersion)
+      .containsExactly(tuple(EventChangeType.UPDATED, beganEnrollment.getVersion() + 1));
+
+    // 큐에 남은 전이는 DB 를 다시 읽지 않고 시각이 되면 적용된다.
+    this.clock.set(NOW.plusSeconds(30));
+    scheduler.tick();
+    assertThat(reload(upcoming).getEventStatus()).isEqualTo(EventStatus.BEGAN_ENROLLMENT);
+  }
+
+  @Test
+  @TestDescription("lease 를 가진 노드만 상태를 옮기고, lease 가 만료되면 다른 노드가 이어받는다")
+  public void onlyLeaseHolderMovesEvents() {
+    String name = "lifecycle-" + UUID.randomUUID();
+    SchedulerLease lease1 = lease(name, "node-1");
+    SchedulerLease lease2 = lease(name, "node-2");
+    EventLifecycleScheduler node1 = scheduler(lease1);
+    EventLifecycleScheduler node2 = scheduler(lease2);
+    Event event = generateEvent(EventStatus.PUBLISHED, NOW.minusMinutes(1));
+
+    node2.tick();
+    node1.tick();
+    assertThat(lease2.isHeld()).isTrue();
+    assertThat(lease1.isHeld()).isFalse();
+    assertThat(node1.getQueued()).isZero();
+    assertThat(reload(event).getEventStatus()).isEqualTo(EventStatus.BEGAN_ENROLLMENT);
+
+    // node-2 가 멈춰서 갱신하지 못하면 만료 뒤에 node-1 이 lease 를 가져간다.
+    Event next = generateEvent(EventStatus.PUBLISHED, NOW.plusSeconds(20));
+    this.clock.set(NOW.plusSeconds(31));
+    node1.tick();
+    assertThat(lease1.isHeld()).isTrue();
+    assertThat(reload(next).getEventStatus()).isEqualTo(EventStatus.BEGAN_ENROLLMENT);
+  }
+
+  private EventLifecycleScheduler scheduler(SchedulerLease lease) {
+    return new EventLifecycleScheduler(this.eventRepository, this.eventService, lease, this.clock,
+      Duration.ofMinutes(10), Duration.ofMinutes(1), 1000, 2, new SimpleMeterRegistry());
+  }
+
+  private SchedulerLease lease(String name, String owner) {
+    return new SchedulerLease(this.jdbcTemplate, name, owner, Duration.ofSeconds(30), this.clock);
+  }
+
+  private Event reload(Event event) {
+    return this.eventRepository.findById(event.getId()).orElseThrow();
+  }
+
+  // 현재 상태에서 다음 전이 시각이 dueAt 이 되도록 날짜를 하루씩 띄워 만든다.
+  private Event generateEvent(EventStatus status, LocalDateTime dueAt) {
+    LocalDateTime beginEnrollment = status == EventStatus.BEGAN_ENROLLMENT ? dueAt.minusDays(1) : dueAt;
+    Event event = Event.builder()
+      .name("Lifecycle")
+      .description("lifecycle test")
+      .beginEnrollmentDateTime(beginEnrollment)
+      .closeEnrollmentDateTime(beginEnrollment.plusDays(1))
+      .beginEventDateTime(beginEnrollment.plusDays(2))
+      .endEventDateTime(beginEnrollment.plusDays(3))
+      .eventStatus(status)
+      .build();
+    return this.eventRepository.save(event);
+  }
+
+  private static class MutableClock extends Clock {
+
+    private volatile Instant instant;
+
+    private MutableClock(LocalDateTime now) {
+      set(now);
+    }
+
+    private void set(LocalDateTime now) {
+      this.instant = now.toInstant(ZoneOffset.UTC);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Instant instant() {
+      return this.instant;
+    }
+  }
+}
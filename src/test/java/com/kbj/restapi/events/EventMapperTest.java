@@ -0,0 +1,69 @@
+package com.kbj.restapi.events;
+
+import com.kbj.restapi.accounts.Account;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EventMapperTest {
+
+  private final EventMapper eventMapper = new EventMapperImpl();
+  private final ModelMapper modelMapper = new ModelMapper();
+
+  @Test
+  public void toEvent() {
+    EventDto eventDto = eventDto();
+
+    Event event = this.eventMapper.toEvent(eventDto);
+
+    assertThat(event).isEqualToComparingFieldByField(this.modelMapper.map(eventDto, Event.class));
+    assertThat(event.getId()).isNull();
+    assertThat(event.getEventStatus()).isEqualTo(EventStatus.DRAFT);
+  }
+
+  @Test
+  public void update() {
+    EventDto eventDto = eventDto();
+    eventDto.setLocation(null);
+    Event expected = existingEvent();
+    this.modelMapper.map(eventDto, expected);
+
+    Event event = existingEvent();
+    this.eventMapper.update(eventDto, event);
+
+    assertThat(event).isEqualToComparingFieldByField(expected);
+    assertThat(event.getId()).isEqualTo(10);
+    assertThat(event.getLocation()).isNull();
+    assertThat(event.getEventStatus()).isEqualTo(EventStatus.PUBLISHED);
+  }
+
+  private EventDto eventDto() {
+    return EventDto.builder()
+      .name("Spring")
+      .description("REST API")
+      .beginEnrollmentDateTime(LocalDateTime.of(2020, 2, 27, 11, 29, 30))
+      .closeEnrollmentDateTime(LocalDateTime.of(2020, 2, 28, 0, 0, 0))
+      .beginEventDateTime(LocalDateTime.of(2020, 3, 1, 8, 0, 0))
+      .endEventDateTime(LocalDateTime.of(2020, 3, 2, 0, 0, 0))
+      .location("강남역")
+      .basePrice(100)
+      .maxPrice(200)
+      .limitOfEnrollment(100)
+      .build();
+  }
+
+  private Event existingEvent() {
+    return Event.builder()
+      .id(10)
+      .name("Old")
+      .description("Old description")
+      .location("판교역")
+      .offline(true)
+      .eventStatus(EventStatus.PUBLISHED)
+      .manager(Account.builder().id(1).build())
+      .build();
+  }
+}
@@ -0,0 +1,40 @@
+package com.kbj.restapi.events;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@ActiveProfiles("test")
+public class EventRepositoryTests {
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  // 목록 필터 조건마다 Event 에 선언한 인덱스를 타는지 실행 계획으로 확인한다.
+  @ParameterizedTest(name = "{0}")
+  @CsvSource(delimiter = '|', value = {
+    "event_status = 'PUBLISHED' and begin_event_date_time >= '2020-03-01 00:00:00'             | IDX_EVENT_STATUS_BEGIN_EVENT",
+    "event_status = 'PUBLISHED' and begin_enrollment_date_time <= '2020-03-01 00:00:00'        | IDX_EVENT_STATUS_BEGIN_ENROLLMENT",
+    "event_status = 'BEGAN_ENROLLMENT' and close_enrollment_date_time <= '2020-03-01 00:00:00' | IDX_EVENT_STATUS_CLOSE_ENROLLMENT",
+    "manager_id = 1 and begin_event_date_time >= '2020-03-01 00:00:00'                         | IDX_EVENT_MANAGER_BEGIN_EVENT",
+    "free = true and begin_event_date_time < '2020-04-01 00:00:00'                             | IDX_EVENT_FREE_BEGIN_EVENT",
+    "offline = false                                                                           | IDX_EVENT_OFFLINE_BEGIN_EVENT",
+    "begin_event_date_time >= '2020-03-01 00:00:00'                                            | IDX_EVENT_BEGIN_EVENT",
+    "begin_enrollment_date_time >= '2020-02-01 00:00:00'                                       | IDX_EVENT_BEGIN_ENROLLMENT",
+    "base_price between 100 and 200                                                            | IDX_EVENT_BASE_PRICE"
+  })
+  public void filterUsesIndex(String condition, String index) {
+    String plan = this.jdbcTemplate.queryForObject("explain select * from event where " + condition, String.class);
+
+    assertThat(plan).contains(index);
+  }
+}
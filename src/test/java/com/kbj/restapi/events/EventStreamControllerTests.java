@@ -0,0 +1,160 @@
+package com.kbj.restapi.events;
+
+import com.kbj.restapi.accounts.Account;
+import com.kbj.restapi.accounts.AccountRepository;
+import com.kbj.restapi.common.AppProperties;
+import com.kbj.restapi.common.TestDescription;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 구독은 non-blocking servlet 출력(WriteListener)을 쓰므로 MockMvc 가 아니라 실제 서버로 요청한다.
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public class EventStreamControllerTests {
+
+  @LocalServerPort
+  int port;
+
+  @Autowired
+  EventService eventService;
+
+  @Autowired
+  EventChangeRelay eventChangeRelay;
+
+  @Autowired
+  EventStreamHub eventStreamHub;
+
+  @Autowired
+  AccountRepository accountRepository;
+
+  @Autowired
+  AppProperties appProperties;
+
+  private final HttpClient client = HttpClient.newHttpClient();
+  private final List<Stream> streams = new ArrayList<>();
+
+  @AfterEach
+  public void tearDown() throws IOException {
+    for (Stream stream : this.streams) {
+      stream.close();
+    }
+  }
+
+  @Test
+  @TestDescription("구독한 manager 의 이벤트가 생성/수정되면 SSE 로 받고, 다른 이벤트를 구독한 연결에는 보내지 않는 테스트")
+  public void streamEvents() throws Exception {
+    // Given
+    Account manager = this.accountRepository.findByEmail(appProperties.getUserUsername()).orElseThrow();
+    this.eventChangeRelay.relay();
+    this.eventStreamHub.poll();
+    Stream managerStream = open("manager=" + manager.getId());
+    Stream otherStream = open("id=987654321");
+
+    // When
+    Event event = this.eventService.create(generateEvent(manager));
+    this.eventChangeRelay.relay();
+    this.eventStreamHub.poll();
+
+    // Then
+    assertThat(managerStream.response.statusCode()).isEqualTo(200);
+    assertThat(managerStream.response.headers().firstValue("X-Accel-Buffering")).hasValue("no");
+    assertThat(managerStream.response.headers().firstValue(HttpHeaders.CONTENT_TYPE).orElseThrow())
+      .startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+    String content = managerStream.await(body -> body.contains("event:CREATED"));
+    assertThat(content).startsWith(":\n\n");
+    assertThat(content).contains("event:CREATED\ndata:{\"id\":" + event.getId() + ",\"name\":\"Stream\"");
+
+    // 보내기 전에 같은 이벤트가 여러 번 바뀌면 마지막 변경만 받을 수 있으므로 한 번씩 기다린다.
+    event.setName("Stream updated");
+    this.eventService.update(event);
+    this.eventChangeRelay.relay();
+    this.eventStreamHub.poll();
+    content = managerStream.await(body -> body.contains("event:UPDATED"));
+    assertThat(content).contains("event:UPDATED\ndata:{\"id\":" + event.getId() + ",\"name\":\"Stream updated\"");
+    assertThat(otherStream.await(body -> body.startsWith(":\n\n"))).isEqualTo(":\n\n");
+    assertThat(this.eventStreamHub.getSubscribers()).isGreaterThanOrEqualTo(2);
+  }
+
+  private Stream open(String query) throws Exception {
+    HttpResponse<InputStream> response = this.client.send(HttpRequest.newBuilder(
+      URI.create("http://localhost:" + this.port + "/api/events/stream?" + query))
+        .header(HttpHeaders.ACCEPT, MediaType.TEXT_EVENT_STREAM_VALUE)
+        .GET().build(),
+      HttpResponse.BodyHandlers.ofInputStream());
+    Stream stream = new Stream(response);
+    this.streams.add(stream);
+    return stream;
+  }
+
+  private Event generateEvent(Account manager) {
+    return Event.builder()
+            .name("Stream")
+            .description("Stream test")
+            .beginEnrollmentDateTime(LocalDateTime.of(2020, 2, 27, 11, 29, 30))
+            .closeEnrollmentDateTime(LocalDateTime.of(2020, 2, 28, 0, 0, 0))
+            .beginEventDateTime(LocalDateTime.of(2020, 3, 1, 8, 0, 0, 0))
+            .endEventDateTime(LocalDateTime.of(2020, 3, 2, 0, 0, 0, 0))
+            .location("강남역")
+            .manager(manager)
+            .build();
+  }
+
+  // 응답 본문을 따로 읽어 두고, 조건을 만족할 때까지 기다린다.
+  private static class Stream {
+
+    private final HttpResponse<InputStream> response;
+    private final StringBuffer body = new StringBuffer();
+
+    private Stream(HttpResponse<InputStream> response) {
+      this.response = response;
+      Thread reader = new Thread(() -> {
+        byte[] buffer = new byte[8192];
+        try (InputStream in = response.body()) {
+          int read;
+          while ((read = in.read(buffer)) >= 0) {
+            this.body.append(new String(buffer, 0, read, StandardCharsets.UTF_8));
+          }
+        } catch (IOException e) {
+          // 테스트가 끝나 연결을 닫았다.
+        }
+      });
+      reader.setDaemon(true);
+      reader.start();
+    }
+
+    private String await(Predicate<String> condition) throws InterruptedException {
+      long deadline = System.currentTimeMillis() + 5000;
+      while (!condition.test(this.body.toString()) && System.currentTimeMillis() < deadline) {
+        Thread.sleep(20);
+      }
+      return this.body.toString();
+    }
+
+    private void close() throws IOException {
+      this.response.body().close();
+    }
+  }
+}
@@ -0,0 +1,242 @@
+package com.kbj.restapi.events;
+
+import com.kbj.restapi.common.TestDescription;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EventStreamHubTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final MutableClock clock = new MutableClock();
+  private final EventStreamHub hub = new EventStreamHub(Mockito.mock(EventChangeRepository.class), this.clock, 60000,
+    30000, 2, 20000, 100, this.meterRegistry);
+
+  @AfterEach
+  public void close() {
+    this.hub.close();
+  }
+
+  @Test
+  @TestDescription("소켓이 쓸 수 없는 동안 같은 이벤트는 최신 프레임으로 바꾸고, bufferSize 를 넘으면 OVERFLOW 를 돌려주는 테스트")
+  public void coalesceAndOverflow() {
+    // Given
+    FakeOutputStream out = new FakeOutputStream(false);
+    EventStreamHub.Subscriber subscriber = subscriber(out, null);
+
+    // When
+    EventStreamHub.Offer first = subscriber.offer(frame(1, 1), 2);
+    EventStreamHub.Offer second = subscriber.offer(frame(2, 1), 2);
+    EventStreamHub.Offer third = subscriber.offer(frame(3, 2), 2);
+    subscriber.write();
+    out.ready = true;
+    subscriber.onWritePossible();
+
+    // Then
+    assertThat(first).isEqualTo(EventStreamHub.Offer.QUEUED);
+    assertThat(second).isEqualTo(EventStreamHub.Offer.COALESCED);
+    assertThat(third).isEqualTo(EventStreamHub.Offer.QUEUED);
+    assertThat(out.text())
+      .isEqualTo("id:2\nevent:UPDATED\ndata:{\"id\":1}\n\nid:3\nevent:UPDATED\ndata:{\"id\":2}\n\n");
+    assertThat(out.flushes).isEqualTo(1);
+
+    out.ready = false;
+    assertThat(subscriber.offer(frame(4, 3), 2)).isEqualTo(EventStreamHub.Offer.QUEUED);
+    assertThat(subscriber.offer(frame(5, 4), 2)).isEqualTo(EventStreamHub.Offer.QUEUED);
+    assertThat(subscriber.offer(frame(6, 5), 2)).isEqualTo(EventStreamHub.Offer.OVERFLOW);
+    assertThat(subscriber.offer(frame(7, 6), 2)).isEqualTo(EventStreamHub.Offer.CLOSED);
+  }
+
+  @Test
+  @TestDescription("받지 않는 구독자가 있어도 다른 구독자에게는 기다리지 않고 보내고, 넘친 구독자만 끊는 테스트")
+  public void blockedSubscriberDoesNotDelayOthers() {
+    // Given
+    FakeOutputStream fast = new FakeOutputStream(true);
+    FakeOutputStream slow = new FakeOutputStream(false);
+    AtomicInteger completed = new AtomicInteger();
+    this.hub.register(subscriber(fast, null));
+    this.hub.register(subscriber(slow, completed::incrementAndGet));
+
+    // When
+    this.hub.broadcast(change(1, 1));
+    this.hub.broadcast(change(2, 2));
+    this.hub.broadcast(change(3, 2));
+    this.hub.broadcast(change(4, 3));
+
+    // Then
+    assertThat(fast.text()).contains("id:1\n", "id:2\n", "id:3\n", "id:4\n");
+    assertThat(fast.writers).containsOnly(Thread.currentThread().getName());
+    assertThat(slow.text()).isEmpty();
+    assertThat(completed.get()).isEqualTo(1);
+    assertThat(this.hub.getSubscribers()).isEqualTo(1);
+    assertThat(count("coalesced")).isEqualTo(1);
+    assertThat(count("dropped")).isEqualTo(1);
+  }
+
+  @Test
+  @TestDescription("writeTimeout 넘게 소켓에 쓰지 못한 구독자는 heartbeat 때 끊고, 다시 쓸 수 있게 된 구독자는 남기는 테스트")
+  public void closeStalledSubscriber() {
+    // Given
+    FakeOutputStream stalled = new FakeOutputStream(false);
+    FakeOutputStream recovered = new FakeOutputStream(false);
+    AtomicInteger completed = new AtomicInteger();
+    EventStreamHub.Subscriber recovering = subscriber(recovered, null);
+    this.hub.register(subscriber(stalled, completed::incrementAndGet));
+    this.hub.register(recovering);
+    this.hub.broadcast(change(1, 1));
+
+    // When
+    this.clock.advance(10000);
+    recovered.ready = true;
+    recovering.onWritePossible();
+    this.clock.advance(20001);
+    this.hub.heartbeat();
+
+    // Then
+    assertThat(completed.get()).isEqualTo(1);
+    assertThat(this.hub.getSubscribers()).isEqualTo(1);
+    assertThat(count("stalled")).isEqualTo(1);
+    assertThat(recovered.text()).isEqualTo("id:1\nevent:UPDATED\ndata:{\"id\":1}\n\n:\n\n");
+  }
+
+  @Test
+  @TestDescription("유휴 구독자 10,000 개를 스레드 없이 들고, heartbeat 와 변경을 호출한 스레드에서 바로 쓰는 테스트")
+  public void holdTenThousandIdleSubscribers() {
+    // Given
+    int size = 10000;
+    Set<String> writers = ConcurrentHashMap.newKeySet();
+    List<FakeOutputStream> streams = new ArrayList<>(size);
+    int threads = Thread.activeCount();
+    for (int i = 0; i < size; i++) {
+      FakeOutputStream out = new FakeOutputStream(true, writers);
+      streams.add(out);
+      this.hub.register(subscriber(out, Set.of(i), null));
+    }
+
+    // When
+    this.hub.heartbeat();
+    this.hub.broadcast(change(1, 42));
+
+    // Then
+    assertThat(this.hub.getSubscribers()).isEqualTo(size);
+    assertThat(this.meterRegistry.get("event.stream.subscribers").gauge().value()).isEqualTo(size);
+    assertThat(Thread.activeCount()).isLessThanOrEqualTo(threads);
+    assertThat(writers).containsOnly(Thread.currentThread().getName());
+    assertThat(streams).allSatisfy(out -> assertThat(out.text()).startsWith(":\n\n"));
+    assertThat(streams.get(42).text()).isEqualTo(":\n\nid:1\nevent:UPDATED\ndata:{\"id\":42}\n\n");
+    assertThat(streams.get(43).text()).isEqualTo(":\n\n");
+  }
+
+  private EventStreamHub.Subscriber subscriber(FakeOutputStream out, Runnable complete) {
+    return subscriber(out, null, complete);
+  }
+
+  private EventStreamHub.Subscriber subscriber(FakeOutputStream out, Set<Integer> ids, Runnable complete) {
+    return new EventStreamHub.Subscriber(out, this.clock, complete == null ? () -> { } : complete, ids, null);
+  }
+
+  private double count(String action) {
+    return this.meterRegistry.get("event.stream.backpressure").tag("action", action).counter().count();
+  }
+
+  private EventStreamHub.Frame frame(long sequence, int eventId) {
+    return EventStreamHub.Frame.of(change(sequence, eventId));
+  }
+
+  private EventChange change(long sequence, int eventId) {
+    return EventChange.builder()
+      .sequence(sequence)
+      .eventId(eventId)
+      .type(EventChangeType.UPDATED)
+      .payload("{\"id\":" + eventId + "}")
+      .build();
+  }
+
+  // isReady 를 바꿀 수 있는 출력 스트림. 쓴 내용과 쓴 스레드를 남긴다.
+  private static class FakeOutputStream extends ServletOutputStream {
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final Set<String> writers;
+    private volatile boolean ready;
+    private int flushes;
+
+    private FakeOutputStream(boolean ready) {
+      this(ready, ConcurrentHashMap.newKeySet());
+    }
+
+    private FakeOutputStream(boolean ready, Set<String> writers) {
+      this.ready = ready;
+      this.writers = writers;
+    }
+
+    @Override
+    public boolean isReady() {
+      return this.ready;
+    }
+
+    @Override
+    public void setWriteListener(WriteListener writeListener) {
+    }
+
+    @Override
+    public void write(int b) {
+      write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+      this.writers.add(Thread.currentThread().getName());
+      this.bytes.write(b, off, len);
+    }
+
+    @Override
+    public void flush() {
+      this.flushes++;
+    }
+
+    private String text() {
+      return new String(this.bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+  }
+
+  private static class MutableClock extends Clock {
+
+    private long millis = 1_000_000;
+
+    private void advance(long millis) {
+      this.millis += millis;
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return Instant.ofEpochMilli(this.millis);
+    }
+  }
+}
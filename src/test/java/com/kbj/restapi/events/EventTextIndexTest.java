@@ -0,0 +1,127 @@
+package com.kbj.restapi.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kbj.restapi.common.TestDescription;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class EventTextIndexTest {
+
+  private final EventRepository eventRepository = mock(EventRepository.class);
+  private final EventChangeRepository eventChangeRepository = mock(EventChangeRepository.class);
+  private final EventTextIndex index = new EventTextIndex(eventRepository, eventChangeRepository, new ObjectMapper());
+
+  @Test
+  @TestDescription("name, location, description 순서의 가중치로 순위를 매긴다")
+  public void searchRanksByFieldWeight() {
+    index.index(event(1, "Java meetup", "Spring and JPA", "강남역"));
+    index.index(event(2, "Spring camp", "Conference", "판교역"));
+    index.index(event(3, "Kotlin", "Learn Kotlin", "spring street"));
+
+    assertThat(index.search("spring")).containsExactly(2, 3, 1);
+  }
+
+  @Test
+  @TestDescription("모든 검색어가 접두어로라도 들어있는 이벤트만 찾는다")
+  public void searchAllTermsWithPrefix() {
+    index.index(event(1, "Spring Boot 입문", "REST API", "강남역"));
+    index.index(event(2, "Spring Batch", "대용량 처리", "강남역"));
+
+    assertThat(index.search("spr 입")).containsExactly(1);
+    assertThat(index.search("강남")).containsExactlyInAnyOrder(1, 2);
+    assertThat(index.search("boot batch")).isEmpty();
+    assertThat(index.search("  ")).isEmpty();
+  }
+
+  @Test
+  @TestDescription("완전히 일치한 term 이 접두어로 일치한 term 보다 앞선다")
+  public void exactMatchRanksAbovePrefix() {
+    index.index(event(1, "Springfield", null, null));
+    index.index(event(2, "Spring", null, null));
+
+    assertThat(index.search("spring")).containsExactly(2, 1);
+  }
+
+  @Test
+  @TestDescription("다시 색인하면 이전 term 을 지우고, 낮은 version 으로는 되돌리지 않는다")
+  public void reindexReplacesTerms() {
+    Event event = event(1, "Spring", "REST API", null);
+    event.setVersion(1L);
+    index.index(event);
+    event.setName("Kotlin");
+    event.setVersion(2L);
+    index.index(event);
+
+    assertThat(index.search("spring")).isEmpty();
+    assertThat(index.search("kotlin")).containsExactly(1);
+
+    event.setName("Spring");
+    event.setVersion(1L);
+    index.index(event);
+    assertThat(index.search("kotlin")).containsExactly(1);
+  }
+
+  @Test
+  @TestDescription("다른 노드에서 바뀐 이벤트는 rebuild 때의 피드 위치부터 읽어 색인한다")
+  public void indexChangesFromFeed() {
+    // Given
+    when(eventChangeRepository.findMaxSequence()).thenReturn(10L);
+    index.rebuild();
+    when(eventChangeRepository.findBySequenceGreaterThanOrderBySequence(eq(10L), any(Pageable.class)))
+      .thenReturn(List.of(change(11L, 5, 0L, "{\"name\":\"Spring camp\",\"location\":\"판교역\"}")));
+
+    // When
+    index.poll();
+
+    // Then
+    assertThat(index.search("spring")).containsExactly(5);
+    assertThat(index.search("판교")).containsExactly(5);
+  }
+
+  @Test
+  @TestDescription("rebuild 중에 색인된 이벤트는 새 색인으로 바꾼 뒤에도 남는다")
+  public void rebuildKeepsConcurrentUpdates() {
+    // Given
+    Event stale = event(1, "Spring", null, null);
+    stale.setVersion(1L);
+    when(eventRepository.findAllByCursor(any(EventCursor.class), any(), anyBoolean(), anyInt())).thenAnswer(invocation -> {
+      // DB 를 읽는 사이 이 노드에서 이벤트를 바꾸고 새로 만든다.
+      Event updated = event(1, "Kotlin", null, null);
+      updated.setVersion(2L);
+      index.index(updated);
+      index.index(event(2, "Spring Batch", null, null));
+      return List.of(stale);
+    });
+
+    // When
+    index.rebuild();
+
+    // Then
+    assertThat(index.search("kotlin")).containsExactly(1);
+    assertThat(index.search("spring")).containsExactly(2);
+  }
+
+  private Event event(int id, String name, String description, String location) {
+    return Event.builder().id(id).name(name).description(description).location(location).build();
+  }
+
+  private EventChange change(Long sequence, Integer eventId, Long version, String payload) {
+    return EventChange.builder()
+      .sequence(sequence)
+      .eventId(eventId)
+      .type(EventChangeType.UPDATED)
+      .eventVersion(version)
+      .payload(payload)
+      .build();
+  }
+}
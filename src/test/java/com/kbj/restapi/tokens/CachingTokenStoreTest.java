@@ -0,0 +1,108 @@
+package com.kbj.restapi.tokens;
+
+import com.kbj.restapi.common.TestDescription;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.common.DefaultOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+import org.springframework.security.oauth2.provider.token.store.InMemoryTokenStore;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CachingTokenStoreTest {
+
+    private final CountingTokenStore delegate = new CountingTokenStore();
+    private final CachingTokenStore tokenStore = new CachingTokenStore(delegate, Duration.ofMinutes(1), 100);
+
+    @Test
+    @TestDescription("다른 노드가 저장한 토큰은 처음 한 번만 저장소에서 읽고 이후에는 캐시에서 돌려준다")
+    public void readCached() {
+        // Given
+        OAuth2AccessToken token = accessToken("access-1", "refresh-1");
+        OAuth2Authentication authentication = authentication("user@email.com");
+        this.delegate.storeAccessToken(token, authentication);
+
+        // When
+        this.tokenStore.readAccessToken("access-1");
+        this.tokenStore.readAccessToken("access-1");
+        this.tokenStore.readAuthentication("access-1");
+        this.tokenStore.readAuthentication("access-1");
+
+        // Then
+        assertThat(this.delegate.accessTokenReads.get()).isEqualTo(1);
+        assertThat(this.delegate.authenticationReads.get()).isEqualTo(1);
+        assertThat(this.tokenStore.readAuthentication("access-1").getName()).isEqualTo("user@email.com");
+    }
+
+    @Test
+    @TestDescription("토큰을 폐기하면 캐시에서도 지워져 더 이상 읽히지 않는다")
+    public void evictOnRevoke() {
+        // Given
+        OAuth2AccessToken token = accessToken("access-1", "refresh-1");
+        this.tokenStore.storeAccessToken(token, authentication("user@email.com"));
+        assertThat(this.tokenStore.readAccessToken("access-1")).isNotNull();
+
+        // When
+        this.tokenStore.removeAccessToken(token);
+
+        // Then
+        assertThat(this.tokenStore.readAccessToken("access-1")).isNull();
+        assertThat(this.tokenStore.readAuthentication("access-1")).isNull();
+    }
+
+    @Test
+    @TestDescription("refresh token 으로 access token 을 지우면 캐시에 남은 access token 도 지운다")
+    public void evictOnRefresh() {
+        // Given
+        OAuth2AccessToken token = accessToken("access-1", "refresh-1");
+        this.tokenStore.storeAccessToken(token, authentication("user@email.com"));
+        assertThat(this.tokenStore.readAuthentication("access-1")).isNotNull();
+
+        // When
+        this.tokenStore.removeAccessTokenUsingRefreshToken(token.getRefreshToken());
+
+        // Then
+        assertThat(this.tokenStore.readAccessToken("access-1")).isNull();
+        assertThat(this.tokenStore.readAuthentication("access-1")).isNull();
+    }
+
+    private OAuth2AccessToken accessToken(String value, String refreshToken) {
+        DefaultOAuth2AccessToken token = new DefaultOAuth2AccessToken(value);
+        token.setRefreshToken(new DefaultOAuth2RefreshToken(refreshToken));
+        return token;
+    }
+
+    private OAuth2Authentication authentication(String username) {
+        OAuth2Request request = new OAuth2Request(Collections.emptyMap(), "myApp",
+                AuthorityUtils.NO_AUTHORITIES, true, Set.of("read"), null, null, null, null);
+        return new OAuth2Authentication(request,
+                new UsernamePasswordAuthenticationToken(username, null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+    }
+
+    private static class CountingTokenStore extends InMemoryTokenStore {
+
+        private final AtomicInteger accessTokenReads = new AtomicInteger();
+        private final AtomicInteger authenticationReads = new AtomicInteger();
+
+        @Override
+        public OAuth2AccessToken readAccessToken(String tokenValue) {
+            accessTokenReads.incrementAndGet();
+            return super.readAccessToken(tokenValue);
+        }
+
+        @Override
+        public OAuth2Authentication readAuthentication(String token) {
+            authenticationReads.incrementAndGet();
+            return super.readAuthentication(token);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.kbj.restapi.tokens;
+
+import com.kbj.restapi.accounts.Account;
+import com.kbj.restapi.accounts.AccountAdapter;
+import com.kbj.restapi.accounts.AccountRole;
+import com.kbj.restapi.common.TestDescription;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.common.DefaultExpiringOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.common.exceptions.InvalidTokenException;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+import org.springframework.security.oauth2.provider.token.DefaultTokenServices;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ExpiringJdbcTokenStoreTest {
+
+    private static final long MINUTE = 60 * 1000;
+
+    private final EmbeddedDatabase dataSource = new EmbeddedDatabaseBuilder()
+            .setType(EmbeddedDatabaseType.H2)
+            .setName(UUID.randomUUID().toString())
+            .addScript("classpath:schema.sql")
+            .build();
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    private final ExpiringJdbcTokenStore tokenStore = new ExpiringJdbcTokenStore(dataSource);
+
+    @AfterEach
+    public void tearDown() {
+        this.dataSource.shutdown();
+    }
+
+    @Test
+    @TestDescription("만료 시각이 지난 access, refresh token 만 지우고 유효한 토큰은 남긴다")
+    public void sweepExpiredTokens() {
+        // Given
+        long now = System.currentTimeMillis();
+        store("expired", "expired@email.com", now - MINUTE);
+        store("valid", "valid@email.com", now + MINUTE);
+
+        // When
+        new ExpiredTokenSweeper(this.tokenStore).sweep();
+
+        // Then
+        assertThat(this.tokenStore.readAccessToken("expired-access")).isNull();
+        assertThat(this.tokenStore.readRefreshToken("expired-refresh")).isNull();
+        assertThat(this.tokenStore.readAccessToken("valid-access")).isNotNull();
+        assertThat(this.tokenStore.readRefreshToken("valid-refresh")).isNotNull();
+        assertThat(count("oauth_access_token")).isEqualTo(1);
+        assertThat(count("oauth_refresh_token")).isEqualTo(1);
+    }
+
+    @Test
+    @TestDescription("sweep 전에 만료된 토큰으로 요청하면 거부하고 저장소에서 지운다")
+    public void rejectExpiredTokenOnRead() {
+        // Given
+        store("expired", "expired@email.com", System.currentTimeMillis() - MINUTE);
+        DefaultTokenServices tokenServices = new DefaultTokenServices();
+        tokenServices.setTokenStore(this.tokenStore);
+
+        // When & Then
+        assertThatThrownBy(() -> tokenServices.loadAuthentication("expired-access"))
+                .isInstanceOf(InvalidTokenException.class);
+        assertThat(this.tokenStore.readAccessToken("expired-access")).isNull();
+    }
+
+    @Test
+    @TestDescription("저장된 인증 정보의 계정에는 비밀번호 해시가 남지 않는다")
+    public void storeAuthenticationWithoutPassword() {
+        // Given
+        Account account = Account.builder()
+                .id(1)
+                .email("user@email.com")
+                .password("{bcrypt}hash")
+                .roles(Set.of(AccountRole.USER))
+                .build();
+        AccountAdapter principal = new AccountAdapter(account);
+        // ProviderManager 가 인증 뒤에 지우는 것처럼 User 의 비밀번호는 지운다.
+        principal.eraseCredentials();
+        DefaultOAuth2AccessToken token = new DefaultOAuth2AccessToken("access");
+        token.setExpiration(new Date(System.currentTimeMillis() + MINUTE));
+
+        // When
+        this.tokenStore.storeAccessToken(token, authentication(principal));
+
+        // Then
+        Account stored = ((AccountAdapter) this.tokenStore.readAuthentication("access").getPrincipal()).getAccount();
+        assertThat(stored.getEmail()).isEqualTo("user@email.com");
+        assertThat(stored.getRoles()).containsExactly(AccountRole.USER);
+        assertThat(stored.getPassword()).isNull();
+    }
+
+    private void store(String prefix, String username, long expiration) {
+        DefaultExpiringOAuth2RefreshToken refreshToken =
+                new DefaultExpiringOAuth2RefreshToken(prefix + "-refresh", new Date(expiration));
+        DefaultOAuth2AccessToken token = new DefaultOAuth2AccessToken(prefix + "-access");
+        token.setExpiration(new Date(expiration));
+        token.setRefreshToken(refreshToken);
+        OAuth2Authentication authentication = authentication(username);
+        this.tokenStore.storeAccessToken(token, authentication);
+        this.tokenStore.storeRefreshToken(refreshToken, authentication);
+    }
+
+    private OAuth2Authentication authentication(Object principal) {
+        OAuth2Request request = new OAuth2Request(Collections.emptyMap(), "myApp",
+                AuthorityUtils.NO_AUTHORITIES, true, Set.of("read"), null, null, null, null);
+        return new OAuth2Authentication(request,
+                new UsernamePasswordAuthenticationToken(principal, null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+    }
+
+    private int count(String table) {
+        return this.jdbcTemplate.queryForObject("select count(*) from " + table, Integer.class);
+    }
+}